@@ -0,0 +1,45 @@
+package com.qa.challenge.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qa.challenge.stub.StubDataset;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Response bodies in the same shape as the live API (generated by {@link StubDataset}) and the mapper setups
+ * the benchmarks compare.
+ */
+final class Payloads {
+    private static final StubDataset dataset = new StubDataset(10_000_000, 42);
+
+    private Payloads() {
+    }
+
+    static byte[] userResponse(int id) {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"errorCode\":0,\"errorMessage\":null,\"user\":");
+        dataset.appendUserJson(id, json);
+        return json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] userIdList(int size) {
+        StringBuilder json = new StringBuilder(size * 9 + 64)
+                .append("{\"success\":true,\"errorCode\":0,\"errorMessage\":null,\"idList\":[");
+        for (int id = 1; id <= size; id++) {
+            if (id > 1) {
+                json.append(',');
+            }
+            json.append(id);
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Same configuration as RestClient's mapper
+    static ObjectMapper restClientMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+}
@@ -0,0 +1,123 @@
+package com.qa.challenge.bench;
+
+import com.qa.challenge.utils.RestClient;
+import com.qa.challenge.utils.TestConfig;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of preparing a request, without sending it: expanding the endpoint template
+ * and building the RestAssured request specification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestConstructionBenchmark {
+    private Map<String, Object> pathParams;
+    private Map<String, Object> queryParams;
+    private PathTemplate compiledTemplate;
+    private RequestSpecification baseSpec;
+
+    @Setup
+    public void setUp() {
+        pathParams = new HashMap<>();
+        pathParams.put("id", 4242);
+        queryParams = new HashMap<>();
+        queryParams.put("gender", TestConfig.GENDER_MALE);
+        compiledTemplate = PathTemplate.compile(TestConfig.USER_ENDPOINT);
+        baseSpec = newBaseSpec();
+    }
+
+    // RestClient.get(endpoint, pathParams, true): one String.replace per parameter
+    @Benchmark
+    public String expandWithStringReplace() {
+        return RestClient.expandPath(TestConfig.USER_ENDPOINT, pathParams);
+    }
+
+    // Alternative: template split into literals and names once, expanded with one StringBuilder
+    @Benchmark
+    public String expandCompiledTemplate() {
+        return compiledTemplate.expand(pathParams);
+    }
+
+    // What the original RestClient constructor did for every test instance
+    @Benchmark
+    public RequestSpecification buildSpecFromScratch() {
+        return newBaseSpec();
+    }
+
+    // What RestClient does per request: a fresh copy of the shared base spec
+    @Benchmark
+    public RequestSpecification givenWithSharedSpec() {
+        return RestAssured.given().spec(baseSpec);
+    }
+
+    @Benchmark
+    public RequestSpecification givenWithSharedSpecAndParams() {
+        return RestAssured.given().spec(baseSpec).queryParams(queryParams).pathParams(pathParams);
+    }
+
+    private static RequestSpecification newBaseSpec() {
+        return new RequestSpecBuilder()
+                .setBaseUri(TestConfig.LIVE_BASE_URL)
+                .setContentType(ContentType.JSON)
+                .build();
+    }
+
+    /**
+     * Minimal {@code {name}} template: literal and parameter parts are found once at compile time.
+     */
+    static final class PathTemplate {
+        private final List<String> literals;
+        private final List<String> names;
+
+        private PathTemplate(List<String> literals, List<String> names) {
+            this.literals = literals;
+            this.names = names;
+        }
+
+        static PathTemplate compile(String template) {
+            List<String> literals = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            int position = 0;
+            int open;
+            while ((open = template.indexOf('{', position)) >= 0) {
+                int close = template.indexOf('}', open);
+                literals.add(template.substring(position, open));
+                names.add(template.substring(open + 1, close));
+                position = close + 1;
+            }
+            literals.add(template.substring(position));
+            return new PathTemplate(literals, names);
+        }
+
+        String expand(Map<String, Object> values) {
+            StringBuilder path = new StringBuilder(64);
+            for (int i = 0; i < names.size(); i++) {
+                path.append(literals.get(i)).append(values.get(names.get(i)));
+            }
+            return path.append(literals.get(names.size())).toString();
+        }
+    }
+}
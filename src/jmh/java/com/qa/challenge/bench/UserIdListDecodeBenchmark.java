@@ -0,0 +1,85 @@
+package com.qa.challenge.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.qa.challenge.models.UserIdArrayResponse;
+import com.qa.challenge.models.UserIdListResponse;
+import com.qa.challenge.utils.UserIdListDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a {@code /api/test/users} response, from a typical list to one with a million IDs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class UserIdListDecodeBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int ids;
+
+    private byte[] body;
+    private String bodyText;
+    private ObjectMapper mapper;
+    private ObjectReader reader;
+    private ObjectMapper afterburnerMapper;
+    private ObjectMapper blackbirdMapper;
+
+    @Setup
+    public void setUp() {
+        body = Payloads.userIdList(ids);
+        bodyText = new String(body, StandardCharsets.US_ASCII);
+        mapper = Payloads.restClientMapper();
+        reader = mapper.readerFor(UserIdListResponse.class);
+        afterburnerMapper = Payloads.restClientMapper().registerModule(new AfterburnerModule());
+        blackbirdMapper = Payloads.restClientMapper().registerModule(new BlackbirdModule());
+    }
+
+    @Benchmark
+    public UserIdListResponse mapperFromString() throws IOException {
+        return mapper.readValue(bodyText, UserIdListResponse.class);
+    }
+
+    @Benchmark
+    public UserIdListResponse mapperFromBytes() throws IOException {
+        return mapper.readValue(body, UserIdListResponse.class);
+    }
+
+    @Benchmark
+    public UserIdListResponse reusedObjectReader() throws IOException {
+        return reader.readValue(body);
+    }
+
+    @Benchmark
+    public UserIdListResponse afterburner() throws IOException {
+        return afterburnerMapper.readValue(body, UserIdListResponse.class);
+    }
+
+    @Benchmark
+    public UserIdListResponse blackbird() throws IOException {
+        return blackbirdMapper.readValue(body, UserIdListResponse.class);
+    }
+
+    @Benchmark
+    public UserIdArrayResponse streamingDecoder() {
+        return UserIdListDecoder.decode(body);
+    }
+}
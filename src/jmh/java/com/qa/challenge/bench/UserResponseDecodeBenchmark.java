@@ -0,0 +1,76 @@
+package com.qa.challenge.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.qa.challenge.models.UserResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one {@code /api/test/user/{id}} response into {@link UserResponse}, including the
+ * {@code LocalDateTime} registration date parsed by {@code JavaTimeModule}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserResponseDecodeBenchmark {
+    private byte[] body;
+    private String bodyText;
+    private ObjectMapper mapper;
+    private ObjectReader reader;
+    private ObjectMapper afterburnerMapper;
+    private ObjectMapper blackbirdMapper;
+
+    @Setup
+    public void setUp() {
+        body = Payloads.userResponse(4242);
+        bodyText = new String(body, StandardCharsets.UTF_8);
+        mapper = Payloads.restClientMapper();
+        reader = mapper.readerFor(UserResponse.class);
+        afterburnerMapper = Payloads.restClientMapper().registerModule(new AfterburnerModule());
+        blackbirdMapper = Payloads.restClientMapper().registerModule(new BlackbirdModule());
+    }
+
+    // What the tests do today: asString() followed by data binding from the String
+    @Benchmark
+    public UserResponse mapperFromString() throws IOException {
+        return mapper.readValue(bodyText, UserResponse.class);
+    }
+
+    @Benchmark
+    public UserResponse mapperFromBytes() throws IOException {
+        return mapper.readValue(body, UserResponse.class);
+    }
+
+    @Benchmark
+    public UserResponse reusedObjectReader() throws IOException {
+        return reader.readValue(body);
+    }
+
+    @Benchmark
+    public UserResponse afterburner() throws IOException {
+        return afterburnerMapper.readValue(body, UserResponse.class);
+    }
+
+    @Benchmark
+    public UserResponse blackbird() throws IOException {
+        return blackbirdMapper.readValue(body, UserResponse.class);
+    }
+}
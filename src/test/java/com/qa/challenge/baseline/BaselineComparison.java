@@ -0,0 +1,27 @@
+package com.qa.challenge.baseline;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of comparing one run with the previous runs of its environment, written as JSON.
+ */
+@Data
+public class BaselineComparison {
+    public enum Verdict {
+        PASS,
+        REGRESSED,
+        // Fewer previous runs than perf.baseline.minHistoryRuns, so nothing was compared
+        NO_BASELINE
+    }
+
+    private String environment;
+    private String timestamp;
+    // Previous runs the metrics were compared with
+    private int historyRuns;
+    private int metricsCompared;
+    private Verdict verdict;
+    private List<Regression> regressions = new ArrayList<>();
+}
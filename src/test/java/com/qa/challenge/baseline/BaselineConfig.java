@@ -0,0 +1,67 @@
+package com.qa.challenge.baseline;
+
+import com.qa.challenge.shard.Shard;
+import com.qa.challenge.utils.TestConfig;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings for the baseline store and {@link RegressionDetector}. Use the builder in code, or
+ * {@link #fromSystemProperties()} to configure a run from the command line.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class BaselineConfig {
+    @Builder.Default
+    private final boolean enabled = true;
+    // JSON lines, one per run; outside target so that mvn clean keeps it
+    @Builder.Default
+    private final String file = "perf-baseline/baseline.jsonl";
+    private final String environment;
+    // Previous runs of the same environment a run is compared with
+    @Builder.Default
+    private final int historyRuns = 10;
+    // With fewer previous runs a metric is not compared
+    @Builder.Default
+    private final int minHistoryRuns = 3;
+    // Latency percentiles are only compared for endpoints and tests with at least this many requests in the run
+    @Builder.Default
+    private final long minSamples = 5;
+    // A regression must be both this large ...
+    @Builder.Default
+    private final double maxLatencyIncrease = 0.25;
+    @Builder.Default
+    private final double minLatencyIncreaseMillis = 5;
+    @Builder.Default
+    private final double maxThroughputDecrease = 0.25;
+    @Builder.Default
+    private final double maxErrorRateIncrease = 0.02;
+    // ... and this many robust standard deviations (1.4826 x MAD) away from the median of the previous runs
+    @Builder.Default
+    private final double minZScore = 3.0;
+
+    public static BaselineConfig fromSystemProperties() {
+        return BaselineConfig.builder()
+                .enabled(Boolean.parseBoolean(System.getProperty("perf.baseline.enabled", "true")))
+                .file(System.getProperty("perf.baseline.file", "perf-baseline/baseline.jsonl"))
+                // The stub listens on a new port every run, so its base URL would never match. Each shard of a
+                // sharded run sends different requests, so it is its own environment
+                .environment(System.getProperty("perf.baseline.environment",
+                        (Boolean.getBoolean("stub.enabled") ? "stub" : System.getProperty("api.baseUrl", TestConfig.LIVE_BASE_URL))
+                                + (Shard.isSharded() ? " shard " + Shard.index() + "/" + Shard.count() : "")))
+                .historyRuns(Integer.getInteger("perf.baseline.historyRuns", 10))
+                .minHistoryRuns(Integer.getInteger("perf.baseline.minHistoryRuns", 3))
+                .minSamples(Long.getLong("perf.baseline.minSamples", 5))
+                .maxLatencyIncrease(doubleProperty("perf.baseline.maxLatencyIncrease", 0.25))
+                .minLatencyIncreaseMillis(doubleProperty("perf.baseline.minLatencyIncreaseMillis", 5))
+                .maxThroughputDecrease(doubleProperty("perf.baseline.maxThroughputDecrease", 0.25))
+                .maxErrorRateIncrease(doubleProperty("perf.baseline.maxErrorRateIncrease", 0.02))
+                .minZScore(doubleProperty("perf.baseline.minZScore", 3.0))
+                .build();
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
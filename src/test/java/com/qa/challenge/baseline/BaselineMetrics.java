@@ -0,0 +1,30 @@
+package com.qa.challenge.baseline;
+
+import lombok.Data;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency percentiles, throughput and error rate of one endpoint or one test in one run.
+ */
+@Data
+public class BaselineMetrics {
+    private long count;
+    // Requests per second of run time
+    private double throughput;
+    private double errorRate;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+
+    public static BaselineMetrics from(Histogram histogramMicros, long errors, double runSeconds) {
+        BaselineMetrics metrics = new BaselineMetrics();
+        long count = histogramMicros.getTotalCount();
+        metrics.setCount(count);
+        metrics.setThroughput(runSeconds <= 0 ? 0 : count / runSeconds);
+        metrics.setErrorRate(count == 0 ? 0 : (double) errors / count);
+        metrics.setP50Ms(histogramMicros.getValueAtPercentile(50.0) / 1000.0);
+        metrics.setP90Ms(histogramMicros.getValueAtPercentile(90.0) / 1000.0);
+        metrics.setP99Ms(histogramMicros.getValueAtPercentile(99.0) / 1000.0);
+        return metrics;
+    }
+}
@@ -0,0 +1,25 @@
+package com.qa.challenge.baseline;
+
+import lombok.Data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The performance figures of one test run, stored as one line of the baseline file.
+ */
+@Data
+public class BaselineRecord {
+    // ISO-8601 time the run finished
+    private String timestamp;
+    // Runs are only compared with runs of the same environment: "stub" or the base URL
+    private String environment;
+    private String baseUrl;
+    // Hash of the names of the tests that sent requests; endpoint figures are only compared between equal test sets
+    private String testSet;
+    private double durationSeconds;
+    // Per endpoint template, e.g. "/api/test/user/{id}"
+    private Map<String, BaselineMetrics> endpoints = new TreeMap<>();
+    // Per test name, over all endpoints
+    private Map<String, BaselineMetrics> tests = new TreeMap<>();
+}
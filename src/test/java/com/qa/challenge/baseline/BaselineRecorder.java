@@ -0,0 +1,85 @@
+package com.qa.challenge.baseline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qa.challenge.utils.LatencyRecorder;
+import com.qa.challenge.utils.TestConfig;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends the figures of the finished run to the baseline file, compares them with the previous runs and
+ * adds the trend to the Allure report. Called once at the end of the test run.
+ */
+public final class BaselineRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(BaselineRecorder.class);
+
+    private BaselineRecorder() {
+    }
+
+    public static void recordRun(double runSeconds) {
+        BaselineConfig config = BaselineConfig.fromSystemProperties();
+        if (!config.isEnabled()) {
+            return;
+        }
+        BaselineRecord record = currentRun(config, runSeconds);
+        // Nothing went over the network, e.g. a replayed cassette or a benchmark-only run
+        if (record.getEndpoints().isEmpty()) {
+            return;
+        }
+        try {
+            BaselineStore store = new BaselineStore(Paths.get(config.getFile()));
+            List<BaselineRecord> previous = store.readAll();
+            store.append(record);
+            BaselineComparison comparison = new RegressionDetector(config).compare(record, previous);
+
+            Path comparisonFile = comparisonFile();
+            Files.createDirectories(comparisonFile.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(comparisonFile.toFile(), comparison);
+            Files.writeString(comparisonFile.resolveSibling("performance-findings.md"),
+                    BaselineReports.markdown(comparison, record));
+            logger.info("Performance baseline {}: {} ({} metrics against {} previous runs) {}", config.getEnvironment(),
+                    comparison.getVerdict(), comparison.getMetricsCompared(), comparison.getHistoryRuns(),
+                    comparison.getRegressions());
+            BaselineReports.writeAllureTrend(comparison, record, previous);
+        } catch (IOException | RuntimeException e) {
+            // The baseline is a by-product of the run; it must not break it
+            logger.warn("Could not update the performance baseline {}", config.getFile(), e);
+        }
+    }
+
+    public static Path comparisonFile() {
+        return Paths.get(System.getProperty("perf.baseline.comparisonFile", "target/perf-baseline/comparison.json"));
+    }
+
+    static BaselineRecord currentRun(BaselineConfig config, double runSeconds) {
+        BaselineRecord record = new BaselineRecord();
+        record.setTimestamp(Instant.now().toString());
+        record.setEnvironment(config.getEnvironment());
+        record.setBaseUrl(TestConfig.BASE_URL);
+        record.setDurationSeconds(runSeconds);
+        fill(record.getEndpoints(), LatencyRecorder.wallTimeByEndpoint(), LatencyRecorder.errorsByEndpoint(), runSeconds);
+        fill(record.getTests(), LatencyRecorder.wallTimeByTest(), LatencyRecorder.errorsByTest(), runSeconds);
+        // The test names are sorted, so the same tests give the same hash
+        record.setTestSet(Integer.toHexString(String.join("\n", record.getTests().keySet()).hashCode()));
+        return record;
+    }
+
+    private static void fill(Map<String, BaselineMetrics> target, Map<String, Histogram> wallTime,
+                             Map<String, Long> errors, double runSeconds) {
+        wallTime.forEach((name, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                target.put(name, BaselineMetrics.from(histogram, errors.getOrDefault(name, 0L), runSeconds));
+            }
+        });
+    }
+}
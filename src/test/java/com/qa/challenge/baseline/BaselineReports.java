@@ -0,0 +1,149 @@
+package com.qa.challenge.baseline;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Renders baseline comparisons: Markdown for {@code test-report.md} and an HTML trend for the Allure report.
+ */
+final class BaselineReports {
+    // Runs shown in the trend
+    private static final int TREND_RUNS = 20;
+    private static final int SPARKLINE_WIDTH = 240;
+    private static final int SPARKLINE_HEIGHT = 40;
+
+    private BaselineReports() {
+    }
+
+    /**
+     * The comparison as a Markdown section, with the regressions and the current figures next to the baseline.
+     */
+    static String markdown(BaselineComparison comparison, BaselineRecord current) {
+        StringBuilder md = new StringBuilder();
+        md.append("### Performance Findings (").append(comparison.getEnvironment()).append(", ")
+                .append(comparison.getTimestamp()).append(")\n\n");
+        md.append("Verdict: **").append(comparison.getVerdict()).append("**. ").append(comparison.getMetricsCompared())
+                .append(" metrics compared with the median of ").append(comparison.getHistoryRuns())
+                .append(" previous runs.\n\n");
+        if (!comparison.getRegressions().isEmpty()) {
+            md.append("| Scope | Name | Metric | Current | Baseline | Change | z |\n");
+            md.append("|-------|------|--------|---------|----------|--------|---|\n");
+            for (Regression regression : comparison.getRegressions()) {
+                md.append(String.format(Locale.ROOT, "| %s | `%s` | %s | %.3f | %.3f | %+.0f%% | %.1f |\n",
+                        regression.getScope(), regression.getName(), regression.getMetric(), regression.getCurrent(),
+                        regression.getBaseline(), regression.getChange() * 100, regression.getZScore()));
+            }
+            md.append('\n');
+        }
+        md.append("| Endpoint | Requests | p50 ms | p90 ms | p99 ms | Error rate | Req/s |\n");
+        md.append("|----------|----------|--------|--------|--------|------------|-------|\n");
+        current.getEndpoints().forEach((endpoint, metrics) -> md.append(String.format(Locale.ROOT,
+                "| `%s` | %d | %.1f | %.1f | %.1f | %.2f%% | %.1f |\n", endpoint, metrics.getCount(), metrics.getP50Ms(),
+                metrics.getP90Ms(), metrics.getP99Ms(), metrics.getErrorRate() * 100, metrics.getThroughput())));
+        return md.toString();
+    }
+
+    /**
+     * Per endpoint: p99 over the last runs of the environment as a sparkline, and the figures of each run.
+     */
+    static String trendHtml(BaselineRecord current, List<BaselineRecord> previous) {
+        List<BaselineRecord> runs = new ArrayList<>();
+        previous.stream().filter(record -> Objects.equals(record.getEnvironment(), current.getEnvironment()))
+                .forEach(runs::add);
+        runs.add(current);
+        runs = runs.subList(Math.max(0, runs.size() - TREND_RUNS), runs.size());
+
+        Set<String> endpoints = new LinkedHashSet<>(current.getEndpoints().keySet());
+        StringBuilder html = new StringBuilder("<html><body style=\"font-family:sans-serif\">");
+        html.append("<h3>Performance trend: ").append(escape(current.getEnvironment())).append("</h3>");
+        for (String endpoint : endpoints) {
+            List<BaselineRecord> withEndpoint = runs.stream()
+                    .filter(record -> record.getEndpoints().containsKey(endpoint))
+                    .collect(Collectors.toList());
+            html.append("<h4>").append(escape(endpoint)).append("</h4>");
+            html.append(sparkline(withEndpoint.stream()
+                    .mapToDouble(record -> record.getEndpoints().get(endpoint).getP99Ms()).toArray()));
+            html.append("<table border=\"1\" cellpadding=\"3\" style=\"border-collapse:collapse\">")
+                    .append("<tr><th>Run</th><th>Tests</th><th>Requests</th><th>p50 ms</th><th>p90 ms</th>")
+                    .append("<th>p99 ms</th><th>Error rate</th><th>Req/s</th></tr>");
+            for (BaselineRecord record : withEndpoint) {
+                BaselineMetrics metrics = record.getEndpoints().get(endpoint);
+                html.append(String.format(Locale.ROOT, "<tr><td>%s</td><td>%s</td><td>%d</td><td>%.1f</td><td>%.1f</td>"
+                                + "<td>%.1f</td><td>%.2f%%</td><td>%.1f</td></tr>", escape(record.getTimestamp()),
+                        escape(record.getTestSet()), metrics.getCount(), metrics.getP50Ms(), metrics.getP90Ms(),
+                        metrics.getP99Ms(), metrics.getErrorRate() * 100, metrics.getThroughput()));
+            }
+            html.append("</table>");
+        }
+        return html.append("</body></html>").toString();
+    }
+
+    /**
+     * Adds a "Performance trend" result to the Allure report: failed if the run regressed, with the trend attached.
+     * Written at the end of the run, when no test is running to attach it to.
+     */
+    static void writeAllureTrend(BaselineComparison comparison, BaselineRecord current, List<BaselineRecord> previous) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        String message = comparison.getVerdict() + ": " + comparison.getMetricsCompared() + " metrics compared with "
+                + comparison.getHistoryRuns() + " previous runs" + (comparison.getRegressions().isEmpty() ? ""
+                : "\n" + comparison.getRegressions().stream().map(String::valueOf).collect(Collectors.joining("\n")));
+        TestResult result = new TestResult()
+                .setUuid(uuid)
+                .setName("Performance trend against the baseline")
+                .setFullName("com.qa.challenge.baseline.PerformanceTrend")
+                // Same history ID every run, so Allure shows this result's own history across runs
+                .setHistoryId(ResultsUtils.md5("performance-trend:" + current.getEnvironment()))
+                .setStatus(comparison.getVerdict() == BaselineComparison.Verdict.REGRESSED ? Status.FAILED : Status.PASSED)
+                .setStatusDetails(new StatusDetails().setMessage(message));
+        result.getLabels().add(ResultsUtils.createEpicLabel("Dating App API Testing"));
+        result.getLabels().add(ResultsUtils.createFeatureLabel("Performance"));
+        result.getLabels().add(ResultsUtils.createStoryLabel("Performance trend"));
+        result.getLabels().add(ResultsUtils.createSuiteLabel("Performance baseline"));
+        lifecycle.scheduleTestCase(result);
+        lifecycle.startTestCase(uuid);
+        lifecycle.addAttachment("Performance trend", "text/html", ".html",
+                trendHtml(current, previous).getBytes(StandardCharsets.UTF_8));
+        lifecycle.addAttachment("Performance findings", "text/markdown", ".md",
+                markdown(comparison, current).getBytes(StandardCharsets.UTF_8));
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+
+    private static String sparkline(double[] values) {
+        if (values.length < 2) {
+            return "";
+        }
+        double max = 0;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        StringBuilder points = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            double x = (double) i * SPARKLINE_WIDTH / (values.length - 1);
+            double y = max == 0 ? SPARKLINE_HEIGHT : SPARKLINE_HEIGHT - values[i] / max * (SPARKLINE_HEIGHT - 2);
+            points.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, y));
+        }
+        return String.format(Locale.ROOT, "<div>p99 (max %.1f ms)</div><svg width=\"%d\" height=\"%d\">"
+                        + "<polyline fill=\"none\" stroke=\"#d35400\" stroke-width=\"2\" points=\"%s\"/></svg>",
+                max, SPARKLINE_WIDTH, SPARKLINE_HEIGHT + 2, points.toString().trim());
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,64 @@
+package com.qa.challenge.baseline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only file of {@link BaselineRecord}s, one JSON object per line, oldest first.
+ * <p>
+ * One line per run keeps appending cheap and the file readable with {@code tail} or {@code jq}. Lines that
+ * cannot be parsed, e.g. from a run killed while writing, are skipped when reading.
+ */
+public final class BaselineStore {
+    private static final Logger logger = LoggerFactory.getLogger(BaselineStore.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Path file;
+
+    public BaselineStore(Path file) {
+        this.file = file;
+    }
+
+    public void append(BaselineRecord record) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, mapper.writeValueAsString(record) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public List<BaselineRecord> readAll() throws IOException {
+        List<BaselineRecord> records = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return records;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    records.add(mapper.readValue(line, BaselineRecord.class));
+                } catch (IOException e) {
+                    logger.warn("Skipping unreadable line {} of {}: {}", lineNumber, file, e.getMessage());
+                }
+            }
+        }
+        return records;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
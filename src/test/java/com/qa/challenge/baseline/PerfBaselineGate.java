@@ -0,0 +1,52 @@
+package com.qa.challenge.baseline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Build gate, run by the {@code perf-gate} Maven profile after the tests: compares the last run in the baseline file
+ * with the previous runs of its environment and exits with status 1 if it regressed, which fails the build.
+ * <p>
+ * It reads only the baseline file, so it can also be run on its own against a file kept from earlier runs.
+ */
+public final class PerfBaselineGate {
+    private static final Logger logger = LoggerFactory.getLogger(PerfBaselineGate.class);
+
+    private PerfBaselineGate() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        BaselineConfig config = BaselineConfig.fromSystemProperties();
+        boolean failOnRegression = Boolean.parseBoolean(System.getProperty("perf.gate.failOnRegression", "true"));
+        List<BaselineRecord> records = new BaselineStore(Paths.get(config.getFile())).readAll();
+        if (records.isEmpty()) {
+            logger.warn("No runs in {}; nothing to compare", config.getFile());
+            return;
+        }
+        BaselineRecord current = records.get(records.size() - 1);
+        BaselineComparison comparison = new RegressionDetector(config)
+                .compare(current, records.subList(0, records.size() - 1));
+
+        Path comparisonFile = BaselineRecorder.comparisonFile();
+        Files.createDirectories(comparisonFile.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(comparisonFile.toFile(), comparison);
+        Path findingsFile = comparisonFile.resolveSibling("performance-findings.md");
+        Files.writeString(findingsFile, BaselineReports.markdown(comparison, current));
+
+        logger.info("Run of {} in {}: {}, {} metrics compared with {} previous runs; findings in {}", current.getTimestamp(),
+                current.getEnvironment(), comparison.getVerdict(), comparison.getMetricsCompared(),
+                comparison.getHistoryRuns(), findingsFile);
+        comparison.getRegressions().forEach(regression -> logger.error("Regression: {}", regression));
+        if (comparison.getVerdict() == BaselineComparison.Verdict.REGRESSED && failOnRegression) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.qa.challenge.baseline;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One metric of one endpoint or test that got worse than the previous runs, found by {@link RegressionDetector}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Regression {
+    // "endpoint" or "test"
+    private String scope;
+    private String name;
+    // p50Ms, p90Ms, p99Ms, errorRate or throughput
+    private String metric;
+    private double current;
+    // Median of the previous runs
+    private double baseline;
+    // Relative change from the baseline, e.g. 0.4 for 40 % slower
+    private double change;
+    // Robust z-score: distance from the baseline in units of 1.4826 x MAD of the previous runs
+    private double zScore;
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s: %.3f vs baseline %.3f (%+.0f%%, z=%.1f)",
+                scope, name, metric, current, baseline, change * 100, zScore);
+    }
+}
@@ -0,0 +1,136 @@
+package com.qa.challenge.baseline;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Compares one run with the previous runs of the same environment.
+ * <p>
+ * Each metric is compared with the median of the previous runs. It is a regression only if it is worse by more
+ * than the configured threshold <em>and</em> by at least {@code minZScore} robust standard deviations, estimated
+ * as 1.4826 times the median absolute deviation of the previous runs. The threshold keeps changes too small to
+ * matter out; the z-score keeps out changes within the run-to-run noise of this environment. Median and MAD are
+ * not thrown off by one odd run in the history, as mean and standard deviation would be.
+ */
+public final class RegressionDetector {
+    private static final double MAD_TO_SIGMA = 1.4826;
+    // Lower bounds of the spread: with identical previous runs the MAD is 0 and any change would be "significant"
+    private static final double MIN_RELATIVE_SPREAD = 0.05;
+    private static final double MIN_ERROR_RATE_SPREAD = 0.005;
+
+    private final BaselineConfig config;
+
+    public RegressionDetector(BaselineConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * @param previous earlier runs, oldest first; runs of other environments are ignored
+     */
+    public BaselineComparison compare(BaselineRecord current, List<BaselineRecord> previous) {
+        List<BaselineRecord> sameEnvironment = previous.stream()
+                .filter(record -> Objects.equals(record.getEnvironment(), current.getEnvironment()))
+                .collect(Collectors.toList());
+        List<BaselineRecord> history = sameEnvironment.subList(
+                Math.max(0, sameEnvironment.size() - config.getHistoryRuns()), sameEnvironment.size());
+
+        BaselineComparison comparison = new BaselineComparison();
+        comparison.setEnvironment(current.getEnvironment());
+        comparison.setTimestamp(current.getTimestamp());
+        comparison.setHistoryRuns(history.size());
+        if (history.size() < config.getMinHistoryRuns()) {
+            comparison.setVerdict(BaselineComparison.Verdict.NO_BASELINE);
+            return comparison;
+        }
+
+        // Endpoint figures depend on which tests sent the requests, so only runs of the same tests are comparable
+        List<BaselineRecord> sameTests = history.stream()
+                .filter(record -> Objects.equals(record.getTestSet(), current.getTestSet()))
+                .collect(Collectors.toList());
+        current.getEndpoints().forEach((endpoint, metrics) -> compareMetrics("endpoint", endpoint, metrics,
+                sameTests.stream().map(record -> record.getEndpoints().get(endpoint))
+                        .filter(Objects::nonNull).collect(Collectors.toList()), true, comparison));
+        // A test's throughput mostly reflects the other tests running next to it, so it is not compared
+        current.getTests().forEach((test, metrics) -> compareMetrics("test", test, metrics,
+                history.stream().map(record -> record.getTests().get(test))
+                        .filter(Objects::nonNull).collect(Collectors.toList()), false, comparison));
+
+        comparison.setVerdict(comparison.getRegressions().isEmpty()
+                ? BaselineComparison.Verdict.PASS
+                : BaselineComparison.Verdict.REGRESSED);
+        return comparison;
+    }
+
+    private void compareMetrics(String scope, String name, BaselineMetrics current, List<BaselineMetrics> previous,
+                                boolean withThroughput, BaselineComparison comparison) {
+        if (previous.size() < config.getMinHistoryRuns()) {
+            return;
+        }
+        if (current.getCount() >= config.getMinSamples()) {
+            checkLatency(scope, name, "p50Ms", current.getP50Ms(), values(previous, BaselineMetrics::getP50Ms), comparison);
+            checkLatency(scope, name, "p90Ms", current.getP90Ms(), values(previous, BaselineMetrics::getP90Ms), comparison);
+            checkLatency(scope, name, "p99Ms", current.getP99Ms(), values(previous, BaselineMetrics::getP99Ms), comparison);
+        }
+
+        double[] errorRates = values(previous, BaselineMetrics::getErrorRate);
+        double errorBaseline = median(errorRates);
+        double errorSpread = Math.max(spread(errorRates, errorBaseline), MIN_ERROR_RATE_SPREAD);
+        double errorZ = (current.getErrorRate() - errorBaseline) / errorSpread;
+        comparison.setMetricsCompared(comparison.getMetricsCompared() + 1);
+        if (current.getErrorRate() - errorBaseline > config.getMaxErrorRateIncrease() && errorZ >= config.getMinZScore()) {
+            comparison.getRegressions().add(new Regression(scope, name, "errorRate", current.getErrorRate(),
+                    errorBaseline, change(current.getErrorRate(), errorBaseline), errorZ));
+        }
+
+        if (withThroughput) {
+            double[] throughputs = values(previous, BaselineMetrics::getThroughput);
+            double baseline = median(throughputs);
+            double spread = Math.max(spread(throughputs, baseline), baseline * MIN_RELATIVE_SPREAD);
+            // Positive when throughput dropped, like the other z-scores are positive when things got worse
+            double z = spread == 0 ? 0 : (baseline - current.getThroughput()) / spread;
+            comparison.setMetricsCompared(comparison.getMetricsCompared() + 1);
+            if (current.getThroughput() < baseline * (1 - config.getMaxThroughputDecrease()) && z >= config.getMinZScore()) {
+                comparison.getRegressions().add(new Regression(scope, name, "throughput", current.getThroughput(),
+                        baseline, change(current.getThroughput(), baseline), z));
+            }
+        }
+    }
+
+    private void checkLatency(String scope, String name, String metric, double current, double[] previous,
+                              BaselineComparison comparison) {
+        double baseline = median(previous);
+        double spread = Math.max(spread(previous, baseline), baseline * MIN_RELATIVE_SPREAD);
+        double z = spread == 0 ? 0 : (current - baseline) / spread;
+        comparison.setMetricsCompared(comparison.getMetricsCompared() + 1);
+        if (current > baseline * (1 + config.getMaxLatencyIncrease())
+                && current - baseline > config.getMinLatencyIncreaseMillis()
+                && z >= config.getMinZScore()) {
+            comparison.getRegressions().add(new Regression(scope, name, metric, current, baseline,
+                    change(current, baseline), z));
+        }
+    }
+
+    private static double[] values(List<BaselineMetrics> metrics, ToDoubleFunction<BaselineMetrics> metric) {
+        return metrics.stream().mapToDouble(metric).toArray();
+    }
+
+    // Robust standard deviation: 1.4826 x the median absolute deviation
+    private static double spread(double[] values, double median) {
+        return MAD_TO_SIGMA * median(Arrays.stream(values).map(value -> Math.abs(value - median)).toArray());
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    // 0 when the baseline is 0, e.g. an error rate going up from none
+    private static double change(double current, double baseline) {
+        return baseline == 0 ? 0 : (current - baseline) / baseline;
+    }
+}
@@ -0,0 +1,266 @@
+package com.qa.challenge.crawl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qa.challenge.models.UserIdArrayResponse;
+import com.qa.challenge.utils.FanOutRunner;
+import com.qa.challenge.utils.RestClient;
+import com.qa.challenge.utils.TestConfig;
+import com.qa.challenge.utils.TestContext;
+import com.qa.challenge.utils.UserIdListDecoder;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Cross-checks the users lists against the user details.
+ * <p>
+ * All gender lists are fetched in parallel into a {@link GenderIndex}. The lists alone show duplicates,
+ * IDs listed under several genders, and IDs missing from {@code gender=any} or from every gender list. Then the
+ * details of every listed ID are fetched with bounded concurrency (a {@link FanOutRunner}) and the gender they
+ * report is compared with the list the ID is in.
+ * <p>
+ * Runs are incremental: the listing mask, details hash and ETag of each ID are kept in a state file. An ID
+ * whose listing is unchanged is fetched with {@code If-None-Match}; a 304, or a body with the same hash as
+ * last time, reuses last run's findings for it instead of checking it again.
+ */
+public class ConsistencyCrawler {
+    private static final Logger logger = LoggerFactory.getLogger(ConsistencyCrawler.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final RestClient restClient;
+    private final int concurrency;
+    private final Path stateFile;
+    // Ignore the stored state and check every ID
+    private final boolean full;
+
+    public ConsistencyCrawler(RestClient restClient, int concurrency, Path stateFile, boolean full) {
+        this.restClient = restClient;
+        this.concurrency = concurrency;
+        this.stateFile = stateFile;
+        this.full = full;
+    }
+
+    public ConsistencyReport crawl() throws IOException {
+        long start = System.nanoTime();
+        ConsistencyReport report = new ConsistencyReport();
+        report.setBaseUrl(TestConfig.BASE_URL);
+
+        Map<String, int[]> duplicates = new LinkedHashMap<>();
+        GenderIndex index = fetchLists(duplicates);
+        for (String gender : GenderIndex.GENDERS) {
+            if (index.hasList(gender)) {
+                report.getListSizes().put(gender, index.list(gender).size());
+            }
+        }
+        report.getListErrors().putAll(index.getListErrors());
+
+        List<ConsistencyProblem> problems = new ArrayList<>(listProblems(index, duplicates));
+
+        ConsistencyState previous = full ? new ConsistencyState() : ConsistencyState.load(stateFile);
+        ConsistencyState next = new ConsistencyState();
+        LongAdder notModified = new LongAdder();
+        LongAdder unchanged = new LongAdder();
+        LongAdder rechecked = new LongAdder();
+        int[] ids = index.allIds().toArray();
+        logger.info("Crawling details of {} listed IDs with concurrency {}; {} IDs known from the last run",
+                ids.length, concurrency, previous.size());
+        // crawlOne catches everything, so the only IDs without an entry are those the deadline budget cancelled
+        FanOutRunner.FanOutReport crawled = new FanOutRunner(concurrency).run(ids, (id, context) -> {
+            ConsistencyState.Entry entry = crawlOne(id, index, previous.get(id), notModified, unchanged, rechecked);
+            next.put(id, entry);
+        });
+        for (FanOutRunner.IdResult result : crawled.getResults()) {
+            if (!result.isCancelled()) {
+                problems.addAll(next.get(result.getId()).getProblems());
+            }
+        }
+        next.save(stateFile);
+
+        problems.sort(Comparator.comparing(ConsistencyProblem::getKind).thenComparingInt(ConsistencyProblem::getId));
+        for (ConsistencyProblem problem : problems) {
+            report.getProblemCounts().merge(problem.getKind(), 1, Integer::sum);
+        }
+        report.setProblems(problems);
+        report.setIdsCrawled(ids.length - crawled.getCancelled().size());
+        report.setNotChecked(crawled.getCancelled().size());
+        report.setNotModified(notModified.intValue());
+        report.setUnchanged(unchanged.intValue());
+        report.setRechecked(rechecked.intValue());
+        report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Consistency crawl of {} IDs: {} not modified, {} unchanged, {} re-checked, {} not checked, problems {}",
+                report.getIdsCrawled(), report.getNotModified(), report.getUnchanged(), report.getRechecked(),
+                report.getNotChecked(), report.getProblemCounts());
+        return report;
+    }
+
+    private GenderIndex fetchLists(Map<String, int[]> duplicates) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(GenderIndex.GENDERS.size(), runnable -> {
+            Thread thread = new Thread(runnable, "crawl-list-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<String, Future<ListResult>> futures = new LinkedHashMap<>();
+            for (String gender : GenderIndex.GENDERS) {
+                futures.put(gender, executor.submit(TestContext.wrap(() -> fetchList(gender))));
+            }
+            Map<String, SortedIntSet> lists = new HashMap<>();
+            Map<String, String> errors = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<ListResult>> entry : futures.entrySet()) {
+                try {
+                    ListResult result = entry.getValue().get();
+                    lists.put(entry.getKey(), result.ids);
+                    if (result.duplicates.length > 0) {
+                        duplicates.put(entry.getKey(), result.duplicates);
+                    }
+                } catch (ExecutionException e) {
+                    errors.put(entry.getKey(), e.getCause().getMessage());
+                }
+            }
+            return new GenderIndex(lists, errors);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching the users lists", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ListResult fetchList(String gender) {
+        Response response = restClient.get(TestConfig.USERS_ENDPOINT, Map.of("gender", gender));
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.getStatusCode());
+        }
+        // Streamed into an int[] and sorted on this thread, so the lists are indexed in parallel too
+        UserIdArrayResponse list = UserIdListDecoder.decode(response);
+        if (!list.getSuccess() || list.getIdList() == null) {
+            throw new IllegalStateException("Unsuccessful response: errorCode=" + list.getErrorCode()
+                    + ", errorMessage=" + list.getErrorMessage());
+        }
+        IntStream.Builder duplicates = IntStream.builder();
+        SortedIntSet ids = SortedIntSet.of(list.getIdList(), duplicates::add);
+        return new ListResult(ids, duplicates.build().toArray());
+    }
+
+    private static List<ConsistencyProblem> listProblems(GenderIndex index, Map<String, int[]> duplicates) {
+        List<ConsistencyProblem> problems = new ArrayList<>();
+        duplicates.forEach((gender, ids) -> {
+            Map<Integer, Integer> extra = new LinkedHashMap<>();
+            for (int id : ids) {
+                extra.merge(id, 1, Integer::sum);
+            }
+            extra.forEach((id, count) -> problems.add(new ConsistencyProblem(ConsistencyProblem.Kind.DUPLICATE_IN_LIST,
+                    id, "listed " + (count + 1) + " times under gender=" + gender)));
+        });
+
+        SortedIntSet any = index.list(TestConfig.GENDER_ANY);
+        for (String gender : GenderIndex.GENDERS) {
+            if (!TestConfig.GENDER_ANY.equals(gender) && index.hasList(gender) && index.hasList(TestConfig.GENDER_ANY)) {
+                index.list(gender).minus(any).forEach(id -> problems.add(new ConsistencyProblem(
+                        ConsistencyProblem.Kind.MISSING_FROM_ANY, id, "listed under gender=" + gender + " but not gender=any")));
+            }
+        }
+        // With a list missing, its IDs would all look unlisted
+        index.allIds().forEach(id -> {
+            List<String> genders = index.listedGenders(id);
+            if (genders.size() > 1) {
+                problems.add(new ConsistencyProblem(ConsistencyProblem.Kind.LISTED_UNDER_SEVERAL_GENDERS, id,
+                        "listed under " + genders));
+            } else if (genders.isEmpty() && index.isComplete()) {
+                problems.add(new ConsistencyProblem(ConsistencyProblem.Kind.NOT_LISTED_UNDER_ANY_GENDER, id,
+                        "listed under gender=any only"));
+            }
+        });
+        return problems;
+    }
+
+    private ConsistencyState.Entry crawlOne(int id, GenderIndex index, ConsistencyState.Entry previous,
+                                            LongAdder notModified, LongAdder unchanged, LongAdder rechecked) {
+        int listingMask = index.listingMask(id);
+        boolean listingChanged = previous == null || previous.getListingMask() != listingMask;
+        try {
+            Map<String, String> headers = new HashMap<>();
+            if (!listingChanged && previous.getEtag() != null) {
+                headers.put("If-None-Match", previous.getEtag());
+            }
+            Response response = restClient.getWithHeaders(TestConfig.USER_ENDPOINT, Map.of("id", id), headers);
+            if (response.getStatusCode() == 304 && !listingChanged) {
+                notModified.increment();
+                return previous;
+            }
+            byte[] body = response.asByteArray();
+            long hash = ConsistencyState.hash(body);
+            String etag = response.getHeader("ETag");
+            if (!listingChanged && response.getStatusCode() == 200 && previous.getDetailsHash() == hash) {
+                unchanged.increment();
+                return new ConsistencyState.Entry(listingMask, hash, etag, previous.getProblems());
+            }
+            rechecked.increment();
+            return new ConsistencyState.Entry(listingMask, hash, etag,
+                    checkDetails(id, index.listedGenders(id), response.getStatusCode(), body));
+        } catch (RuntimeException | IOException e) {
+            rechecked.increment();
+            // Hash 0 and no ETag, so the ID is checked again next time
+            return new ConsistencyState.Entry(listingMask, 0, null, List.of(new ConsistencyProblem(
+                    ConsistencyProblem.Kind.DETAILS_ERROR, id, e.getClass().getSimpleName() + ": " + e.getMessage())));
+        }
+    }
+
+    private static List<ConsistencyProblem> checkDetails(int id, List<String> listedGenders, int statusCode, byte[] body)
+            throws IOException {
+        if (statusCode != 200) {
+            return List.of(new ConsistencyProblem(ConsistencyProblem.Kind.DETAILS_ERROR, id, "HTTP " + statusCode));
+        }
+        JsonNode node = mapper.readTree(body);
+        boolean success = node.path("success").asBoolean(false) || node.path("isSuccess").asBoolean(false);
+        JsonNode gender = node.path("user").path("gender");
+        if (!success || !gender.isTextual()) {
+            return List.of(new ConsistencyProblem(ConsistencyProblem.Kind.DETAILS_ERROR, id,
+                    "unsuccessful or no gender: errorCode=" + node.path("errorCode").asText()
+                            + ", errorMessage=" + node.path("errorMessage").asText()));
+        }
+        // Unlisted IDs and IDs under several genders are reported from the lists alone
+        if (listedGenders.size() != 1) {
+            return List.of();
+        }
+        String listed = listedGenders.get(0);
+        String reported = gender.asText();
+        if (listed.equals(reported)) {
+            return List.of();
+        }
+        ConsistencyProblem.Kind kind = listed.equalsIgnoreCase(reported)
+                ? ConsistencyProblem.Kind.GENDER_CASE_MISMATCH
+                : ConsistencyProblem.Kind.GENDER_MISMATCH;
+        return List.of(new ConsistencyProblem(kind, id,
+                "listed under gender=" + listed + ", details say gender=" + reported));
+    }
+
+    private static final class ListResult {
+        private final SortedIntSet ids;
+        private final int[] duplicates;
+
+        ListResult(SortedIntSet ids, int[] duplicates) {
+            this.ids = ids;
+            this.duplicates = duplicates;
+        }
+    }
+}
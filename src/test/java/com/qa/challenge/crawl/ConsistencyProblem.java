@@ -0,0 +1,39 @@
+package com.qa.challenge.crawl;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One inconsistency between the users lists and the user details, found by {@link ConsistencyCrawler}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsistencyProblem {
+    public enum Kind {
+        // Details report a gender the ID is not listed under
+        GENDER_MISMATCH,
+        // Details report the listed gender in other capitalization (BUG-006)
+        GENDER_CASE_MISMATCH,
+        // Details could not be fetched, were unsuccessful, or had no gender
+        DETAILS_ERROR,
+        // The same ID appears more than once in one list
+        DUPLICATE_IN_LIST,
+        // The ID is listed under more than one specific gender
+        LISTED_UNDER_SEVERAL_GENDERS,
+        // The ID is in a gender list but not in the gender=any list
+        MISSING_FROM_ANY,
+        // The ID is in the gender=any list but in no gender list
+        NOT_LISTED_UNDER_ANY_GENDER
+    }
+
+    private Kind kind;
+    private int id;
+    private String detail;
+
+    @Override
+    public String toString() {
+        return kind + " for ID " + id + ": " + detail;
+    }
+}
@@ -0,0 +1,32 @@
+package com.qa.challenge.crawl;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of one {@link ConsistencyCrawler} run, written as JSON.
+ */
+@Data
+public class ConsistencyReport {
+    private String baseUrl;
+    // Size of each gender list, without duplicates
+    private Map<String, Integer> listSizes = new TreeMap<>();
+    // Lists that could not be fetched, with the reason
+    private Map<String, String> listErrors = new TreeMap<>();
+    private int idsCrawled;
+    // Details answered 304 Not Modified to the stored ETag
+    private int notModified;
+    // Details fetched again with the same content hash and listing as last time
+    private int unchanged;
+    // Details checked in this run: new IDs and IDs whose listing or details changed
+    private int rechecked;
+    // Listed IDs not crawled because the deadline budget ran out; not kept in the state file either
+    private int notChecked;
+    private long durationMillis;
+    private Map<ConsistencyProblem.Kind, Integer> problemCounts = new TreeMap<>();
+    private List<ConsistencyProblem> problems = new ArrayList<>();
+}
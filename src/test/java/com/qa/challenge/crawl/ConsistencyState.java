@@ -0,0 +1,148 @@
+package com.qa.challenge.crawl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What {@link ConsistencyCrawler} saw per user ID in its last run: the listing mask, a hash and ETag of the
+ * details body, and the problems found in the details. An ID whose listing and details are unchanged keeps
+ * its problems without being checked again.
+ * <p>
+ * Stored as a small binary file. It is not tied to a base URL: an entry is only reused when the server answers
+ * its ETag with 304 or sends a body with the same hash, so a state file from another server just costs a full check.
+ * A file in another format is ignored.
+ */
+final class ConsistencyState {
+    private static final Logger logger = LoggerFactory.getLogger(ConsistencyState.class);
+    // "CST1"
+    private static final int MAGIC = 0x43535431;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    static ConsistencyState load(Path file) {
+        ConsistencyState state = new ConsistencyState();
+        if (!Files.exists(file)) {
+            return state;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            if (in.readInt() != MAGIC) {
+                logger.warn("Ignoring {}: not a consistency state file", file);
+                return state;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                int listingMask = in.readInt();
+                long detailsHash = in.readLong();
+                String etag = in.readUTF();
+                int problemCount = in.readInt();
+                List<ConsistencyProblem> problems = new ArrayList<>(problemCount);
+                for (int p = 0; p < problemCount; p++) {
+                    problems.add(new ConsistencyProblem(ConsistencyProblem.Kind.values()[in.readByte()], id, in.readUTF()));
+                }
+                state.entries.put(id, new Entry(listingMask, detailsHash, etag.isEmpty() ? null : etag, problems));
+            }
+        } catch (EOFException | ArrayIndexOutOfBoundsException e) {
+            logger.warn("Ignoring truncated or incompatible state file {}", file);
+            return new ConsistencyState();
+        } catch (IOException e) {
+            logger.warn("Could not read state file {}", file, e);
+            return new ConsistencyState();
+        }
+        return state;
+    }
+
+    /**
+     * Writes to a temporary file first, so a run that dies while saving leaves the previous state intact.
+     */
+    void save(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(entries.size());
+            for (Map.Entry<Integer, Entry> entry : entries.entrySet()) {
+                Entry value = entry.getValue();
+                out.writeInt(entry.getKey());
+                out.writeInt(value.listingMask);
+                out.writeLong(value.detailsHash);
+                out.writeUTF(value.etag == null ? "" : value.etag);
+                out.writeInt(value.problems.size());
+                for (ConsistencyProblem problem : value.problems) {
+                    out.writeByte(problem.getKind().ordinal());
+                    out.writeUTF(problem.getDetail());
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    Entry get(int id) {
+        return entries.get(id);
+    }
+
+    void put(int id, Entry entry) {
+        entries.put(id, entry);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a details body. Only compared with the hash of the same ID's previous body.
+     */
+    static long hash(byte[] body) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : body) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    static final class Entry {
+        private final int listingMask;
+        private final long detailsHash;
+        private final String etag;
+        private final List<ConsistencyProblem> problems;
+
+        Entry(int listingMask, long detailsHash, String etag, List<ConsistencyProblem> problems) {
+            this.listingMask = listingMask;
+            this.detailsHash = detailsHash;
+            this.etag = etag;
+            this.problems = problems;
+        }
+
+        int getListingMask() {
+            return listingMask;
+        }
+
+        long getDetailsHash() {
+            return detailsHash;
+        }
+
+        // null if the server sent none
+        String getEtag() {
+            return etag;
+        }
+
+        List<ConsistencyProblem> getProblems() {
+            return problems;
+        }
+    }
+}
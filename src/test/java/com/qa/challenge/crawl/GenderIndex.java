@@ -0,0 +1,78 @@
+package com.qa.challenge.crawl;
+
+import com.qa.challenge.utils.TestConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which users list each user ID appears in, built from one fetch of every gender list.
+ * <p>
+ * Each list is held as a {@link SortedIntSet}. The lists an ID appears in are summed up as a listing mask,
+ * bit {@code i} standing for {@code GENDERS[i]}: a compact fingerprint of the ID's listing that is stored
+ * between runs to tell whether it changed.
+ */
+public final class GenderIndex {
+    // Every value in TestConfig; the order fixes the bits of the listing mask, so only append to it
+    public static final List<String> GENDERS = List.of(TestConfig.GENDER_MALE, TestConfig.GENDER_FEMALE,
+            TestConfig.GENDER_MAGIC, TestConfig.GENDER_MCCLOUD, TestConfig.GENDER_ANY);
+
+    private final Map<String, SortedIntSet> lists;
+    private final Map<String, String> listErrors;
+
+    /**
+     * @param lists      the lists that could be fetched, by gender
+     * @param listErrors why the others could not, by gender
+     */
+    GenderIndex(Map<String, SortedIntSet> lists, Map<String, String> listErrors) {
+        this.lists = lists;
+        this.listErrors = listErrors;
+    }
+
+    public SortedIntSet list(String gender) {
+        return lists.getOrDefault(gender, SortedIntSet.empty());
+    }
+
+    public boolean hasList(String gender) {
+        return lists.containsKey(gender);
+    }
+
+    // True when every gender list was fetched
+    public boolean isComplete() {
+        return listErrors.isEmpty();
+    }
+
+    public Map<String, String> getListErrors() {
+        return Collections.unmodifiableMap(listErrors);
+    }
+
+    // Every ID in any of the lists
+    public SortedIntSet allIds() {
+        return SortedIntSet.union(lists.values());
+    }
+
+    public int listingMask(int id) {
+        int mask = 0;
+        for (int i = 0; i < GENDERS.size(); i++) {
+            if (list(GENDERS.get(i)).contains(id)) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * The specific genders, i.e. all but {@code any}, whose lists contain the ID.
+     */
+    public List<String> listedGenders(int id) {
+        List<String> genders = new ArrayList<>(1);
+        for (String gender : GENDERS) {
+            if (!TestConfig.GENDER_ANY.equals(gender) && list(gender).contains(id)) {
+                genders.add(gender);
+            }
+        }
+        return genders;
+    }
+}
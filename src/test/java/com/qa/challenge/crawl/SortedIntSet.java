@@ -0,0 +1,102 @@
+package com.qa.challenge.crawl;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of ints backed by one sorted {@code int[]}: 4 bytes per element and no boxing, so sets of
+ * millions of user IDs stay small. Lookups are binary searches; {@link #minus(SortedIntSet)} is a linear merge.
+ */
+public final class SortedIntSet {
+    private static final SortedIntSet EMPTY = new SortedIntSet(new int[0]);
+
+    private final int[] values;
+
+    private SortedIntSet(int[] values) {
+        this.values = values;
+    }
+
+    public static SortedIntSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a set from the values, passing every repeated occurrence of a value to {@code duplicates}.
+     * The array is not modified.
+     */
+    public static SortedIntSet of(int[] values, IntConsumer duplicates) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int value : sorted) {
+            if (unique > 0 && sorted[unique - 1] == value) {
+                duplicates.accept(value);
+            } else {
+                sorted[unique++] = value;
+            }
+        }
+        return new SortedIntSet(unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique));
+    }
+
+    public static SortedIntSet union(Iterable<SortedIntSet> sets) {
+        int size = 0;
+        for (SortedIntSet set : sets) {
+            size += set.size();
+        }
+        int[] all = new int[size];
+        int offset = 0;
+        for (SortedIntSet set : sets) {
+            System.arraycopy(set.values, 0, all, offset, set.size());
+            offset += set.size();
+        }
+        return of(all, value -> {
+        });
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    /**
+     * Values of this set that are not in {@code other}.
+     */
+    public SortedIntSet minus(SortedIntSet other) {
+        int[] result = new int[values.length];
+        int count = 0;
+        int j = 0;
+        for (int value : values) {
+            while (j < other.values.length && other.values[j] < value) {
+                j++;
+            }
+            if (j == other.values.length || other.values[j] != value) {
+                result[count++] = value;
+            }
+        }
+        return new SortedIntSet(Arrays.copyOf(result, count));
+    }
+
+    // In ascending order
+    public void forEach(IntConsumer action) {
+        for (int value : values) {
+            action.accept(value);
+        }
+    }
+
+    // Returns a copy in ascending order; callers can modify it freely
+    public int[] toArray() {
+        return values.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "SortedIntSet{size=" + values.length + "}";
+    }
+}
@@ -0,0 +1,278 @@
+package com.qa.challenge.fuzz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qa.challenge.utils.RestClient;
+import com.qa.challenge.utils.TestConfig;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Sends generated inputs for the user ID and the gender parameter at a fixed rate, collects the distinct
+ * server failures and shrinks each to a minimal input.
+ * <p>
+ * A failure is a 5xx response or a connection that broke without one. Failures are deduplicated by target,
+ * status and error signature: the error fields of a JSON body (or the first line of any other body), with the
+ * input itself and all digits masked, so timestamps, IDs and echoed values do not split one bug into many.
+ * Inputs are started on schedule like in {@code OpenLoopLoadGenerator}; shrinking then runs one request at
+ * a time at the same rate.
+ */
+public class FuzzCampaign {
+    private static final Logger logger = LoggerFactory.getLogger(FuzzCampaign.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    // Fields that carry the error in Spring's error body and in the API's own envelope
+    private static final String[] ERROR_FIELDS = {"error", "exception", "message", "errorMessage"};
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final int MAX_SIGNATURE_LENGTH = 160;
+
+    private final FuzzConfig config;
+    private final RestClient restClient;
+    private final Map<String, Finding> findings = new ConcurrentHashMap<>();
+    private final Map<FuzzTarget, Map<Integer, LongAdder>> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder skipped = new LongAdder();
+    private final long intervalNanos;
+    // Shrinking sends one request at a time, spaced like the campaign
+    private long nextShrinkAt;
+
+    public FuzzCampaign(FuzzConfig config, RestClient restClient) {
+        if (config.getTargets().isEmpty()) {
+            throw new IllegalArgumentException("At least one fuzz target is needed");
+        }
+        this.config = config;
+        this.restClient = restClient;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getRequestsPerSecond());
+    }
+
+    public FuzzReport run() {
+        FuzzInputGenerator generator = new FuzzInputGenerator(config.getSeed());
+        List<FuzzInput> inputs = new ArrayList<>();
+        for (FuzzTarget target : config.getTargets()) {
+            inputs.addAll(generator.generate(target, config.getMutationsPerTarget()));
+        }
+
+        logger.info("Fuzzing {} inputs for {} at {} req/s against {}",
+                inputs.size(), config.getTargets(), config.getRequestsPerSecond(), TestConfig.BASE_URL);
+        long start = System.nanoTime();
+        sendAll(inputs, start);
+        long sent = System.nanoTime();
+
+        List<FuzzCase> failures = new ArrayList<>();
+        long shrinkRequests = 0;
+        for (Finding finding : findings.values()) {
+            Shrinker shrinker = new Shrinker(candidate -> {
+                sleepUntil(nextShrinkAt);
+                nextShrinkAt = System.nanoTime() + intervalNanos;
+                return finding.key.equals(probe(finding.target, candidate).key(finding.target));
+            }, config.getMaxShrinkRequests());
+            String minimal = shrinker.shrink(finding.smallestInput);
+            shrinkRequests += shrinker.getAttempts();
+            failures.add(finding.toCase(minimal));
+            logger.info("Shrunk {} failure \"{}\" from {} to {} characters in {} requests: {}={}", finding.status,
+                    finding.signature, finding.smallestInput.length(), minimal.length(), shrinker.getAttempts(),
+                    finding.target.getParameter(), minimal);
+        }
+        // Two generated inputs with different signatures never shrink to the same input, but keep the corpus unique anyway
+        failures = FuzzCorpus.merge(List.of(), failures);
+
+        FuzzReport report = new FuzzReport();
+        report.setBaseUrl(TestConfig.BASE_URL);
+        report.setSeed(config.getSeed());
+        report.setTargetRequestsPerSecond(config.getRequestsPerSecond());
+        report.setAchievedRequestsPerSecond(inputs.size() / ((sent - start) / 1e9));
+        report.setInputs(inputs.size());
+        report.setSkipped(skipped.intValue());
+        report.setShrinkRequests(shrinkRequests);
+        report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        statusCounts.forEach((target, counts) -> {
+            Map<Integer, Long> sorted = new TreeMap<>();
+            counts.forEach((status, count) -> sorted.put(status, count.sum()));
+            report.getStatusCounts().put(target, sorted);
+        });
+        report.setFailures(failures);
+        logger.info("Fuzzing finished: {} inputs, {} distinct failures, status codes {}",
+                inputs.size(), failures.size(), report.getStatusCounts());
+        return report;
+    }
+
+    private void sendAll(List<FuzzInput> inputs, long start) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(config.getMaxConcurrency(), config.getMaxConcurrency(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "fuzz-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Iterator<FuzzInput> iterator = inputs.iterator();
+        for (long i = 0; iterator.hasNext(); i++) {
+            FuzzInput input = iterator.next();
+            sleepUntil(start + i * intervalNanos);
+            executor.execute(() -> {
+                Outcome outcome = probe(input.getTarget(), input.getValue());
+                if (outcome.skipped) {
+                    skipped.increment();
+                    return;
+                }
+                statusCounts.computeIfAbsent(input.getTarget(), target -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(outcome.status, status -> new LongAdder()).increment();
+                if (outcome.isFailure()) {
+                    findings.compute(outcome.key(input.getTarget()), (key, finding) ->
+                            finding == null ? new Finding(key, input, outcome) : finding.add(input));
+                }
+            });
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+                logger.warn("Fuzz requests still running after 5 minutes, abandoning {} of them", executor.getActiveCount());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private Outcome probe(FuzzTarget target, String input) {
+        try {
+            Response response = restClient.getEncoded(target.getEndpoint(), target.pathAndQuery(input));
+            return new Outcome(response.getStatusCode(), signature(response.asString(), input), false);
+        } catch (Exception e) {
+            // RestAssured rethrows I/O failures undeclared; anything else is the client refusing the input
+            boolean noResponse = e instanceof IOException;
+            String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+            return new Outcome(0, normalize(message, input), !noResponse);
+        }
+    }
+
+    static String signature(String body, String input) {
+        try {
+            JsonNode node = mapper.readTree(body);
+            if (node != null && node.isObject()) {
+                Map<String, String> errors = new LinkedHashMap<>();
+                for (String field : ERROR_FIELDS) {
+                    JsonNode value = node.get(field);
+                    if (value != null && !value.isNull()) {
+                        errors.put(field, value.asText());
+                    }
+                }
+                // The field names tell Spring's error body from the API's envelope
+                Set<String> fields = new TreeSet<>();
+                node.fieldNames().forEachRemaining(fields::add);
+                return normalize(fields + " " + errors, input);
+            }
+        } catch (IOException e) {
+            // Not JSON; fall through
+        }
+        int lineEnd = body.indexOf('\n');
+        return normalize(lineEnd < 0 ? body : body.substring(0, lineEnd), input);
+    }
+
+    private static String normalize(String text, String input) {
+        String normalized = text;
+        if (!input.isEmpty()) {
+            normalized = normalized.replace(input, "<input>");
+            try {
+                String decoded = URLDecoder.decode(input, StandardCharsets.UTF_8);
+                if (!decoded.isEmpty()) {
+                    normalized = normalized.replace(decoded, "<input>");
+                }
+            } catch (IllegalArgumentException e) {
+                // Not decodable; only the wire form can be echoed
+            }
+        }
+        normalized = DIGITS.matcher(normalized.replaceAll("\\s+", " ").trim()).replaceAll("#");
+        return normalized.length() > MAX_SIGNATURE_LENGTH ? normalized.substring(0, MAX_SIGNATURE_LENGTH) : normalized;
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static final class Outcome {
+        private final int status;
+        private final String signature;
+        // The client refused to send the input; says nothing about the server
+        private final boolean skipped;
+
+        Outcome(int status, String signature, boolean skipped) {
+            this.status = status;
+            this.signature = signature;
+            this.skipped = skipped;
+        }
+
+        boolean isFailure() {
+            return !skipped && (status == 0 || status >= 500);
+        }
+
+        String key(FuzzTarget target) {
+            return target + " " + status + " " + signature;
+        }
+    }
+
+    // All generated inputs that failed with one target, status and signature
+    private static final class Finding {
+        private final String key;
+        private final FuzzTarget target;
+        private final int status;
+        private final String signature;
+        private final FuzzInput.Kind kind;
+        private String smallestInput;
+        private long occurrences = 1;
+
+        Finding(String key, FuzzInput input, Outcome outcome) {
+            this.key = key;
+            this.target = input.getTarget();
+            this.status = outcome.status;
+            this.signature = outcome.signature;
+            this.kind = input.getKind();
+            this.smallestInput = input.getValue();
+        }
+
+        // Called under the map's lock for this key
+        Finding add(FuzzInput input) {
+            occurrences++;
+            // Shrinking starts from the shortest input seen, which saves requests
+            if (input.getValue().length() < smallestInput.length()) {
+                smallestInput = input.getValue();
+            }
+            return this;
+        }
+
+        FuzzCase toCase(String minimal) {
+            FuzzCase fuzzCase = new FuzzCase();
+            fuzzCase.setTarget(target);
+            fuzzCase.setInput(minimal);
+            fuzzCase.setOriginalInput(smallestInput);
+            fuzzCase.setKind(kind);
+            fuzzCase.setStatus(status);
+            fuzzCase.setSignature(signature);
+            fuzzCase.setOccurrences(occurrences);
+            return fuzzCase;
+        }
+    }
+}
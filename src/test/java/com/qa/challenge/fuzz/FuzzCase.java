@@ -0,0 +1,32 @@
+package com.qa.challenge.fuzz;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * One distinct server failure: the minimal input that reproduces it and how it failed. Entries of the
+ * failure corpus replayed by {@code FuzzCorpusTest}.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FuzzCase {
+    private FuzzTarget target;
+    // Minimal reproduction, in wire form
+    private String input;
+    // The generated input before shrinking
+    private String originalInput;
+    private FuzzInput.Kind kind;
+    // 0 when the connection failed without a response
+    private int status;
+    // Normalized error of the response: what distinguishes this failure from others with the same status
+    private String signature;
+    // Generated inputs that failed the same way
+    private long occurrences;
+    // Bug report this failure was filed as, if any
+    private String issue;
+
+    // Identity in the corpus
+    String key() {
+        return target + " " + input;
+    }
+}
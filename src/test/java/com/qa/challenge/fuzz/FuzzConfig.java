@@ -0,0 +1,47 @@
+package com.qa.challenge.fuzz;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Settings for {@link FuzzCampaign}. Use the builder in code, or {@link #fromSystemProperties()}
+ * to configure a run from the command line.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class FuzzConfig {
+    @Singular
+    private final List<FuzzTarget> targets;
+    // Generated inputs started per second, independent of how fast responses come back
+    @Builder.Default
+    private final double requestsPerSecond = 50;
+    @Builder.Default
+    private final int maxConcurrency = 16;
+    // Random mutations per target, on top of the fixed dictionaries
+    @Builder.Default
+    private final int mutationsPerTarget = 200;
+    @Builder.Default
+    private final long seed = 42;
+    // Requests spent on shrinking each distinct failure to a minimal input
+    @Builder.Default
+    private final int maxShrinkRequests = 200;
+
+    public static FuzzConfig fromSystemProperties() {
+        return FuzzConfig.builder()
+                .targets(Arrays.stream(System.getProperty("fuzz.targets", "id,gender").split(","))
+                        .filter(s -> !s.isBlank())
+                        .map(FuzzTarget::parse)
+                        .collect(Collectors.toList()))
+                .requestsPerSecond(Double.parseDouble(System.getProperty("fuzz.rate", "50")))
+                .maxConcurrency(Integer.getInteger("fuzz.maxConcurrency", 16))
+                .mutationsPerTarget(Integer.getInteger("fuzz.mutations", 200))
+                .seed(Long.getLong("fuzz.seed", 42))
+                .maxShrinkRequests(Integer.getInteger("fuzz.shrink.maxRequests", 200))
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.qa.challenge.fuzz;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The failure corpus: a JSON array of {@link FuzzCase}s. The checked-in corpus is
+ * {@code src/test/resources/fuzz/corpus.json}; {@code -Dfuzz.corpus=<file>} replays another one, such as the
+ * corpus a campaign has just written.
+ */
+public final class FuzzCorpus {
+    public static final String RESOURCE = "fuzz/corpus.json";
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private FuzzCorpus() {
+    }
+
+    /**
+     * Loads {@code -Dfuzz.corpus} if set, the checked-in corpus otherwise.
+     */
+    public static List<FuzzCase> load() {
+        String file = System.getProperty("fuzz.corpus");
+        try {
+            if (file != null) {
+                return read(Paths.get(file));
+            }
+            try (InputStream in = FuzzCorpus.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+                return in == null ? new ArrayList<>() : mapper.readValue(in, new TypeReference<List<FuzzCase>>() {
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read fuzz corpus " + (file != null ? file : RESOURCE), e);
+        }
+    }
+
+    public static List<FuzzCase> read(Path file) throws IOException {
+        return mapper.readValue(file.toFile(), new TypeReference<List<FuzzCase>>() {
+        });
+    }
+
+    /**
+     * Adds new cases to a corpus. A case already in the corpus keeps its entry, including the issue it was filed as.
+     */
+    public static List<FuzzCase> merge(List<FuzzCase> corpus, List<FuzzCase> found) {
+        Map<String, FuzzCase> merged = new LinkedHashMap<>();
+        for (FuzzCase known : corpus) {
+            merged.put(known.key(), known);
+        }
+        for (FuzzCase fuzzCase : found) {
+            merged.putIfAbsent(fuzzCase.key(), fuzzCase);
+        }
+        List<FuzzCase> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparing(FuzzCase::getTarget).thenComparing(FuzzCase::getInput));
+        return result;
+    }
+
+    public static String toJson(List<FuzzCase> corpus) throws IOException {
+        return mapper.writeValueAsString(corpus);
+    }
+
+    public static void write(Path file, List<FuzzCase> corpus) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, toJson(corpus));
+    }
+}
@@ -0,0 +1,66 @@
+package com.qa.challenge.fuzz;
+
+import java.util.Objects;
+
+/**
+ * One generated value for a {@link FuzzTarget}, in wire form.
+ */
+public final class FuzzInput {
+    public enum Kind {
+        // Numeric limits, signs, leading zeros, number syntaxes the server may or may not accept
+        BOUNDARY,
+        // Percent-encoding, double encoding, control characters, non-ASCII digits and letters
+        ENCODING,
+        // Values far longer than any valid one
+        LONG,
+        // Case and spelling variants of valid gender values
+        CASE,
+        // Random edits of the values above
+        MUTATION
+    }
+
+    private final FuzzTarget target;
+    private final String value;
+    private final Kind kind;
+
+    public FuzzInput(FuzzTarget target, String value, Kind kind) {
+        this.target = target;
+        this.value = value;
+        this.kind = kind;
+    }
+
+    public FuzzTarget getTarget() {
+        return target;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FuzzInput)) {
+            return false;
+        }
+        FuzzInput other = (FuzzInput) o;
+        // The same value generated twice is sent once, whatever kind produced it
+        return target == other.target && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(target, value);
+    }
+
+    @Override
+    public String toString() {
+        return target.getParameter() + "=" + value + " (" + kind + ")";
+    }
+}
@@ -0,0 +1,209 @@
+package com.qa.challenge.fuzz;
+
+import com.qa.challenge.utils.TestConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates fuzz inputs for the user ID and the gender parameter: fixed dictionaries of boundary values,
+ * encodings, long strings and case variants, followed by seeded random mutations of those values.
+ * The same seed always yields the same inputs in the same order.
+ */
+public class FuzzInputGenerator {
+    private static final String[] VALID_GENDERS = {
+            TestConfig.GENDER_MALE, TestConfig.GENDER_FEMALE, TestConfig.GENDER_MAGIC,
+            TestConfig.GENDER_MCCLOUD, TestConfig.GENDER_ANY
+    };
+    // Tokens the mutations insert; each is one character on the server side
+    private static final String[] MUTATION_TOKENS = {
+            "0", "1", "9", "a", "Z", "-", "+", ".", "_", "~", "%20", "%00", "%25", "%2F", "%C3%A9", "%FF", "%EF%BC%91"
+    };
+
+    private final SplittableRandom random;
+
+    public FuzzInputGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public List<FuzzInput> generate(FuzzTarget target, int mutations) {
+        Set<FuzzInput> inputs = new LinkedHashSet<>();
+        if (target == FuzzTarget.USER_ID) {
+            addUserIdSeeds(inputs);
+        } else {
+            addGenderSeeds(inputs);
+        }
+        List<FuzzInput> seeds = new ArrayList<>(inputs);
+        // Mutations may produce a value that already exists, so bound the number of tries
+        for (int i = 0; i < mutations * 4 && inputs.size() < seeds.size() + mutations; i++) {
+            FuzzInput seed = seeds.get(random.nextInt(seeds.size()));
+            inputs.add(new FuzzInput(target, mutate(seed.getValue()), FuzzInput.Kind.MUTATION));
+        }
+        return new ArrayList<>(inputs);
+    }
+
+    private static void addUserIdSeeds(Set<FuzzInput> inputs) {
+        FuzzTarget id = FuzzTarget.USER_ID;
+        for (String value : new String[]{
+                "0", "-0", "+0", "00", "007", "1", "-1", "+1",
+                String.valueOf(Integer.MAX_VALUE), String.valueOf(Integer.MAX_VALUE + 1L),
+                String.valueOf(Integer.MIN_VALUE), String.valueOf(Integer.MIN_VALUE - 1L),
+                String.valueOf(Long.MAX_VALUE), "9223372036854775808", String.valueOf(Long.MIN_VALUE),
+                "-9223372036854775809", "18446744073709551616",
+                "1.0", "1.5", "1e3", "0x1F", "1_000", "1,000", "1,2", " 1", "1 ", "\t1", "1\n",
+                "NaN", "Infinity", "-Infinity", "null", "undefined", "true", "[]", "{}", "abc", "12abc", "-", "+"}) {
+            inputs.add(new FuzzInput(id, encode(value), FuzzInput.Kind.BOUNDARY));
+        }
+        for (String wire : new String[]{
+                // '1' percent-encoded, double-encoded, and as an overlong UTF-8 sequence
+                "%31", "%2531", "%C0%B1",
+                // Fullwidth, Arabic-Indic and Devanagari digit one: Long.parseLong accepts all three
+                "%EF%BC%91", "%D9%A1", "%E0%A5%A7",
+                "%00", "%001", "1%00", "%0A", "1%0D%0A", "%E2%80%8B1", "%F0%9F%98%80", "%FF", "%C3%A9",
+                "%2F", "1%2F2", ".", "..", "%2E%2E", "1;x=1", "1%3B", "1%23", "1%3F", "1%26", "%25", "%2525",
+                "%27", "%22", "1%27%20OR%20%271%27%3D%271"}) {
+            inputs.add(new FuzzInput(id, wire, FuzzInput.Kind.ENCODING));
+        }
+        for (int length : new int[]{20, 64, 1024, 8192}) {
+            inputs.add(new FuzzInput(id, "1".repeat(length), FuzzInput.Kind.LONG));
+        }
+        inputs.add(new FuzzInput(id, "-" + "9".repeat(64), FuzzInput.Kind.LONG));
+        inputs.add(new FuzzInput(id, "a".repeat(256), FuzzInput.Kind.LONG));
+        inputs.add(new FuzzInput(id, "a".repeat(8192), FuzzInput.Kind.LONG));
+        inputs.add(new FuzzInput(id, "%41".repeat(1024), FuzzInput.Kind.LONG));
+    }
+
+    private void addGenderSeeds(Set<FuzzInput> inputs) {
+        FuzzTarget gender = FuzzTarget.GENDER;
+        for (String valid : VALID_GENDERS) {
+            for (String variant : new String[]{valid, valid.toUpperCase(Locale.ROOT), valid.toLowerCase(Locale.ROOT),
+                    capitalize(valid), swapCase(valid), randomCase(valid), randomCase(valid)}) {
+                inputs.add(new FuzzInput(gender, encode(variant), FuzzInput.Kind.CASE));
+            }
+            inputs.add(new FuzzInput(gender, encode(valid + "s"), FuzzInput.Kind.CASE));
+            inputs.add(new FuzzInput(gender, encode(valid.substring(0, valid.length() - 1)), FuzzInput.Kind.CASE));
+            inputs.add(new FuzzInput(gender, encode(" " + valid), FuzzInput.Kind.ENCODING));
+            inputs.add(new FuzzInput(gender, encode(valid + " "), FuzzInput.Kind.ENCODING));
+            inputs.add(new FuzzInput(gender, encode(valid) + "%00", FuzzInput.Kind.ENCODING));
+            inputs.add(new FuzzInput(gender, percentEncodeAll(valid), FuzzInput.Kind.ENCODING));
+        }
+        for (String value : new String[]{
+                "", "invalid_gender", "unknown", "other", "none", "all", "*", "%", "_", "0", "1", "-1", "true",
+                "null", "undefined", "[]", "{}", "male,female", "male|female", "male;female"}) {
+            inputs.add(new FuzzInput(gender, encode(value), FuzzInput.Kind.BOUNDARY));
+        }
+        for (String wire : new String[]{
+                // Repeated and empty parameters
+                "male&gender=female", "male&gender=", "&gender=male", "male&gender",
+                // Double encoding, control characters, look-alike letters
+                "%256Dale", "%0Dmale", "male%0D%0A", "%E2%80%8Bmale", "%EF%BD%8D%EF%BD%81%EF%BD%8C%EF%BD%85",
+                "m%C3%A0le", "ma%CC%81le", "%F0%9F%98%80",
+                // Dotted and dotless i: what toUpperCase/toLowerCase make of them depends on the locale
+                "MAG%C4%B0C", "mag%C4%B1c", "MAG%C4%B1C",
+                "%FF", "%C0%AE", "%25", "%2525", "%27", "%22", "male%27%20OR%20%271%27%3D%271"}) {
+            inputs.add(new FuzzInput(gender, wire, FuzzInput.Kind.ENCODING));
+        }
+        inputs.add(new FuzzInput(gender, "male".repeat(64), FuzzInput.Kind.LONG));
+        inputs.add(new FuzzInput(gender, "male".repeat(2048), FuzzInput.Kind.LONG));
+        inputs.add(new FuzzInput(gender, "a".repeat(256), FuzzInput.Kind.LONG));
+        inputs.add(new FuzzInput(gender, "a".repeat(8192), FuzzInput.Kind.LONG));
+        inputs.add(new FuzzInput(gender, "%41".repeat(1024), FuzzInput.Kind.LONG));
+    }
+
+    // One to three random edits at token level, so a %XX escape is never split
+    private String mutate(String value) {
+        List<String> tokens = tokenize(value);
+        int edits = 1 + random.nextInt(3);
+        for (int i = 0; i < edits; i++) {
+            int position = tokens.isEmpty() ? 0 : random.nextInt(tokens.size());
+            switch (tokens.isEmpty() ? 0 : random.nextInt(5)) {
+                case 0:
+                    tokens.add(position, MUTATION_TOKENS[random.nextInt(MUTATION_TOKENS.length)]);
+                    break;
+                case 1:
+                    tokens.remove(position);
+                    break;
+                case 2:
+                    tokens.add(position, tokens.get(position));
+                    break;
+                case 3:
+                    tokens.set(position, MUTATION_TOKENS[random.nextInt(MUTATION_TOKENS.length)]);
+                    break;
+                default:
+                    tokens.set(position, swapCase(tokens.get(position)));
+            }
+        }
+        return String.join("", tokens);
+    }
+
+    /**
+     * Splits a wire value into tokens that each stand for one character or byte on the server side:
+     * a {@code %XX} escape or a single character.
+     */
+    static List<String> tokenize(String wire) {
+        List<String> tokens = new ArrayList<>(wire.length());
+        int i = 0;
+        while (i < wire.length()) {
+            int end = wire.charAt(i) == '%' && i + 2 < wire.length() ? i + 3 : i + 1;
+            tokens.add(wire.substring(i, end));
+            i = end;
+        }
+        return tokens;
+    }
+
+    /**
+     * Percent-encodes everything but the RFC 3986 unreserved characters, so the value is valid in a path
+     * segment and in a query parameter.
+     */
+    static String encode(String value) {
+        StringBuilder wire = new StringBuilder(value.length());
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~') {
+                wire.append(c);
+            } else {
+                appendEscape(wire, b);
+            }
+        }
+        return wire.toString();
+    }
+
+    private static String percentEncodeAll(String value) {
+        StringBuilder wire = new StringBuilder(value.length() * 3);
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            appendEscape(wire, b);
+        }
+        return wire.toString();
+    }
+
+    private static void appendEscape(StringBuilder wire, byte b) {
+        wire.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+    }
+
+    private static String capitalize(String value) {
+        return value.substring(0, 1).toUpperCase(Locale.ROOT) + value.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String swapCase(String value) {
+        StringBuilder swapped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+
+    private String randomCase(String value) {
+        StringBuilder mixed = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            mixed.append(random.nextBoolean() ? Character.toUpperCase(c) : Character.toLowerCase(c));
+        }
+        return mixed.toString();
+    }
+}
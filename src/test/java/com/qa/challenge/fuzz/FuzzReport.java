@@ -0,0 +1,28 @@
+package com.qa.challenge.fuzz;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of one fuzzing campaign, written as JSON.
+ */
+@Data
+public class FuzzReport {
+    private String baseUrl;
+    private long seed;
+    private double targetRequestsPerSecond;
+    private double achievedRequestsPerSecond;
+    private int inputs;
+    // Inputs the HTTP client refused to send, e.g. because they are not a valid URI
+    private int skipped;
+    private long shrinkRequests;
+    private long durationMillis;
+    // Per target, then per status code (0 = no response)
+    private Map<FuzzTarget, Map<Integer, Long>> statusCounts = new TreeMap<>();
+    // One entry per distinct failure, with its minimal input
+    private List<FuzzCase> failures = new ArrayList<>();
+}
@@ -0,0 +1,58 @@
+package com.qa.challenge.fuzz;
+
+import com.qa.challenge.utils.TestConfig;
+
+import java.util.Locale;
+
+/**
+ * An API input the fuzzer varies. The fuzzed value is always a wire value: already percent-encoded and put into
+ * the URL as is.
+ */
+public enum FuzzTarget {
+    // The {id} path segment of /api/test/user/{id}
+    USER_ID("id", TestConfig.USER_ENDPOINT) {
+        @Override
+        public String pathAndQuery(String input) {
+            return TestConfig.USER_ENDPOINT.replace("{id}", input);
+        }
+    },
+    // The gender query parameter of /api/test/users
+    GENDER("gender", TestConfig.USERS_ENDPOINT) {
+        @Override
+        public String pathAndQuery(String input) {
+            return TestConfig.USERS_ENDPOINT + "?gender=" + input;
+        }
+    };
+
+    private final String parameter;
+    private final String endpoint;
+
+    FuzzTarget(String parameter, String endpoint) {
+        this.parameter = parameter;
+        this.endpoint = endpoint;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    // Endpoint template the requests are timed under
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public abstract String pathAndQuery(String input);
+
+    /**
+     * Accepts the parameter name ({@code id}, {@code gender}) or the constant name.
+     */
+    public static FuzzTarget parse(String value) {
+        String name = value.trim();
+        for (FuzzTarget target : values()) {
+            if (target.parameter.equalsIgnoreCase(name)) {
+                return target;
+            }
+        }
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,88 @@
+package com.qa.challenge.fuzz;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Reduces a failing input to a minimal one that still fails the same way.
+ * <p>
+ * First removes chunks of tokens, halving the chunk size whenever no chunk can go (delta debugging), then
+ * replaces each remaining token by {@code 0} or {@code a}. Tokens are {@code %XX} escapes or single
+ * characters, so candidates stay valid URI syntax. Every candidate costs one request, so the number of
+ * candidates tried is capped; the result is the smallest failing input found within the cap.
+ */
+final class Shrinker {
+    private static final String[] SIMPLE_TOKENS = {"0", "a"};
+
+    private final Predicate<String> reproduces;
+    private final int maxAttempts;
+    private final Set<String> tried = new HashSet<>();
+    private int attempts;
+
+    /**
+     * @param reproduces  sends a candidate and tells whether it failed like the original input
+     * @param maxAttempts most candidates to send
+     */
+    Shrinker(Predicate<String> reproduces, int maxAttempts) {
+        this.reproduces = reproduces;
+        this.maxAttempts = maxAttempts;
+    }
+
+    String shrink(String input) {
+        tried.add(input);
+        List<String> tokens = FuzzInputGenerator.tokenize(input);
+
+        int chunk = tokens.size();
+        while (chunk >= 1 && !exhausted()) {
+            boolean removed = false;
+            for (int start = 0; start < tokens.size() && !exhausted(); ) {
+                List<String> candidate = new ArrayList<>(tokens.subList(0, start));
+                candidate.addAll(tokens.subList(Math.min(start + chunk, tokens.size()), tokens.size()));
+                if (test(candidate)) {
+                    tokens = candidate;
+                    removed = true;
+                } else {
+                    start += chunk;
+                }
+            }
+            if (!removed || chunk > tokens.size()) {
+                chunk = Math.min(chunk / 2, tokens.size());
+            }
+        }
+
+        for (int i = 0; i < tokens.size() && !exhausted(); i++) {
+            for (String simple : SIMPLE_TOKENS) {
+                if (tokens.get(i).equals(simple)) {
+                    break;
+                }
+                List<String> candidate = new ArrayList<>(tokens);
+                candidate.set(i, simple);
+                if (test(candidate)) {
+                    tokens = candidate;
+                    break;
+                }
+            }
+        }
+        return String.join("", tokens);
+    }
+
+    int getAttempts() {
+        return attempts;
+    }
+
+    private boolean test(List<String> tokens) {
+        String candidate = String.join("", tokens);
+        if (!tried.add(candidate)) {
+            return false;
+        }
+        attempts++;
+        return reproduces.test(candidate);
+    }
+
+    private boolean exhausted() {
+        return attempts >= maxAttempts;
+    }
+}
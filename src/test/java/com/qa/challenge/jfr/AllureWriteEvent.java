@@ -0,0 +1,29 @@
+package com.qa.challenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * One batch of Allure attachment files written by {@code AsyncAttachmentWriter}.
+ */
+@Name(AllureWriteEvent.NAME)
+@Label("Allure Attachment Write")
+@Category({"API Tests", "Allure"})
+@Description("A batch of Allure attachment files written to the results directory")
+@StackTrace(false)
+@Setter
+public class AllureWriteEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.qa.challenge.AllureWrite";
+
+    @Label("Attachments")
+    private int attachments;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+}
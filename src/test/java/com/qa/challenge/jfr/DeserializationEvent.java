@@ -0,0 +1,28 @@
+package com.qa.challenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Parsing a response body or binding it to a model class, e.g. {@code response.as(UserResponse.class)}, the tree
+ * parse of {@code JsonContract.check} or the streaming decode of a users list.
+ */
+@Name(DeserializationEvent.NAME)
+@Label("Response Deserialization")
+@Category({"API Tests", "JSON"})
+@Description("A response body parsed or bound to a model class")
+@StackTrace(false)
+@Setter
+public class DeserializationEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.qa.challenge.Deserialization";
+
+    @Label("Type")
+    private String type;
+
+    @Label("Test")
+    private String test;
+}
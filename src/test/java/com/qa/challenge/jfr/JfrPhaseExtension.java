@@ -0,0 +1,78 @@
+package com.qa.challenge.jfr;
+
+import com.qa.challenge.utils.TestContext;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * Emits a {@link TestPhaseEvent} for every lifecycle method and test method of the class it is registered on.
+ * With no recording running, the events are created and dropped, which costs next to nothing.
+ */
+public class JfrPhaseExtension implements InvocationInterceptor {
+    public static final String BEFORE_ALL = "beforeAll";
+    public static final String SETUP = "setup";
+    public static final String TEST = "test";
+    public static final String TEARDOWN = "teardown";
+    public static final String AFTER_ALL = "afterAll";
+
+    @Override
+    public void interceptBeforeAllMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                         ExtensionContext extensionContext) throws Throwable {
+        record(BEFORE_ALL, invocation, invocationContext, extensionContext);
+    }
+
+    @Override
+    public void interceptBeforeEachMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                          ExtensionContext extensionContext) throws Throwable {
+        record(SETUP, invocation, invocationContext, extensionContext);
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        record(TEST, invocation, invocationContext, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        record(TEST, invocation, invocationContext, extensionContext);
+    }
+
+    @Override
+    public void interceptAfterEachMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                         ExtensionContext extensionContext) throws Throwable {
+        record(TEARDOWN, invocation, invocationContext, extensionContext);
+    }
+
+    @Override
+    public void interceptAfterAllMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                        ExtensionContext extensionContext) throws Throwable {
+        record(AFTER_ALL, invocation, invocationContext, extensionContext);
+    }
+
+    private static void record(String phase, Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                               ExtensionContext extensionContext) throws Throwable {
+        TestPhaseEvent event = new TestPhaseEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            invocation.proceed();
+            failed = false;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setPhase(phase);
+                // Class-level phases run outside any test; the class name stands in for it
+                event.setTest(extensionContext.getTestMethod().isPresent()
+                        ? TestContext.currentTestName() : extensionContext.getRequiredTestClass().getSimpleName());
+                event.setMethod(invocationContext.getExecutable().getName());
+                event.setFailed(failed);
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.qa.challenge.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a JFR recording of a test run ({@code -Pjfr}) into a time breakdown: test phases, REST calls per endpoint,
+ * deserialization per model class, Allure attachment writes, GC pauses, and CPU samples by library.
+ * <p>
+ * Durations are summed over all threads. They overlap: a test's REST calls and deserialization are part of its
+ * test phase, and the calls of a fan-out run on several threads at once, so the sums can exceed the run's wall time.
+ * The CPU samples show where the threads that were running spent their time, e.g. in logging or Allure.
+ * <p>
+ * Arguments: the recording, {@code target/jfr/test-run.jfr} by default. The breakdown is logged and written as
+ * Markdown to {@code phase-breakdown.md} next to the recording.
+ */
+public final class JfrPhaseReport {
+    private static final Logger logger = LoggerFactory.getLogger(JfrPhaseReport.class);
+    // First library frame (from the top of the stack) decides where a CPU sample is counted
+    private static final Map<String, String> LIBRARIES = new LinkedHashMap<>();
+    private static final int SLOWEST_TESTS = 10;
+
+    static {
+        LIBRARIES.put("com.fasterxml.jackson.", "JSON (Jackson)");
+        LIBRARIES.put("com.github.fge.", "JSON schema validation");
+        LIBRARIES.put("io.qameta.allure.", "Allure");
+        LIBRARIES.put("org.slf4j.", "Logging");
+        LIBRARIES.put("org.apache.http.", "HTTP client");
+        LIBRARIES.put("io.restassured.", "RestAssured");
+        LIBRARIES.put("org.codehaus.groovy.", "RestAssured (Groovy)");
+        LIBRARIES.put("groovy.", "RestAssured (Groovy)");
+        LIBRARIES.put("org.junit.", "JUnit");
+        LIBRARIES.put("com.qa.challenge.", "Test code");
+    }
+
+    private JfrPhaseReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path recording = Paths.get(args.length > 0 ? args[0] : "target/jfr/test-run.jfr");
+        if (!Files.exists(recording)) {
+            logger.warn("No recording at {}; run the tests with -Pjfr first", recording);
+            return;
+        }
+        String report = analyze(recording);
+        Path reportFile = recording.resolveSibling("phase-breakdown.md");
+        Files.writeString(reportFile, report);
+        logger.info("Time breakdown of {} (also in {}):\n{}", recording, reportFile, report);
+    }
+
+    static String analyze(Path recording) throws IOException {
+        Map<String, Totals> phases = new TreeMap<>();
+        Map<String, Totals> endpoints = new TreeMap<>();
+        Map<String, Totals> types = new TreeMap<>();
+        Map<String, Totals> tests = new TreeMap<>();
+        Map<String, Totals> cpu = new TreeMap<>();
+        Totals allure = new Totals();
+        Totals gcPauses = new Totals();
+        Instant first = null;
+        Instant last = null;
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                switch (name) {
+                    case TestPhaseEvent.NAME:
+                        phases.computeIfAbsent(event.getString("phase"), k -> new Totals()).add(event.getDuration(), 0);
+                        if (JfrPhaseExtension.TEST.equals(event.getString("phase"))) {
+                            tests.computeIfAbsent(event.getString("test"), k -> new Totals()).add(event.getDuration(), 0);
+                        }
+                        break;
+                    case RestCallEvent.NAME:
+                        endpoints.computeIfAbsent(event.getString("endpoint"), k -> new Totals())
+                                .add(event.getDuration(), event.getLong("bytes"));
+                        break;
+                    case DeserializationEvent.NAME:
+                        types.computeIfAbsent(event.getString("type"), k -> new Totals()).add(event.getDuration(), 0);
+                        break;
+                    case AllureWriteEvent.NAME:
+                        allure.add(event.getDuration(), event.getLong("bytes"));
+                        break;
+                    case "jdk.GarbageCollection":
+                        gcPauses.add(event.getDuration("sumOfPauses"), 0);
+                        break;
+                    case "jdk.ExecutionSample":
+                        cpu.computeIfAbsent(library(event.getStackTrace()), k -> new Totals()).add(Duration.ZERO, 0);
+                        break;
+                    default:
+                        break;
+                }
+                if (first == null || event.getStartTime().isBefore(first)) {
+                    first = event.getStartTime();
+                }
+                if (last == null || event.getEndTime().isAfter(last)) {
+                    last = event.getEndTime();
+                }
+            }
+        }
+
+        StringBuilder md = new StringBuilder();
+        md.append(String.format(Locale.ROOT, "### Time Breakdown (%s, %.1f s recorded)%n%n", recording.getFileName(),
+                first == null ? 0 : Duration.between(first, last).toMillis() / 1000.0));
+        md.append("Thread time summed over all threads; REST calls and deserialization are part of the test phase.\n\n");
+        md.append("| Activity | Count | Total s | Mean ms | Max ms | Bytes |\n");
+        md.append("|----------|-------|---------|---------|--------|-------|\n");
+        phases.forEach((phase, totals) -> row(md, "Phase: " + phase, totals));
+        row(md, "REST calls (all endpoints)", sum(endpoints));
+        row(md, "Deserialization (all types)", sum(types));
+        row(md, "Allure attachment writes (batches)", allure);
+        row(md, "GC pauses", gcPauses);
+        md.append('\n');
+
+        if (!endpoints.isEmpty()) {
+            md.append("| Endpoint | Calls | Total s | Mean ms | Max ms | Bytes |\n");
+            md.append("|----------|-------|---------|---------|--------|-------|\n");
+            endpoints.forEach((endpoint, totals) -> row(md, "`" + endpoint + "`", totals));
+            md.append('\n');
+        }
+        if (!types.isEmpty()) {
+            md.append("| Deserialized type | Count | Total s | Mean ms | Max ms | Bytes |\n");
+            md.append("|-------------------|-------|---------|---------|--------|-------|\n");
+            types.forEach((type, totals) -> row(md, "`" + type + "`", totals));
+            md.append('\n');
+        }
+        if (!tests.isEmpty()) {
+            md.append("| Slowest test methods | Runs | Total s | Mean ms | Max ms | Bytes |\n");
+            md.append("|----------------------|------|---------|---------|--------|-------|\n");
+            List<Map.Entry<String, Totals>> slowest = tests.entrySet().stream()
+                    .sorted(Comparator.comparing((Map.Entry<String, Totals> entry) -> entry.getValue().nanos).reversed())
+                    .limit(SLOWEST_TESTS)
+                    .collect(Collectors.toList());
+            slowest.forEach(entry -> row(md, "`" + entry.getKey() + "`", entry.getValue()));
+            md.append('\n');
+        }
+        long samples = cpu.values().stream().mapToLong(totals -> totals.count).sum();
+        if (samples > 0) {
+            md.append("| CPU samples by library | Samples | Share |\n");
+            md.append("|------------------------|---------|-------|\n");
+            cpu.entrySet().stream()
+                    .sorted(Comparator.comparing((Map.Entry<String, Totals> entry) -> entry.getValue().count).reversed())
+                    .forEach(entry -> md.append(String.format(Locale.ROOT, "| %s | %d | %.1f%% |%n", entry.getKey(),
+                            entry.getValue().count, 100.0 * entry.getValue().count / samples)));
+        }
+        return md.toString();
+    }
+
+    private static String library(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "Unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String className = frame.getMethod().getType().getName();
+            for (Map.Entry<String, String> library : LIBRARIES.entrySet()) {
+                if (className.startsWith(library.getKey())) {
+                    return library.getValue();
+                }
+            }
+        }
+        return "JDK / other";
+    }
+
+    private static Totals sum(Map<String, Totals> totals) {
+        Totals sum = new Totals();
+        totals.values().forEach(sum::addAll);
+        return sum;
+    }
+
+    private static void row(StringBuilder md, String name, Totals totals) {
+        md.append(String.format(Locale.ROOT, "| %s | %d | %.2f | %.1f | %.1f | %d |%n", name, totals.count,
+                totals.nanos / 1e9, totals.count == 0 ? 0 : totals.nanos / 1e6 / totals.count, totals.maxNanos / 1e6,
+                totals.bytes));
+    }
+
+    private static final class Totals {
+        private long count;
+        private long nanos;
+        private long maxNanos;
+        private long bytes;
+
+        void add(Duration duration, long size) {
+            long value = duration.toNanos();
+            count++;
+            nanos += value;
+            maxNanos = Math.max(maxNanos, value);
+            bytes += size;
+        }
+
+        void addAll(Totals other) {
+            count += other.count;
+            nanos += other.nanos;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+            bytes += other.bytes;
+        }
+    }
+}
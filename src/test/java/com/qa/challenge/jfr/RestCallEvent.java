@@ -0,0 +1,36 @@
+package com.qa.challenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * One {@code RestClient} call as the test sees it: with hedging and retries on, all attempts together.
+ */
+@Name(RestCallEvent.NAME)
+@Label("REST Call")
+@Category({"API Tests", "HTTP"})
+@Description("A RestClient call, from the request being built to the buffered response")
+@StackTrace(false)
+@Setter
+public class RestCallEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.qa.challenge.RestCall";
+
+    @Label("Endpoint")
+    @Description("Endpoint template, e.g. /api/test/user/{id}")
+    private String endpoint;
+
+    @Label("Status")
+    private int status;
+
+    @Label("Response Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Test")
+    private String test;
+}
@@ -0,0 +1,33 @@
+package com.qa.challenge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * One lifecycle phase of a test class or method, emitted by {@link JfrPhaseExtension}.
+ */
+@Name(TestPhaseEvent.NAME)
+@Label("Test Phase")
+@Category({"API Tests", "JUnit"})
+@Description("@BeforeAll, @BeforeEach (setup), the test method, @AfterEach (teardown) or @AfterAll")
+@StackTrace(false)
+@Setter
+public class TestPhaseEvent extends jdk.jfr.Event {
+    public static final String NAME = "com.qa.challenge.TestPhase";
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Test")
+    private String test;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Failed")
+    private boolean failed;
+}
@@ -0,0 +1,58 @@
+package com.qa.challenge.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Flight recording of the test run, started and stopped by {@code RunListener} when {@code -Djfr.file} is set
+ * ({@code -Pjfr}). It is started in the JVM rather than with {@code -XX:StartFlightRecording}, which fails at
+ * start-up next to the AspectJ agent Allure needs.
+ */
+public final class TestRunRecording {
+    private static final Logger logger = LoggerFactory.getLogger(TestRunRecording.class);
+    private static Recording recording;
+
+    private TestRunRecording() {
+    }
+
+    public static synchronized void start() {
+        String file = System.getProperty("jfr.file", "");
+        if (file.isEmpty() || recording != null) {
+            return;
+        }
+        String settings = System.getProperty("jfr.settings", "profile");
+        try {
+            Path destination = Paths.get(file);
+            Files.createDirectories(destination.toAbsolutePath().getParent());
+            recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName("test-run");
+            recording.setDestination(destination);
+            // Written on stop, or on exit if the run is cut short
+            recording.setDumpOnExit(true);
+            recording.start();
+            logger.info("Flight recording of the test run ({} settings) goes to {}", settings, destination);
+        } catch (IOException | ParseException e) {
+            // The recording is a diagnostic aid; without it the run is still valid
+            logger.warn("Could not start the flight recording {}", file, e);
+            recording = null;
+        }
+    }
+
+    public static synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+        // Stopping writes the recording to its destination
+        recording.stop();
+        recording.close();
+        recording = null;
+    }
+}
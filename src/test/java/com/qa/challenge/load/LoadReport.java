@@ -0,0 +1,24 @@
+package com.qa.challenge.load;
+
+import com.qa.challenge.utils.LatencySummary;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of one load test run, written as JSON.
+ */
+@Data
+public class LoadReport {
+    private String baseUrl;
+    private double targetRequestsPerSecond;
+    private double achievedRequestsPerSecond;
+    private int durationSeconds;
+    private int warmupSeconds;
+    private int maxConcurrency;
+    // Per endpoint template, e.g. "/api/test/user/{id}"
+    private Map<String, LatencySummary> endpoints = new TreeMap<>();
+    // Per endpoint template, then per gender
+    private Map<String, Map<String, LatencySummary>> endpointsByGender = new TreeMap<>();
+}
@@ -0,0 +1,44 @@
+package com.qa.challenge.load;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings for {@link OpenLoopLoadGenerator}. Use the builder in code, or {@link #fromSystemProperties()}
+ * to configure a run from the command line.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class LoadTestConfig {
+    // Requests started per second, independent of how fast responses come back
+    @Builder.Default
+    private final double requestsPerSecond = 20;
+    @Builder.Default
+    private final int durationSeconds = 30;
+    // Samples from the warm-up period are not recorded
+    @Builder.Default
+    private final int warmupSeconds = 5;
+    // Share of requests going to /api/test/user/{id}; the rest go to /api/test/users
+    @Builder.Default
+    private final double userDetailsShare = 0.8;
+    // Upper bound for requests in flight at the same time; late requests queue and their wait is measured
+    @Builder.Default
+    private final int maxConcurrency = 64;
+    @Builder.Default
+    private final long seed = 42;
+    // NF-001: every endpoint must keep p99 below this
+    @Builder.Default
+    private final long p99LimitMillis = 1000;
+
+    public static LoadTestConfig fromSystemProperties() {
+        return LoadTestConfig.builder()
+                .requestsPerSecond(Double.parseDouble(System.getProperty("load.rate", "20")))
+                .durationSeconds(Integer.getInteger("load.durationSeconds", 30))
+                .warmupSeconds(Integer.getInteger("load.warmupSeconds", 5))
+                .userDetailsShare(Double.parseDouble(System.getProperty("load.userDetailsShare", "0.8")))
+                .maxConcurrency(Integer.getInteger("load.maxConcurrency", 64))
+                .seed(Long.getLong("load.seed", 42))
+                .p99LimitMillis(Long.getLong("load.p99LimitMillis", 1000))
+                .build();
+    }
+}
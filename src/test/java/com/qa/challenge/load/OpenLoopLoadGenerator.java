@@ -0,0 +1,193 @@
+package com.qa.challenge.load;
+
+import com.qa.challenge.models.UserResponse;
+import com.qa.challenge.utils.LatencySummary;
+import com.qa.challenge.utils.RestClient;
+import com.qa.challenge.utils.TestConfig;
+import io.restassured.response.Response;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives both API endpoints at a fixed request rate (open loop).
+ * <p>
+ * Requests are started on a fixed schedule whether or not earlier requests have finished, and each
+ * latency is measured from the time the request was <em>scheduled</em> to start. A slow server therefore
+ * shows up as queueing delay in the percentiles instead of silently lowering the request rate
+ * (coordinated omission).
+ */
+public class OpenLoopLoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(OpenLoopLoadGenerator.class);
+    private static final String[] LIST_GENDERS = {
+            TestConfig.GENDER_MALE, TestConfig.GENDER_FEMALE, TestConfig.GENDER_MAGIC,
+            TestConfig.GENDER_MCCLOUD, TestConfig.GENDER_ANY
+    };
+    private static final String UNKNOWN_GENDER = "unknown";
+
+    private final LoadTestConfig config;
+    private final RestClient restClient;
+    private final int[] userIds;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public OpenLoopLoadGenerator(LoadTestConfig config, RestClient restClient, int[] userIds) {
+        if (userIds.length == 0) {
+            throw new IllegalArgumentException("At least one user ID is needed to build the request mix");
+        }
+        this.config = config;
+        this.restClient = restClient;
+        this.userIds = userIds;
+    }
+
+    public LoadReport run() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(config.getMaxConcurrency(), config.getMaxConcurrency(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "load-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getRequestsPerSecond());
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        AtomicLong recorded = new AtomicLong();
+
+        logger.info("Starting open-loop load: {} req/s for {} s (+{} s warm-up) against {}",
+                config.getRequestsPerSecond(), config.getDurationSeconds(), config.getWarmupSeconds(), TestConfig.BASE_URL);
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            sleepUntil(intendedStart);
+            boolean record = intendedStart >= measureFrom;
+            if (random.nextDouble() < config.getUserDetailsShare()) {
+                int userId = userIds[random.nextInt(userIds.length)];
+                executor.execute(() -> {
+                    if (sendUserDetails(userId, intendedStart, record)) {
+                        recorded.incrementAndGet();
+                    }
+                });
+            } else {
+                String gender = LIST_GENDERS[random.nextInt(LIST_GENDERS.length)];
+                executor.execute(() -> {
+                    if (sendUsersList(gender, intendedStart, record)) {
+                        recorded.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+                logger.warn("Load test requests still running after 5 minutes, abandoning {} of them", executor.getActiveCount());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+
+        LoadReport report = buildReport(recorded.get() / (double) config.getDurationSeconds());
+        logger.info("Load test finished: {}", report.getEndpoints());
+        return report;
+    }
+
+    private boolean sendUserDetails(int userId, long intendedStart, boolean record) {
+        Map<String, Object> pathParams = Map.of("id", userId);
+        String gender = UNKNOWN_GENDER;
+        boolean error;
+        try {
+            Response response = restClient.get(TestConfig.USER_ENDPOINT, pathParams, true);
+            error = response.getStatusCode() != 200;
+            if (!error) {
+                UserResponse userResponse = response.as(UserResponse.class);
+                if (userResponse.getUser() != null && userResponse.getUser().getGender() != null) {
+                    gender = userResponse.getUser().getGender();
+                }
+            }
+        } catch (RuntimeException e) {
+            error = true;
+        }
+        return record(TestConfig.USER_ENDPOINT, gender, intendedStart, error, record);
+    }
+
+    private boolean sendUsersList(String gender, long intendedStart, boolean record) {
+        boolean error;
+        try {
+            Response response = restClient.get(TestConfig.USERS_ENDPOINT, Map.of("gender", gender));
+            error = response.getStatusCode() != 200;
+        } catch (RuntimeException e) {
+            error = true;
+        }
+        return record(TestConfig.USERS_ENDPOINT, gender, intendedStart, error, record);
+    }
+
+    private boolean record(String endpoint, String gender, long intendedStart, boolean error, boolean record) {
+        if (!record) {
+            return false;
+        }
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        stats.computeIfAbsent(endpoint, key -> new Stats()).record(latencyMicros, error);
+        stats.computeIfAbsent(endpoint + "|" + gender, key -> new Stats()).record(latencyMicros, error);
+        return true;
+    }
+
+    private LoadReport buildReport(double achievedRate) {
+        LoadReport report = new LoadReport();
+        report.setBaseUrl(TestConfig.BASE_URL);
+        report.setTargetRequestsPerSecond(config.getRequestsPerSecond());
+        report.setAchievedRequestsPerSecond(achievedRate);
+        report.setDurationSeconds(config.getDurationSeconds());
+        report.setWarmupSeconds(config.getWarmupSeconds());
+        report.setMaxConcurrency(config.getMaxConcurrency());
+        stats.forEach((key, value) -> {
+            LatencySummary summary = LatencySummary.from(value.histogram, value.errors.get());
+            int separator = key.indexOf('|');
+            if (separator < 0) {
+                report.getEndpoints().put(key, summary);
+            } else {
+                report.getEndpointsByGender()
+                        .computeIfAbsent(key.substring(0, separator), endpoint -> new TreeMap<>())
+                        .put(key.substring(separator + 1), summary);
+            }
+        });
+        return report;
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static class Stats {
+        // Values in microseconds; auto-resizing, safe for concurrent recording
+        private final Histogram histogram = new ConcurrentHistogram(3);
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long latencyMicros, boolean error) {
+            histogram.recordValue(latencyMicros);
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+}
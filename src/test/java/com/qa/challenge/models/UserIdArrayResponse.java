@@ -0,0 +1,27 @@
+package com.qa.challenge.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Users list response with the IDs kept as a primitive array, as produced by
+ * {@link com.qa.challenge.utils.UserIdListDecoder}. Same fields as {@link UserIdListResponse}
+ * without boxing every ID.
+ */
+@Getter
+@AllArgsConstructor
+public class UserIdArrayResponse {
+    private final boolean isSuccess;
+    private final int errorCode;
+    private final String errorMessage;
+    // null when the response has no idList or it is null
+    private final int[] idList;
+
+    // Some APIs return 'success' instead of 'isSuccess'
+    private final boolean success;
+
+    // Same semantics as UserIdListResponse.getSuccess()
+    public boolean getSuccess() {
+        return isSuccess || success;
+    }
+}
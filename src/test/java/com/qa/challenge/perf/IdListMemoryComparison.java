@@ -0,0 +1,119 @@
+package com.qa.challenge.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qa.challenge.models.UserIdArrayResponse;
+import com.qa.challenge.models.UserIdListResponse;
+import com.qa.challenge.utils.UserIdListDecoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Compares heap use of the users list decode paths for large ID lists:
+ * <ul>
+ *     <li>{@code asString()} followed by data binding into {@code List<Integer>} (the original path)</li>
+ *     <li>data binding straight from the body bytes</li>
+ *     <li>{@link UserIdListDecoder} streaming into {@code int[]}</li>
+ * </ul>
+ * For each it prints the bytes allocated while decoding and the heap still held by the result.
+ * Run with a large heap, e.g.
+ * {@code MAVEN_OPTS=-Xmx4g mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.qa.challenge.perf.IdListMemoryComparison -Dexec.args="1000000 10000000"}.
+ */
+public class IdListMemoryComparison {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Keeps the decoded result reachable while retained heap is measured
+    private static Object retained;
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length == 0 ? new int[]{1_000_000, 10_000_000} : parseSizes(args);
+        System.out.printf("%-12s %-34s %14s %14s %10s%n", "IDs", "Decode path", "Allocated MB", "Retained MB", "Time ms");
+        for (int size : sizes) {
+            byte[] body = usersListBody(size);
+            System.out.printf("%-12d %-34s %14.1f %14s %10s%n", size, "(response body)", mb(body.length), "", "");
+            measure(size, "asString() + as(UserIdListResponse)", () -> {
+                String text = new String(body, StandardCharsets.UTF_8);
+                return new Object[]{text, read(text)};
+            });
+            measure(size, "as(UserIdListResponse) from bytes", () -> read(body));
+            measure(size, "UserIdListDecoder -> int[]", () -> {
+                UserIdArrayResponse response = UserIdListDecoder.decode(body);
+                return response.getIdList();
+            });
+        }
+    }
+
+    private static void measure(int size, String name, Supplier<Object> decode) {
+        // Warm-up run so class loading and JIT do not count
+        decode.get();
+        retained = null;
+        long before = usedHeapAfterGc();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        retained = decode.get();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long retainedBytes = usedHeapAfterGc() - before;
+        retained = null;
+        System.out.printf("%-12d %-34s %14.1f %14.1f %10d%n", size, name, mb(allocated), mb(retainedBytes), elapsedMs);
+    }
+
+    private static UserIdListResponse read(String text) {
+        try {
+            return objectMapper.readValue(text, UserIdListResponse.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UserIdListResponse read(byte[] body) {
+        try {
+            return objectMapper.readValue(body, UserIdListResponse.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Same shape as the real endpoint (and StubUserServer): IDs 1..size
+    private static byte[] usersListBody(int size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size * 9 + 128);
+        out.write("{\"success\":true,\"errorCode\":0,\"errorMessage\":null,\"idList\":[".getBytes(StandardCharsets.US_ASCII));
+        for (int id = 1; id <= size; id++) {
+            if (id > 1) {
+                out.write(',');
+            }
+            out.write(Integer.toString(id).getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write("]}".getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static int[] parseSizes(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i].replace("_", ""));
+        }
+        return sizes;
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.qa.challenge.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges the Allure results of the shards of a run into one results directory, so {@code mvn allure:report}
+ * shows the run as a whole. Run by the {@code shard-merge} Maven profile once every shard has finished.
+ * <p>
+ * Result, container and attachment files have UUID names and are copied as they are. The results of tests a shard
+ * skipped because another shard owns them ({@link ShardCondition}) are dropped. Of the other files
+ * ({@code environment.properties}, {@code categories.json}, ...) the first shard's copy is kept.
+ * <p>
+ * Arguments: the shard directories; by default every directory in {@code target/allure-shards}.
+ * The target is {@code target/allure-results}, or {@code -Dallure.merge.target}.
+ */
+public final class AllureResultsMerger {
+    private static final Logger logger = LoggerFactory.getLogger(AllureResultsMerger.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private AllureResultsMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path target = Paths.get(System.getProperty("allure.merge.target", "target/allure-results"));
+        List<Path> shards = args.length > 0
+                ? Arrays.stream(args).map(Paths::get).collect(Collectors.toList())
+                : shardDirectories(Paths.get(System.getProperty("allure.merge.source", "target/allure-shards")));
+        if (shards.isEmpty()) {
+            logger.warn("No shard results to merge");
+            return;
+        }
+        Files.createDirectories(target);
+        for (Path shard : shards) {
+            merge(shard, target);
+        }
+    }
+
+    static void merge(Path shard, Path target) throws IOException {
+        int copied = 0;
+        int dropped = 0;
+        List<Path> files;
+        try (Stream<Path> list = Files.list(shard)) {
+            files = list.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            Path destination = target.resolve(name);
+            if (name.endsWith("-result.json") && isSkippedForOtherShard(file)) {
+                dropped++;
+            } else if (isPerTestFile(name) || !Files.exists(destination)) {
+                Files.copy(file, destination, StandardCopyOption.REPLACE_EXISTING);
+                copied++;
+            }
+        }
+        logger.info("Merged {} into {}: {} files copied, {} results of tests owned by other shards dropped",
+                shard, target, copied, dropped);
+    }
+
+    private static List<Path> shardDirectories(Path source) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> list = Files.list(source)) {
+            return list.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isPerTestFile(String name) {
+        return name.endsWith("-result.json") || name.endsWith("-container.json") || name.contains("-attachment");
+    }
+
+    private static boolean isSkippedForOtherShard(Path resultFile) throws IOException {
+        JsonNode result = mapper.readTree(resultFile.toFile());
+        return "skipped".equals(result.path("status").asText())
+                && result.path("statusDetails").path("message").asText().startsWith(ShardCondition.SKIPPED_PREFIX);
+    }
+}
@@ -0,0 +1,64 @@
+package com.qa.challenge.shard;
+
+import com.qa.challenge.utils.TestConfig;
+
+import java.util.Arrays;
+
+/**
+ * This JVM's shard of a sharded run ({@code -Dshard.index=i -Dshard.count=n}).
+ * <p>
+ * Tests and user IDs are assigned to shards by a hash of their name or value, not by position. The slices depend
+ * only on the shard count, never on the order or the length of a list, so every shard computes the same partition
+ * on its own: each ID and each test runs on exactly one shard, and a new user in the list does not move the others.
+ */
+public final class Shard {
+
+    private Shard() {
+    }
+
+    public static int index() {
+        return TestConfig.SHARD_INDEX;
+    }
+
+    public static int count() {
+        return TestConfig.SHARD_COUNT;
+    }
+
+    public static boolean isSharded() {
+        return count() > 1;
+    }
+
+    /**
+     * Whether this shard runs the test, parameterized case or other unit identified by {@code key}.
+     */
+    public static boolean owns(String key) {
+        return ownerOf(key.hashCode()) == index();
+    }
+
+    public static boolean owns(int id) {
+        return ownerOf(id) == index();
+    }
+
+    /**
+     * The IDs of this shard, in their original order. Without sharding, the IDs themselves.
+     */
+    public static int[] slice(int[] ids) {
+        return isSharded() ? Arrays.stream(ids).filter(Shard::owns).toArray() : ids;
+    }
+
+    static int ownerOf(int hash) {
+        if (count() < 1 || index() < 0 || index() >= count()) {
+            throw new IllegalStateException("shard.index must be between 0 and shard.count - 1, got shard.index="
+                    + index() + ", shard.count=" + count());
+        }
+        // String.hashCode is specified by the JLS and user IDs are often consecutive; mixing the bits
+        // (MurmurHash3's finalizer) spreads both evenly over the shards
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, count());
+    }
+}
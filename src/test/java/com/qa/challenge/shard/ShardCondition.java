@@ -0,0 +1,51 @@
+package com.qa.challenge.shard;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.util.ResultsUtils;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Runs a test only on the shard that owns it. The owner is picked by a hash of the test's unique ID, which for a
+ * parameterized case includes its invocation number, so the cases of one parameterized test spread over the shards.
+ * Test classes and parameterized test containers run everywhere; {@link ShardedSweep} tests run on every shard.
+ * <p>
+ * Tests left to other shards are reported as skipped with a reason starting with {@link #SKIPPED_PREFIX};
+ * {@link AllureResultsMerger} drops these results when it merges the shards' Allure results. A sweep gets the shard
+ * as an Allure parameter and its own history ID, so the merged report shows one result per shard rather than
+ * taking the other shards' results for retries.
+ */
+public class ShardCondition implements ExecutionCondition, BeforeEachCallback {
+    static final String SKIPPED_PREFIX = "Runs on shard ";
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!Shard.isSharded() || context.getTestMethod().isEmpty() || isTemplateContainer(context)
+                || AnnotationSupport.isAnnotated(context.getTestMethod(), ShardedSweep.class)) {
+            return ConditionEvaluationResult.enabled("Not sharded");
+        }
+        int owner = Shard.ownerOf(context.getUniqueId().hashCode());
+        return owner == Shard.index()
+                ? ConditionEvaluationResult.enabled("Owned by shard " + owner)
+                : ConditionEvaluationResult.disabled(SKIPPED_PREFIX + owner + " of " + Shard.count());
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (Shard.isSharded() && AnnotationSupport.isAnnotated(context.getTestMethod(), ShardedSweep.class)) {
+            String shard = Shard.index() + " of " + Shard.count();
+            Allure.parameter("shard", shard);
+            Allure.getLifecycle().updateTestCase(result -> result.setHistoryId(
+                    ResultsUtils.md5(context.getUniqueId() + " shard " + shard)));
+        }
+    }
+
+    // "[...]/[method:...]/[test-template:testX(java.lang.String)]" is the container of "[...]/[test-template-invocation:#1]"
+    private static boolean isTemplateContainer(ExtensionContext context) {
+        String uniqueId = context.getUniqueId();
+        return uniqueId.startsWith("[test-template:", uniqueId.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.qa.challenge.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that runs on every shard and checks only that shard's user IDs ({@link Shard#slice}), like the
+ * all-IDs sweep. Other tests run on the one shard that owns them (see {@link ShardCondition}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardedSweep {
+}
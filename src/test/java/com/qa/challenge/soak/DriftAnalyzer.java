@@ -0,0 +1,135 @@
+package com.qa.challenge.soak;
+
+
+import com.qa.challenge.utils.LatencySummary;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the end of a soak run with its start and sets the verdict of the {@link SoakReport}.
+ * <p>
+ * The first window is left out: it holds class loading, JIT compilation and the connection pool filling up.
+ * So is a final window shorter than half the window length. Latency, thread and file-descriptor drift compare
+ * the median of the first {@code baselineWindows} remaining windows with the median of the last ones; medians
+ * keep one slow window from deciding the verdict. Heap growth is a least-squares slope over all remaining windows.
+ */
+final class DriftAnalyzer {
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private DriftAnalyzer() {
+    }
+
+    static void analyze(List<SoakWindow> allWindows, SoakConfig config, SoakReport report) {
+        List<SoakWindow> windows = allWindows.stream()
+                .skip(1)
+                .filter(window -> window.getEndSeconds() - window.getStartSeconds() >= config.getWindowSeconds() / 2.0)
+                .collect(Collectors.toList());
+        int n = config.getBaselineWindows();
+        if (windows.size() < 2 * n) {
+            report.setVerdict(SoakReport.Verdict.INCONCLUSIVE);
+            report.getFindings().add("Only " + windows.size() + " full windows after the first; drift needs at least "
+                    + 2 * n + " (soak.durationSeconds / soak.windowSeconds)");
+            return;
+        }
+        List<SoakWindow> baseline = windows.subList(0, n);
+        List<SoakWindow> recent = windows.subList(windows.size() - n, windows.size());
+
+        Set<String> endpoints = new TreeSet<>();
+        baseline.forEach(window -> endpoints.addAll(window.getEndpoints().keySet()));
+        for (String endpoint : endpoints) {
+            double before = medianP99(baseline, endpoint);
+            double after = medianP99(recent, endpoint);
+            if (Double.isNaN(before) || Double.isNaN(after) || before <= 0) {
+                continue;
+            }
+            double drift = after / before;
+            report.getLatencyDrift().put(endpoint, drift);
+            if (drift > config.getMaxLatencyDrift() && after - before > config.getMinLatencyDriftMillis()) {
+                report.getFindings().add(String.format("p99 of %s drifted from %.1f ms to %.1f ms (x%.2f, limit x%.2f)",
+                        endpoint, before, after, drift, config.getMaxLatencyDrift()));
+            }
+        }
+
+        double heapGrowth = slopePerHour(windows) / BYTES_PER_MB;
+        report.setHeapGrowthMbPerHour(heapGrowth);
+        if (heapGrowth > config.getMaxHeapGrowthMbPerHour()) {
+            report.getFindings().add(String.format("Heap used after GC grows %.1f MB/hour (limit %.1f)",
+                    heapGrowth, config.getMaxHeapGrowthMbPerHour()));
+        }
+
+        int threadGrowth = (int) Math.round(median(recent, SoakWindow::getThreadCount)
+                - median(baseline, SoakWindow::getThreadCount));
+        report.setThreadGrowth(threadGrowth);
+        if (threadGrowth > config.getMaxThreadGrowth()) {
+            report.getFindings().add("Live threads grew by " + threadGrowth + " (limit " + config.getMaxThreadGrowth() + ")");
+        }
+
+        if (windows.stream().allMatch(window -> window.getOpenFileDescriptors() >= 0)) {
+            long fdGrowth = Math.round(median(recent, SoakWindow::getOpenFileDescriptors)
+                    - median(baseline, SoakWindow::getOpenFileDescriptors));
+            report.setFileDescriptorGrowth(fdGrowth);
+            if (fdGrowth > config.getMaxFileDescriptorGrowth()) {
+                report.getFindings().add("Open file descriptors grew by " + fdGrowth
+                        + " (limit " + config.getMaxFileDescriptorGrowth() + ")");
+            }
+        }
+
+        double failureRateIncrease = failureRate(recent) - failureRate(baseline);
+        report.setFailureRateIncrease(failureRateIncrease);
+        if (failureRateIncrease > config.getMaxFailureRateIncrease()) {
+            report.getFindings().add(String.format("Share of failed tests rose from %.1f%% to %.1f%% (limit +%.1f%%)",
+                    failureRate(baseline) * 100, failureRate(recent) * 100, config.getMaxFailureRateIncrease() * 100));
+        }
+
+        report.setVerdict(report.getFindings().isEmpty() ? SoakReport.Verdict.PASS : SoakReport.Verdict.FAIL);
+    }
+
+    private static double medianP99(List<SoakWindow> windows, String endpoint) {
+        return median(windows.stream()
+                .map(window -> window.getEndpoints().get(endpoint))
+                .filter(summary -> summary != null && summary.getCount() > 0)
+                .mapToDouble(LatencySummary::getP99Ms)
+                .toArray());
+    }
+
+    private static double median(List<SoakWindow> windows, ToDoubleFunction<SoakWindow> value) {
+        return median(windows.stream().mapToDouble(value).toArray());
+    }
+
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    // Least-squares slope of the heap samples against the window end times, in bytes per hour
+    private static double slopePerHour(List<SoakWindow> windows) {
+        int count = windows.size();
+        if (count < 2) {
+            return 0;
+        }
+        double meanX = windows.stream().mapToDouble(SoakWindow::getEndSeconds).average().orElse(0);
+        double meanY = windows.stream().mapToDouble(SoakWindow::getHeapUsedBytes).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (SoakWindow window : windows) {
+            double dx = window.getEndSeconds() - meanX;
+            covariance += dx * (window.getHeapUsedBytes() - meanY);
+            variance += dx * dx;
+        }
+        return variance == 0 ? 0 : covariance / variance * 3600;
+    }
+
+    private static double failureRate(List<SoakWindow> windows) {
+        long run = windows.stream().mapToLong(SoakWindow::getTestsRun).sum();
+        long failed = windows.stream().mapToLong(SoakWindow::getTestsFailed).sum();
+        return run == 0 ? 0 : (double) failed / run;
+    }
+}
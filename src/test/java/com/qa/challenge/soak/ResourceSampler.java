@@ -0,0 +1,32 @@
+package com.qa.challenge.soak;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+
+/**
+ * Samples the client JVM: heap in use, live threads and open file descriptors. A leak in the HTTP client,
+ * the Allure attachment buffers or logging shows up as one of them growing from window to window.
+ */
+final class ResourceSampler {
+    private final boolean gcBeforeSample;
+
+    ResourceSampler(boolean gcBeforeSample) {
+        this.gcBeforeSample = gcBeforeSample;
+    }
+
+    void sample(SoakWindow window) {
+        if (gcBeforeSample) {
+            // Without a GC the heap sample is mostly garbage waiting to be collected, and says nothing about leaks
+            System.gc();
+        }
+        window.setHeapUsedBytes(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        window.setThreadCount(ManagementFactory.getThreadMXBean().getThreadCount());
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        // Each pooled connection holds a socket, so leaked connections show up here
+        window.setOpenFileDescriptors(os instanceof UnixOperatingSystemMXBean
+                ? ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount()
+                : -1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.qa.challenge.soak;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Settings for {@link SoakRunner}. Use the builder in code, or {@link #fromSystemProperties()}
+ * to configure a run from the command line.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class SoakConfig {
+    private static final String TESTS_PACKAGE = "com.qa.challenge.tests.";
+
+    // Test classes run over and over, fully qualified
+    @Singular
+    private final List<String> scenarios;
+    @Builder.Default
+    private final long durationSeconds = 3600;
+    // Latency percentiles, test counts and resource samples are reported per window
+    @Builder.Default
+    private final int windowSeconds = 60;
+    // Pause between two runs of the scenarios
+    @Builder.Default
+    private final long pauseMillis = 1000;
+    // Drift compares the median of the first N windows (after the warm-up window) with the median of the last N
+    @Builder.Default
+    private final int baselineWindows = 3;
+    // Recent p99 may be at most this many times the baseline p99 ...
+    @Builder.Default
+    private final double maxLatencyDrift = 1.5;
+    // ... or at most this many milliseconds above it, so a 2 ms -> 4 ms change is not a finding
+    @Builder.Default
+    private final double minLatencyDriftMillis = 50;
+    // Growth of the heap used after GC, fitted over all windows but the warm-up window
+    @Builder.Default
+    private final double maxHeapGrowthMbPerHour = 64;
+    @Builder.Default
+    private final int maxThreadGrowth = 10;
+    @Builder.Default
+    private final int maxFileDescriptorGrowth = 50;
+    // Recent share of failed tests may be at most this much above the baseline share
+    @Builder.Default
+    private final double maxFailureRateIncrease = 0.05;
+    // Run a GC before each heap sample, so the samples show live data rather than garbage
+    @Builder.Default
+    private final boolean gcBeforeSample = true;
+    // Where the scenarios' Allure results go; null discards them, so hours of runs do not fill the disk
+    private final String allureResultsDirectory;
+
+    public static SoakConfig fromSystemProperties() {
+        return SoakConfig.builder()
+                .scenarios(Arrays.stream(System.getProperty("soak.scenarios", "UserApiTest,UsersListApiTest").split(","))
+                        .map(String::trim)
+                        .filter(s -> !s.isEmpty())
+                        .map(name -> name.contains(".") ? name : TESTS_PACKAGE + name)
+                        .collect(Collectors.toList()))
+                .durationSeconds(Long.getLong("soak.durationSeconds", 3600))
+                .windowSeconds(Integer.getInteger("soak.windowSeconds", 60))
+                .pauseMillis(Long.getLong("soak.pauseMillis", 1000))
+                .baselineWindows(Integer.getInteger("soak.baselineWindows", 3))
+                .maxLatencyDrift(Double.parseDouble(System.getProperty("soak.maxLatencyDrift", "1.5")))
+                .minLatencyDriftMillis(Double.parseDouble(System.getProperty("soak.minLatencyDriftMillis", "50")))
+                .maxHeapGrowthMbPerHour(Double.parseDouble(System.getProperty("soak.maxHeapGrowthMbPerHour", "64")))
+                .maxThreadGrowth(Integer.getInteger("soak.maxThreadGrowth", 10))
+                .maxFileDescriptorGrowth(Integer.getInteger("soak.maxFileDescriptorGrowth", 50))
+                .maxFailureRateIncrease(Double.parseDouble(System.getProperty("soak.maxFailureRateIncrease", "0.05")))
+                .gcBeforeSample(Boolean.parseBoolean(System.getProperty("soak.gcBeforeSample", "true")))
+                .allureResultsDirectory(System.getProperty("soak.allureResults"))
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.qa.challenge.soak;
+
+import com.qa.challenge.utils.RunListener;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nested {@link RunListener} for the scenario runs inside a soak: it tags requests with the running test and counts
+ * finished and failed tests per window. The run-wide summary, the cassette and the deadline budgets are left to the
+ * outer test run, instead of being restarted, written and closed with every scenario run.
+ */
+class SoakListener extends RunListener {
+    private final AtomicLong testsRun = new AtomicLong();
+    private final AtomicLong testsFailed = new AtomicLong();
+
+    SoakListener() {
+        super(true);
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        super.executionFinished(testIdentifier, testExecutionResult);
+        if (testIdentifier.isTest()) {
+            testsRun.incrementAndGet();
+            if (testExecutionResult.getStatus() == TestExecutionResult.Status.FAILED) {
+                testsFailed.incrementAndGet();
+            }
+        }
+    }
+
+    // Tests finished since the last call
+    long takeTestsRun() {
+        return testsRun.getAndSet(0);
+    }
+
+    long takeTestsFailed() {
+        return testsFailed.getAndSet(0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.qa.challenge.soak;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of one soak run, written as JSON. The same windows are written as CSV while the run goes on.
+ */
+@Data
+public class SoakReport {
+    public enum Verdict {
+        PASS,
+        FAIL,
+        // Too few windows to compare a baseline with recent behaviour
+        INCONCLUSIVE
+    }
+
+    private String baseUrl;
+    private List<String> scenarios = new ArrayList<>();
+    private long durationSeconds;
+    private int windowSeconds;
+    private int cycles;
+    private Verdict verdict;
+    // One line per threshold exceeded
+    private List<String> findings = new ArrayList<>();
+    // Per endpoint template: median p99 of the last windows divided by that of the first windows
+    private Map<String, Double> latencyDrift = new TreeMap<>();
+    private double heapGrowthMbPerHour;
+    private int threadGrowth;
+    private long fileDescriptorGrowth;
+    private double failureRateIncrease;
+    private List<SoakWindow> windows = new ArrayList<>();
+}
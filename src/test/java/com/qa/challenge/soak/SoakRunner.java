@@ -0,0 +1,237 @@
+package com.qa.challenge.soak;
+
+import com.qa.challenge.utils.LatencyRecorder;
+import com.qa.challenge.utils.LatencySummary;
+import com.qa.challenge.utils.TestConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.junitplatform.AllureJunitPlatform;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.HdrHistogram.Histogram;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TagFilter;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the existing test classes over and over for a set time and watches the client for drift.
+ * <p>
+ * The scenarios run through a nested JUnit launcher, so the real tests, with their Allure steps, attachments and
+ * logging, are what is soaked. Their Allure results go to a lifecycle of their own, discarded by default.
+ * Every {@code windowSeconds} a window is closed: latency percentiles per endpoint come from the
+ * difference between two snapshots of {@link LatencyRecorder}, and the heap (after a GC), live threads and open
+ * file descriptors of this JVM are sampled. Each window is appended to a CSV file at once, so a run that is
+ * stopped early still leaves its time series. At the end {@link DriftAnalyzer} gives the verdict.
+ */
+public class SoakRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SoakRunner.class);
+    // Tags that must not be cycled: they set their own load or run for a long time
+    private static final String[] EXCLUDED_TAGS = {"load", "fuzz", "soak"};
+    private static final String CSV_HEADER = "window,startSeconds,endSeconds,cycles,testsRun,testsFailed,"
+            + "heapUsedMb,threads,openFileDescriptors,endpoint,requests,errors,p50Ms,p90Ms,p99Ms,maxMs";
+
+    private final SoakConfig config;
+    private final Path timeSeriesFile;
+    private final ResourceSampler sampler;
+    private final SoakListener listener = new SoakListener();
+    private final AtomicInteger cyclesInWindow = new AtomicInteger();
+    // Guarded by this
+    private final List<SoakWindow> windows = new ArrayList<>();
+    private Map<String, Histogram> previousWallTime;
+    private Map<String, Long> previousErrors;
+    private long start;
+    private long windowStart;
+
+    public SoakRunner(SoakConfig config, Path timeSeriesFile) {
+        if (config.getScenarios().isEmpty()) {
+            throw new IllegalArgumentException("At least one scenario class is needed");
+        }
+        this.config = config;
+        this.timeSeriesFile = timeSeriesFile;
+        this.sampler = new ResourceSampler(config.isGcBeforeSample());
+    }
+
+    public SoakReport run() throws IOException {
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(config.getScenarios().stream().map(DiscoverySelectors::selectClass).collect(Collectors.toList()))
+                .filters(TagFilter.excludeTags(EXCLUDED_TAGS))
+                .build();
+        AllureLifecycle scenarioLifecycle = new AllureLifecycle(config.getAllureResultsDirectory() == null
+                ? new DiscardingResultsWriter()
+                : new FileSystemResultsWriter(Paths.get(config.getAllureResultsDirectory())));
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                // The registered RunListener would write the run summary and close the cassette after every cycle
+                .enableTestExecutionListenerAutoRegistration(false)
+                .addTestExecutionListeners(listener, new AllureJunitPlatform(scenarioLifecycle))
+                .build());
+
+        Files.createDirectories(timeSeriesFile.toAbsolutePath().getParent());
+        Files.writeString(timeSeriesFile, CSV_HEADER + "\n");
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soak-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The scenarios' steps and attachments would otherwise pile up in the result of the test running the soak
+        AllureLifecycle outerLifecycle = Allure.getLifecycle();
+        Allure.setLifecycle(scenarioLifecycle);
+        int cycles = 0;
+        synchronized (this) {
+            start = System.nanoTime();
+            windowStart = start;
+            previousWallTime = LatencyRecorder.wallTimeByEndpoint();
+            previousErrors = LatencyRecorder.errorsByEndpoint();
+        }
+        long end = start + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        logger.info("Starting soak of {} for {} s in {} s windows against {}", config.getScenarios(),
+                config.getDurationSeconds(), config.getWindowSeconds(), TestConfig.BASE_URL);
+        try {
+            scheduler.scheduleAtFixedRate(this::closeWindowQuietly, config.getWindowSeconds(),
+                    config.getWindowSeconds(), TimeUnit.SECONDS);
+            // A cycle that starts just before the end runs to completion; it lands in the last window
+            while (System.nanoTime() < end) {
+                launcher.execute(request);
+                cycles++;
+                cyclesInWindow.incrementAndGet();
+                long pauseUntil = Math.min(end, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getPauseMillis()));
+                while (System.nanoTime() < pauseUntil) {
+                    LockSupport.parkNanos(pauseUntil - System.nanoTime());
+                }
+            }
+        } finally {
+            // Cancels the periodic task but lets a window being closed finish
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Allure.setLifecycle(outerLifecycle);
+        }
+        closeWindow();
+
+        SoakReport report = new SoakReport();
+        report.setBaseUrl(TestConfig.BASE_URL);
+        report.setScenarios(config.getScenarios());
+        report.setDurationSeconds(config.getDurationSeconds());
+        report.setWindowSeconds(config.getWindowSeconds());
+        report.setCycles(cycles);
+        synchronized (this) {
+            report.setWindows(new ArrayList<>(windows));
+        }
+        DriftAnalyzer.analyze(report.getWindows(), config, report);
+        logger.info("Soak finished after {} cycles in {} windows: {} {}", cycles, report.getWindows().size(),
+                report.getVerdict(), report.getFindings());
+        return report;
+    }
+
+    private void closeWindowQuietly() {
+        try {
+            closeWindow();
+        } catch (IOException | RuntimeException e) {
+            // An exception would cancel the periodic task and end the time series
+            logger.warn("Could not close soak window", e);
+        }
+    }
+
+    private synchronized void closeWindow() throws IOException {
+        long now = System.nanoTime();
+        SoakWindow window = new SoakWindow();
+        window.setIndex(windows.size());
+        window.setStartSeconds(seconds(windowStart - start));
+        window.setEndSeconds(seconds(now - start));
+        window.setCycles(cyclesInWindow.getAndSet(0));
+        window.setTestsRun(listener.takeTestsRun());
+        window.setTestsFailed(listener.takeTestsFailed());
+
+        Map<String, Histogram> wallTime = LatencyRecorder.wallTimeByEndpoint();
+        Map<String, Long> errors = LatencyRecorder.errorsByEndpoint();
+        wallTime.forEach((endpoint, histogram) -> {
+            Histogram inWindow = histogram.copy();
+            Histogram before = previousWallTime.get(endpoint);
+            if (before != null) {
+                inWindow.subtract(before);
+            }
+            if (inWindow.getTotalCount() > 0) {
+                long windowErrors = errors.getOrDefault(endpoint, 0L) - previousErrors.getOrDefault(endpoint, 0L);
+                window.getEndpoints().put(endpoint, LatencySummary.from(inWindow, windowErrors));
+            }
+        });
+        previousWallTime = wallTime;
+        previousErrors = errors;
+        sampler.sample(window);
+        windowStart = now;
+
+        windows.add(window);
+        Files.writeString(timeSeriesFile, toCsv(window), StandardOpenOption.APPEND);
+        logger.info("Soak window {} ({}-{} s): {} cycles, {} tests ({} failed), heap {} MB, {} threads, {} fds, {}",
+                window.getIndex(), Math.round(window.getStartSeconds()), Math.round(window.getEndSeconds()),
+                window.getCycles(), window.getTestsRun(), window.getTestsFailed(), window.getHeapUsedBytes() >> 20,
+                window.getThreadCount(), window.getOpenFileDescriptors(), window.getEndpoints());
+    }
+
+    // One row per endpoint, so the file loads straight into a spreadsheet or pandas
+    private static String toCsv(SoakWindow window) {
+        String common = String.format(Locale.ROOT, "%d,%.1f,%.1f,%d,%d,%d,%.1f,%d,%d", window.getIndex(),
+                window.getStartSeconds(), window.getEndSeconds(), window.getCycles(), window.getTestsRun(),
+                window.getTestsFailed(), window.getHeapUsedBytes() / (1024.0 * 1024.0), window.getThreadCount(),
+                window.getOpenFileDescriptors());
+        if (window.getEndpoints().isEmpty()) {
+            return common + ",,,,,,,\n";
+        }
+        StringBuilder rows = new StringBuilder();
+        window.getEndpoints().forEach((endpoint, summary) -> rows.append(common)
+                .append(String.format(Locale.ROOT, ",%s,%d,%d,%.2f,%.2f,%.2f,%.2f\n", endpoint, summary.getCount(),
+                        summary.getErrors(), summary.getP50Ms(), summary.getP90Ms(), summary.getP99Ms(), summary.getMaxMs())));
+        return rows.toString();
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static final class DiscardingResultsWriter implements AllureResultsWriter {
+        @Override
+        public void write(TestResult testResult) {
+        }
+
+        @Override
+        public void write(TestResultContainer testResultContainer) {
+        }
+
+        @Override
+        public void write(String source, InputStream attachment) {
+            try {
+                attachment.close();
+            } catch (IOException e) {
+                logger.debug("Could not close discarded attachment {}", source, e);
+            }
+        }
+    }
+}
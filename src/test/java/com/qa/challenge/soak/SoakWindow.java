@@ -0,0 +1,28 @@
+package com.qa.challenge.soak;
+
+import com.qa.challenge.utils.LatencySummary;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What happened in one time window of a soak run, plus the client JVM's resources at its end.
+ */
+@Data
+public class SoakWindow {
+    private int index;
+    // Seconds since the soak started
+    private double startSeconds;
+    private double endSeconds;
+    // Scenario runs finished in this window
+    private int cycles;
+    private long testsRun;
+    private long testsFailed;
+    // Per endpoint template, requests recorded in this window only
+    private Map<String, LatencySummary> endpoints = new TreeMap<>();
+    private long heapUsedBytes;
+    private int threadCount;
+    // -1 where the JVM cannot tell
+    private long openFileDescriptors;
+}
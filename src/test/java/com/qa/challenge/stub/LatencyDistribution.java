@@ -0,0 +1,95 @@
+package com.qa.challenge.stub;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Artificial response delay added by the stub server before it answers a request.
+ * <p>
+ * Parsed from a short spec string so it can be passed as a system property:
+ * <ul>
+ *     <li>{@code none} - no delay</li>
+ *     <li>{@code fixed:20} - always 20 ms</li>
+ *     <li>{@code uniform:5:50} - uniformly between 5 and 50 ms</li>
+ *     <li>{@code lognormal:20:0.5} - log-normal with a median of 20 ms and sigma 0.5 (long right tail)</li>
+ * </ul>
+ */
+public abstract class LatencyDistribution {
+
+    public static final LatencyDistribution NONE = fixed(0);
+
+    /**
+     * Returns the next delay in microseconds.
+     */
+    public abstract long nextDelayMicros();
+
+    public static LatencyDistribution fixed(double millis) {
+        long micros = Math.round(millis * 1000);
+        return new LatencyDistribution() {
+            @Override
+            public long nextDelayMicros() {
+                return micros;
+            }
+
+            @Override
+            public String toString() {
+                return "fixed:" + millis;
+            }
+        };
+    }
+
+    public static LatencyDistribution uniform(double minMillis, double maxMillis) {
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException("Max latency must not be below min latency: " + minMillis + " > " + maxMillis);
+        }
+        return new LatencyDistribution() {
+            @Override
+            public long nextDelayMicros() {
+                double millis = minMillis + ThreadLocalRandom.current().nextDouble() * (maxMillis - minMillis);
+                return Math.round(millis * 1000);
+            }
+
+            @Override
+            public String toString() {
+                return "uniform:" + minMillis + ":" + maxMillis;
+            }
+        };
+    }
+
+    public static LatencyDistribution logNormal(double medianMillis, double sigma) {
+        double mu = Math.log(medianMillis);
+        return new LatencyDistribution() {
+            @Override
+            public long nextDelayMicros() {
+                double millis = Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+                return Math.round(millis * 1000);
+            }
+
+            @Override
+            public String toString() {
+                return "lognormal:" + medianMillis + ":" + sigma;
+            }
+        };
+    }
+
+    public static LatencyDistribution parse(String spec) {
+        if (spec == null || spec.isBlank() || spec.equalsIgnoreCase("none")) {
+            return NONE;
+        }
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0].toLowerCase(Locale.ROOT)) {
+                case "fixed":
+                    return fixed(Double.parseDouble(parts[1]));
+                case "uniform":
+                    return uniform(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal":
+                    return logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + spec, e);
+        }
+    }
+}
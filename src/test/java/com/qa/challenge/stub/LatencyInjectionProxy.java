@@ -0,0 +1,229 @@
+package com.qa.challenge.stub;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local TCP proxy that injects network faults between the client and a plain-HTTP server, usually a
+ * {@link StubUserServer}, so client timeouts and deadlines can be tested offline.
+ * <p>
+ * Bytes are forwarded as they are; the proxy does not parse HTTP. The current {@link ProxyFault} is read for every
+ * piece of data that passes, so changing it with {@link #setFault} also affects connections already kept alive
+ * in the client's pool. TLS targets such as the live API cannot be proxied this way, since the client would speak
+ * plain HTTP to the proxy.
+ */
+public class LatencyInjectionProxy implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(LatencyInjectionProxy.class);
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int BUFFER_SIZE = 8192;
+
+    private static LatencyInjectionProxy shared;
+
+    private final InetSocketAddress upstream;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong forwardedRequestBytes = new AtomicLong();
+    private volatile ProxyFault fault;
+
+    private LatencyInjectionProxy(InetSocketAddress upstream, ProxyFault fault) throws IOException {
+        this.upstream = upstream;
+        this.fault = fault;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        // Two blocking pumps per connection, each of which may sleep to inject a fault
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "latency-proxy-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a proxy on a free loopback port in front of {@code upstreamBaseUrl}, e.g. {@code http://127.0.0.1:8080}.
+     */
+    public static LatencyInjectionProxy start(String upstreamBaseUrl, ProxyFault fault) {
+        URI uri = URI.create(upstreamBaseUrl);
+        if (!"http".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("Only plain-HTTP targets can be proxied, got: " + upstreamBaseUrl);
+        }
+        try {
+            LatencyInjectionProxy proxy = new LatencyInjectionProxy(
+                    new InetSocketAddress(uri.getHost(), uri.getPort() > 0 ? uri.getPort() : 80), fault);
+            proxy.executor.execute(proxy::acceptLoop);
+            logger.info("Latency injection proxy started at {} for {} with fault {}", proxy.getBaseUrl(),
+                    upstreamBaseUrl, fault);
+            return proxy;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start latency injection proxy", e);
+        }
+    }
+
+    /**
+     * Returns the JVM-wide proxy used with {@code -Dproxy.fault}, starting it on first use.
+     */
+    public static synchronized LatencyInjectionProxy shared(String upstreamBaseUrl, ProxyFault fault) {
+        if (shared == null) {
+            LatencyInjectionProxy proxy = start(upstreamBaseUrl, fault);
+            Runtime.getRuntime().addShutdownHook(new Thread(proxy::close));
+            shared = proxy;
+        }
+        return shared;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    public ProxyFault getFault() {
+        return fault;
+    }
+
+    public void setFault(ProxyFault fault) {
+        this.fault = fault;
+    }
+
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Request bytes passed on to the server; a stalled or reset request never gets there.
+     */
+    public long getForwardedRequestBytes() {
+        return forwardedRequestBytes.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Could not close the proxy's server socket", e);
+        }
+        openSockets.forEach(LatencyInjectionProxy::closeQuietly);
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                connections.incrementAndGet();
+                executor.execute(() -> serve(client));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Latency injection proxy could not accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        openSockets.add(client);
+        Socket server = new Socket();
+        openSockets.add(server);
+        try {
+            client.setTcpNoDelay(true);
+            server.setTcpNoDelay(true);
+            server.connect(upstream, CONNECT_TIMEOUT_MILLIS);
+        } catch (IOException e) {
+            logger.warn("Latency injection proxy could not connect to {}", upstream, e);
+            close(client, server);
+            return;
+        }
+        AtomicBoolean responseDue = new AtomicBoolean();
+        executor.execute(() -> pumpResponses(server, client, responseDue));
+        pumpRequests(client, server, responseDue);
+    }
+
+    private void pumpRequests(Socket client, Socket server, AtomicBoolean responseDue) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = client.getInputStream(); OutputStream out = server.getOutputStream()) {
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                ProxyFault current = fault;
+                if (current.getKind() == ProxyFault.Kind.RESET) {
+                    // Linger 0 makes close() send a RST instead of a FIN
+                    client.setSoLinger(true, 0);
+                    break;
+                }
+                if (current.getKind() == ProxyFault.Kind.STALL) {
+                    // Swallowed: the server never sees the request, the client waits for an answer that never comes
+                    continue;
+                }
+                responseDue.set(true);
+                out.write(buffer, 0, n);
+                out.flush();
+                forwardedRequestBytes.addAndGet(n);
+            }
+        } catch (IOException e) {
+            logger.debug("Proxied request stream ended", e);
+        } finally {
+            close(client, server);
+        }
+    }
+
+    private void pumpResponses(Socket server, Socket client, AtomicBoolean responseDue) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = server.getInputStream(); OutputStream out = client.getOutputStream()) {
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                ProxyFault current = fault;
+                if (current.getKind() == ProxyFault.Kind.LATENCY && responseDue.getAndSet(false)) {
+                    // Only the first piece of each response is late, like a slow server rather than a slow link
+                    Thread.sleep(current.getMillis());
+                }
+                if (current.getKind() == ProxyFault.Kind.DRIP) {
+                    for (int offset = 0; offset < n; offset += current.getBytes()) {
+                        out.write(buffer, offset, Math.min(current.getBytes(), n - offset));
+                        out.flush();
+                        Thread.sleep(current.getMillis());
+                    }
+                } else {
+                    out.write(buffer, 0, n);
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Proxied response stream ended", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(client, server);
+        }
+    }
+
+    private void close(Socket client, Socket server) {
+        closeQuietly(client);
+        closeQuietly(server);
+        openSockets.remove(client);
+        openSockets.remove(server);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.debug("Could not close a proxied socket", e);
+        }
+    }
+}
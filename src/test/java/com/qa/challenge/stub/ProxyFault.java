@@ -0,0 +1,102 @@
+package com.qa.challenge.stub;
+
+import java.util.Locale;
+
+/**
+ * Network fault injected by {@link LatencyInjectionProxy}.
+ * <p>
+ * Parsed from a short spec string so it can be passed as a system property:
+ * <ul>
+ *     <li>{@code none} - bytes pass through unchanged</li>
+ *     <li>{@code latency:200} - each response starts 200 ms late</li>
+ *     <li>{@code stall} - requests are accepted but never forwarded, so no answer ever comes</li>
+ *     <li>{@code drip:16:100} - responses trickle in, 16 bytes every 100 ms</li>
+ *     <li>{@code reset} - the connection is reset (TCP RST) as soon as a request arrives</li>
+ * </ul>
+ */
+public final class ProxyFault {
+
+    public enum Kind {
+        NONE, LATENCY, STALL, DRIP, RESET
+    }
+
+    public static final ProxyFault NONE = new ProxyFault(Kind.NONE, 0, 0);
+
+    private final Kind kind;
+    // Latency: delay in ms; drip: pause between two pieces in ms
+    private final long millis;
+    // Drip: bytes per piece
+    private final int bytes;
+
+    private ProxyFault(Kind kind, long millis, int bytes) {
+        this.kind = kind;
+        this.millis = millis;
+        this.bytes = bytes;
+    }
+
+    public static ProxyFault latency(long millis) {
+        return new ProxyFault(Kind.LATENCY, millis, 0);
+    }
+
+    public static ProxyFault stall() {
+        return new ProxyFault(Kind.STALL, 0, 0);
+    }
+
+    public static ProxyFault drip(int bytes, long intervalMillis) {
+        if (bytes < 1) {
+            throw new IllegalArgumentException("Drip needs at least 1 byte per piece, got: " + bytes);
+        }
+        return new ProxyFault(Kind.DRIP, intervalMillis, bytes);
+    }
+
+    public static ProxyFault reset() {
+        return new ProxyFault(Kind.RESET, 0, 0);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public int getBytes() {
+        return bytes;
+    }
+
+    public static ProxyFault parse(String spec) {
+        if (spec == null || spec.isBlank() || spec.equalsIgnoreCase("none")) {
+            return NONE;
+        }
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0].toLowerCase(Locale.ROOT)) {
+                case "latency":
+                    return latency(Long.parseLong(parts[1]));
+                case "stall":
+                    return stall();
+                case "drip":
+                    return drip(Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+                case "reset":
+                    return reset();
+                default:
+                    throw new IllegalArgumentException("Unknown proxy fault: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid proxy fault: " + spec, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case LATENCY:
+                return "latency:" + millis;
+            case DRIP:
+                return "drip:" + bytes + ":" + millis;
+            default:
+                return kind.name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
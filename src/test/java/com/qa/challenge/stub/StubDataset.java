@@ -0,0 +1,77 @@
+package com.qa.challenge.stub;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic, deterministic user base for the stub server.
+ * <p>
+ * Users are not stored: every field is derived from the user ID and the seed, so a dataset of
+ * millions of users costs no memory and the same seed always produces the same data.
+ * User IDs run from 1 to {@code size}.
+ */
+public class StubDataset {
+    static final String[] GENDERS = {"male", "female", "magic", "McCloud"};
+    private static final String[] NAMES = {"Alex", "Maria", "Ivan", "Olga", "John", "Anna", "Peter", "Elena", "Max", "Sofia"};
+    private static final String[] CITIES = {"Moscow", "Berlin", "Paris", "London", "Madrid", "Rome", "Vienna", "Prague"};
+    private static final LocalDateTime FIRST_REGISTRATION = LocalDateTime.of(2015, 1, 1, 0, 0);
+    // Same format as the live API, e.g. 2017-09-04T06:28:42.694
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private final int size;
+    private final long seed;
+
+    public StubDataset(int size, long seed) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Dataset size must not be negative: " + size);
+        }
+        this.size = size;
+        this.seed = seed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean exists(long id) {
+        return id >= 1 && id <= size;
+    }
+
+    public String genderOf(int id) {
+        // Most users are male or female, a few use the other documented values
+        int bucket = (int) Math.floorMod(mix(seed ^ id), 100L);
+        if (bucket < 45) {
+            return GENDERS[0];
+        } else if (bucket < 90) {
+            return GENDERS[1];
+        } else if (bucket < 95) {
+            return GENDERS[2];
+        }
+        return GENDERS[3];
+    }
+
+    /**
+     * Writes the user as JSON in the same shape the real API uses for the {@code user} field.
+     */
+    public void appendUserJson(int id, StringBuilder out) {
+        SplittableRandom random = new SplittableRandom(mix(seed * 31 + id));
+        LocalDateTime registrationDate = FIRST_REGISTRATION
+                .plusSeconds(random.nextLong(3L * 365 * 24 * 3600))
+                .plusNanos(random.nextInt(1000) * 1_000_000L);
+        out.append("{\"id\":").append(id)
+                .append(",\"name\":\"").append(NAMES[random.nextInt(NAMES.length)]).append(' ').append(id).append('"')
+                .append(",\"gender\":\"").append(genderOf(id)).append('"')
+                .append(",\"age\":").append(18 + random.nextInt(60))
+                .append(",\"city\":\"").append(CITIES[random.nextInt(CITIES.length)]).append('"')
+                .append(",\"registrationDate\":\"").append(DATE_FORMAT.format(registrationDate)).append('"')
+                .append('}');
+    }
+
+    // SplitMix64 finalizer: cheap, well-distributed hash of a long
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
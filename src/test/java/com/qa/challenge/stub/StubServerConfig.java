@@ -0,0 +1,74 @@
+package com.qa.challenge.stub;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Settings for {@link StubUserServer}. Use the builder in code, or {@link #fromSystemProperties()}
+ * to configure the server from the command line.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class StubServerConfig {
+    // 0 picks a free port
+    @Builder.Default
+    private final int port = 0;
+    @Builder.Default
+    private final int datasetSize = 1000;
+    @Builder.Default
+    private final long seed = 42;
+    @Builder.Default
+    private final LatencyDistribution usersLatency = LatencyDistribution.NONE;
+    @Builder.Default
+    private final LatencyDistribution userLatency = LatencyDistribution.NONE;
+    // Requests for these user IDs or genders always get HTTP 500
+    @Singular
+    private final Set<Long> faultyIds;
+    @Singular
+    private final Set<String> faultyGenders;
+    // Details of these user IDs report the gender capitalized ("Male"), while the lists still use the listed value
+    @Singular
+    private final Set<Long> mislabelledIds;
+    // Share of all other requests that randomly get HTTP 500, between 0.0 and 1.0
+    @Builder.Default
+    private final double errorRate = 0.0;
+    // Requests arriving while this many are already being served get HTTP 500, like an overloaded server; 0 = no limit
+    @Builder.Default
+    private final int maxInFlight = 0;
+
+    /**
+     * Reads {@code stub.*} system properties, e.g.
+     * {@code -Dstub.users=1000000 -Dstub.latency.user=lognormal:20:0.5 -Dstub.fault.ids=0,13 -Dstub.fault.genders=magic}.
+     */
+    public static StubServerConfig fromSystemProperties() {
+        return StubServerConfig.builder()
+                .port(Integer.getInteger("stub.port", 0))
+                .datasetSize(Integer.getInteger("stub.users", 1000))
+                .seed(Long.getLong("stub.seed", 42))
+                .usersLatency(LatencyDistribution.parse(System.getProperty("stub.latency.users")))
+                .userLatency(LatencyDistribution.parse(System.getProperty("stub.latency.user")))
+                .faultyIds(splitList(System.getProperty("stub.fault.ids")).stream()
+                        .map(Long::parseLong).collect(Collectors.toSet()))
+                .faultyGenders(splitList(System.getProperty("stub.fault.genders")))
+                .mislabelledIds(splitList(System.getProperty("stub.fault.mislabelledIds")).stream()
+                        .map(Long::parseLong).collect(Collectors.toSet()))
+                .errorRate(Double.parseDouble(System.getProperty("stub.fault.rate", "0.0")))
+                .maxInFlight(Integer.getInteger("stub.fault.maxInFlight", 0))
+                .build();
+    }
+
+    private static Set<String> splitList(String value) {
+        if (value == null || value.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
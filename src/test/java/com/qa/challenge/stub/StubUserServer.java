@@ -0,0 +1,314 @@
+package com.qa.challenge.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the dating app API, built on the JDK HTTP server.
+ * <p>
+ * Serves {@code GET /api/test/users?gender=...} and {@code GET /api/test/user/{id}} with the same JSON
+ * shapes as the live API ({@code UserIdListResponse} and {@code UserResponse}), backed by a synthetic
+ * {@link StubDataset}. Latency and HTTP 500 faults are injected according to {@link StubServerConfig}.
+ * Unlike the live API it validates its input, so known server bugs only show up when injected as faults.
+ * Successful responses carry an {@code ETag} and a matching {@code If-None-Match} is answered with 304,
+ * so conditional revalidation can be exercised offline.
+ */
+public class StubUserServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(StubUserServer.class);
+
+    private static final String USERS_PATH = "/api/test/users";
+    private static final String USER_PATH_PREFIX = "/api/test/user/";
+    private static final Set<String> VALID_GENDERS = Set.of("male", "female", "magic", "McCloud", "any");
+
+    private static StubUserServer shared;
+
+    private final StubServerConfig config;
+    private final StubDataset dataset;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    static {
+        // Without TCP_NODELAY every response waits ~40 ms for a delayed ACK (Nagle), which swamps any injected latency.
+        // The JDK server reads this property once, when its config class is loaded.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private StubUserServer(StubServerConfig config) throws IOException {
+        this.config = config;
+        this.dataset = new StubDataset(config.getDatasetSize(), config.getSeed());
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), config.getPort()), 0);
+
+        // Handlers sleep to simulate latency, so each request needs its own thread
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-server-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(USERS_PATH, this::handle);
+        server.createContext(USER_PATH_PREFIX, this::handle);
+    }
+
+    public static StubUserServer start(StubServerConfig config) {
+        try {
+            StubUserServer stub = new StubUserServer(config);
+            stub.server.start();
+            logger.info("Stub server started at {} with {} users (users latency: {}, user latency: {})",
+                    stub.getBaseUrl(), config.getDatasetSize(), config.getUsersLatency(), config.getUserLatency());
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start stub server", e);
+        }
+    }
+
+    /**
+     * Returns the JVM-wide server configured from {@code stub.*} system properties, starting it on first use.
+     */
+    public static synchronized StubUserServer shared() {
+        if (shared == null) {
+            StubUserServer stub = start(StubServerConfig.fromSystemProperties());
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+            shared = stub;
+        }
+        return shared;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public StubServerConfig getConfig() {
+        return config;
+    }
+
+    public StubDataset getDataset() {
+        return dataset;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        int concurrent = inFlight.incrementAndGet();
+        try {
+            String path = exchange.getRequestURI().getRawPath();
+            if (config.getMaxInFlight() > 0 && concurrent > config.getMaxInFlight()) {
+                sendServerError(exchange);
+            } else if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Method not allowed");
+            } else if (USERS_PATH.equals(path)) {
+                handleUsers(exchange);
+            } else if (path.startsWith(USER_PATH_PREFIX) && path.length() > USER_PATH_PREFIX.length()) {
+                handleUser(exchange, path.substring(USER_PATH_PREFIX.length()));
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void handleUsers(HttpExchange exchange) throws IOException, InterruptedException {
+        delay(config.getUsersLatency());
+        String gender;
+        try {
+            gender = queryParams(exchange.getRequestURI().getRawQuery()).get("gender");
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, "Malformed query string");
+            return;
+        }
+        if (gender == null) {
+            sendError(exchange, 400, "Required parameter 'gender' is missing");
+            return;
+        }
+        if (config.getFaultyGenders().contains(gender) || randomFault()) {
+            sendServerError(exchange);
+            return;
+        }
+        if (!VALID_GENDERS.contains(gender)) {
+            sendError(exchange, 400, "Invalid gender: " + gender);
+            return;
+        }
+
+        // The dataset never changes while the server runs, so the list only depends on the gender
+        String etag = "\"users-" + config.getSeed() + "-" + dataset.size() + "-" + gender + "\"";
+        if (notModified(exchange, etag)) {
+            return;
+        }
+
+        // The list can hold millions of IDs, so it is streamed instead of built in memory
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = new BufferedOutputStream(exchange.getResponseBody(), 64 * 1024)) {
+            out.write("{\"success\":true,\"errorCode\":0,\"errorMessage\":null,\"idList\":[".getBytes(StandardCharsets.US_ASCII));
+            boolean any = "any".equals(gender);
+            boolean first = true;
+            for (int id = 1; id <= dataset.size(); id++) {
+                if (any || gender.equals(dataset.genderOf(id))) {
+                    if (!first) {
+                        out.write(',');
+                    }
+                    writeAsciiInt(out, id);
+                    first = false;
+                }
+            }
+            out.write("]}".getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private void handleUser(HttpExchange exchange, String rawId) throws IOException, InterruptedException {
+        delay(config.getUserLatency());
+        long id;
+        try {
+            id = Long.parseLong(URLDecoder.decode(rawId, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException, or a malformed %-escape
+            sendError(exchange, 400, "User id must be a number: " + rawId);
+            return;
+        }
+        if (config.getFaultyIds().contains(id) || randomFault()) {
+            sendServerError(exchange);
+            return;
+        }
+        if (!dataset.exists(id)) {
+            sendError(exchange, 404, "User not found: " + id);
+            return;
+        }
+
+        boolean mislabelled = config.getMislabelledIds().contains(id);
+        String etag = "\"user-" + config.getSeed() + "-" + id + (mislabelled ? "-m" : "") + "\"";
+        if (notModified(exchange, etag)) {
+            return;
+        }
+
+        StringBuilder body = new StringBuilder(256)
+                .append("{\"success\":true,\"errorCode\":0,\"errorMessage\":null,\"user\":");
+        dataset.appendUserJson((int) id, body);
+        body.append('}');
+        String json = body.toString();
+        if (mislabelled) {
+            // Like BUG-006: the details disagree with the list in capitalization only
+            String gender = dataset.genderOf((int) id);
+            json = json.replace("\"gender\":\"" + gender + "\"",
+                    "\"gender\":\"" + Character.toUpperCase(gender.charAt(0)) + gender.substring(1) + "\"");
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        send(exchange, 200, json);
+    }
+
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        if (!etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            return false;
+        }
+        // HttpServer keeps the connection open after a response without a body only if the request was read to the end
+        exchange.getRequestBody().close();
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return true;
+    }
+
+    private boolean randomFault() {
+        return config.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.getErrorRate();
+    }
+
+    private static void delay(LatencyDistribution latency) throws InterruptedException {
+        long micros = latency.nextDelayMicros();
+        if (micros > 0) {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "{\"success\":false,\"errorCode\":" + status
+                + ",\"errorMessage\":\"" + escape(message) + "\"}");
+    }
+
+    private static void sendServerError(HttpExchange exchange) throws IOException {
+        send(exchange, 500, "{\"timestamp\":\"" + Instant.now() + "\",\"status\":500,"
+                + "\"error\":\"Internal Server Error\",\"path\":\"" + escape(exchange.getRequestURI().getPath()) + "\"}");
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void writeAsciiInt(OutputStream out, int value) throws IOException {
+        // Avoids allocating a String per ID when streaming large lists
+        if (value >= 10) {
+            writeAsciiInt(out, value / 10);
+        }
+        out.write('0' + value % 10);
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
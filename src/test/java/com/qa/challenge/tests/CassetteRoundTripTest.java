@@ -0,0 +1,83 @@
+package com.qa.challenge.tests;
+
+import com.qa.challenge.jfr.JfrPhaseExtension;
+import com.qa.challenge.shard.ShardCondition;
+import com.qa.challenge.stub.StubServerConfig;
+import com.qa.challenge.stub.StubUserServer;
+import com.qa.challenge.utils.Cassette;
+import com.qa.challenge.utils.FailureCaptureExtension;
+import com.qa.challenge.utils.RestClient;
+import com.qa.challenge.utils.TestConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Records exchanges with an in-process stub to a cassette of its own and replays them with the stub stopped.
+ * Runs offline in every mode; the run's cassette ({@code -Dhttp.cassette}) is not involved.
+ */
+@Epic("Dating App API Testing")
+@Feature("Record and Replay")
+@Owner("QA Team")
+@ExtendWith({FailureCaptureExtension.class, ShardCondition.class, JfrPhaseExtension.class})
+public class CassetteRoundTripTest {
+
+    @Test
+    @DisplayName("A conditional request does not overwrite the recorded answer")
+    @Description("Record a user, then a conditional request for it that the stub answers with 304, and verify that " +
+            "the replay answers the plain request with the recorded 200 and the conditional one with the 304")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Cassette replay")
+    void testConditionalRequestReplaysNextToPlainOne(@TempDir Path dir) {
+        Path file = dir.resolve("round-trip.cassette");
+        Map<String, Object> pathParams = Map.of("id", 1);
+
+        Response recorded = Allure.step("Record user 1, then the same request with its ETag", () -> {
+            try (StubUserServer stub = StubUserServer.start(StubServerConfig.builder().datasetSize(10).build());
+                 Cassette cassette = Cassette.open(Cassette.Mode.RECORD, file)) {
+                RestClient client = RestClient.forBaseUrl(stub.getBaseUrl(), cassette);
+                Response plain = client.get(TestConfig.USER_ENDPOINT, pathParams, true);
+                assertEquals(200, plain.getStatusCode(), "Recorded request should succeed");
+                Response conditional = client.getWithHeaders(TestConfig.USER_ENDPOINT, pathParams,
+                        Map.of("If-None-Match", plain.getHeader("ETag")));
+                assertEquals(304, conditional.getStatusCode(), "Stub should answer a matching ETag with 304");
+                return plain;
+            }
+        });
+
+        // The stub is stopped, so anything not answered from the cassette fails
+        Allure.step("Replay both requests, and one with an ETag that was never recorded", () -> {
+            try (Cassette cassette = Cassette.open(Cassette.Mode.REPLAY, file)) {
+                RestClient client = RestClient.forBaseUrl("http://127.0.0.1:9", cassette);
+                Response plain = client.get(TestConfig.USER_ENDPOINT, pathParams, true);
+                Response conditional = client.getWithHeaders(TestConfig.USER_ENDPOINT, pathParams,
+                        Map.of("If-None-Match", recorded.getHeader("ETag")));
+                Response otherTag = client.getWithHeaders(TestConfig.USER_ENDPOINT, pathParams,
+                        Map.of("If-None-Match", "\"not-recorded\""));
+
+                assertAll(
+                        () -> assertEquals(200, plain.getStatusCode(), "Plain request should replay the recorded 200"),
+                        () -> assertEquals(recorded.asString(), plain.asString(), "Replayed body should be the recorded one"),
+                        () -> assertEquals(304, conditional.getStatusCode(), "Conditional request should replay its 304"),
+                        () -> assertEquals(200, otherTag.getStatusCode(),
+                                "Conditional request without a record of its own should replay the 200"),
+                        () -> assertTrue(cassette.misses().isEmpty(), "No request should miss: " + cassette.misses()));
+            }
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package com.qa.challenge.tests;
+
+import com.qa.challenge.jfr.JfrPhaseExtension;
+import com.qa.challenge.shard.ShardCondition;
+import com.qa.challenge.stub.LatencyInjectionProxy;
+import com.qa.challenge.stub.ProxyFault;
+import com.qa.challenge.stub.StubServerConfig;
+import com.qa.challenge.stub.StubUserServer;
+import com.qa.challenge.utils.Deadline;
+import com.qa.challenge.utils.DeadlineExceededException;
+import com.qa.challenge.utils.FailureCaptureExtension;
+import com.qa.challenge.utils.FanOutRunner;
+import com.qa.challenge.utils.RestClient;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Client-side timeouts and deadline budgets, against an in-process stub behind a {@link LatencyInjectionProxy}.
+ * Runs offline in every mode; the live API is not involved.
+ */
+@Epic("Dating App API Testing")
+@Feature("Client Timeouts")
+@Owner("QA Team")
+@ExtendWith({FailureCaptureExtension.class, ShardCondition.class, JfrPhaseExtension.class})
+// The methods share the proxy and its fault, so with -Pparallel they still run one at a time
+@Execution(ExecutionMode.SAME_THREAD)
+// Deadline scopes are opened only to be closed again, never referenced in the try body
+@SuppressWarnings("try")
+public class ClientTimeoutTest {
+    // Timed apart from the real endpoint, so injected faults stay out of its latency figures and the baseline
+    private static final String PROXIED_USER_ENDPOINT = "/api/test/user/{id} (via fault proxy)";
+    private static final Duration BUDGET = Duration.ofMillis(500);
+    // Scheduling slack on top of a budget before a test calls the cut-off late
+    private static final long SLACK_MILLIS = 1500;
+
+    private static StubUserServer stub;
+    private static LatencyInjectionProxy proxy;
+    private static RestClient client;
+
+    @BeforeAll
+    static void startProxy() {
+        stub = StubUserServer.start(StubServerConfig.builder().datasetSize(100).build());
+        proxy = LatencyInjectionProxy.start(stub.getBaseUrl(), ProxyFault.NONE);
+        client = RestClient.forBaseUrl(proxy.getBaseUrl());
+        // The first request of a JVM loads RestAssured, which can take longer than the budgets used here
+        client.getEncoded(PROXIED_USER_ENDPOINT, "/api/test/user/1");
+    }
+
+    @AfterAll
+    static void stopProxy() {
+        proxy.close();
+        stub.close();
+    }
+
+    @BeforeEach
+    void clearFault() {
+        proxy.setFault(ProxyFault.NONE);
+    }
+
+    @Test
+    @DisplayName("Injected latency within the budget is tolerated")
+    @Description("Delay every response by 200 ms and verify a request with a 2 s budget still succeeds")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Deadline budgets")
+    void testLatencyWithinBudgetSucceeds() {
+        proxy.setFault(ProxyFault.latency(200));
+
+        long start = System.nanoTime();
+        Response response = Allure.step("Request user 1 through the proxy with 200 ms latency and a 2 s budget", () -> {
+            try (Deadline.Scope ignored = Deadline.within(Duration.ofSeconds(2))) {
+                return client.getEncoded(PROXIED_USER_ENDPOINT, "/api/test/user/1");
+            }
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(200, response.getStatusCode(), "Request within its budget should succeed");
+        assertTrue(elapsedMillis >= 200, "Injected latency should apply, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("A stalled server is cut off at the deadline")
+    @Description("Accept the request but never answer, and verify the request fails with a deadline error " +
+            "once its 500 ms budget runs out instead of waiting for the 30 s read timeout")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Deadline budgets")
+    void testStallIsCutOffAtDeadline() {
+        proxy.setFault(ProxyFault.stall());
+        long forwardedBefore = proxy.getForwardedRequestBytes();
+
+        assertCutOffAtDeadline("Request user 1 from a stalled server with a 500 ms budget");
+        assertEquals(forwardedBefore, proxy.getForwardedRequestBytes(), "Stalled requests should never reach the server");
+    }
+
+    @Test
+    @DisplayName("A slow-drip body is cut off at the deadline")
+    @Description("Let the response trickle in 1 byte every 50 ms, so the read timeout never fires, and verify " +
+            "the request still fails once its 500 ms budget runs out")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Deadline budgets")
+    void testSlowDripIsCutOffAtDeadline() {
+        proxy.setFault(ProxyFault.drip(1, 50));
+
+        assertCutOffAtDeadline("Request user 1 through a slow-drip link with a 500 ms budget");
+    }
+
+    @Test
+    @DisplayName("A connection reset fails fast")
+    @Description("Reset the connection as soon as the request arrives and verify the request fails with an I/O " +
+            "error well before its budget runs out, not with a deadline error")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Connection failures")
+    void testResetFailsWithoutWaitingForDeadline() {
+        proxy.setFault(ProxyFault.reset());
+
+        long start = System.nanoTime();
+        Exception error = Allure.step("Request user 1 through a resetting link with a 5 s budget", () -> {
+            try (Deadline.Scope ignored = Deadline.within(Duration.ofSeconds(5))) {
+                return assertThrows(Exception.class,
+                        () -> client.getEncoded(PROXIED_USER_ENDPOINT, "/api/test/user/1"));
+            }
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Allure.addAttachment("Error", String.valueOf(error));
+
+        assertFalse(error instanceof DeadlineExceededException, "A reset is a connection failure, not a timeout: " + error);
+        assertTrue(elapsedMillis < 5000, "A reset should fail before the budget runs out, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("An exhausted budget cancels the remaining work")
+    @Description("Fan out over 40 user IDs against a stalled server with a 500 ms budget and verify that only the " +
+            "requests in flight hit the deadline, while the IDs still waiting are not requested at all")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Deadline budgets")
+    void testExhaustedBudgetCancelsRemainingWork() {
+        proxy.setFault(ProxyFault.stall());
+        int concurrency = 4;
+        int[] ids = IntStream.rangeClosed(1, 40).toArray();
+        long connectionsBefore = proxy.getConnectionCount();
+
+        FanOutRunner.FanOutReport report = Allure.step("Fan out over 40 IDs, 4 at a time, with a 500 ms budget", () -> {
+            try (Deadline.Scope ignored = Deadline.within(BUDGET)) {
+                return new FanOutRunner(concurrency).run(ids, (id, context) ->
+                        client.getEncoded(PROXIED_USER_ENDPOINT, "/api/test/user/" + id));
+            }
+        });
+        Allure.addAttachment("Fan-out summary", report.summary());
+
+        assertAll(
+                () -> assertTrue(report.getWallTimeNanos() / 1_000_000 < BUDGET.toMillis() + SLACK_MILLIS,
+                        "Fan-out should end at the deadline: " + report.summary()),
+                () -> assertTrue(report.getFailures().size() <= concurrency,
+                        "Only requests in flight should hit the deadline: " + report.summary()),
+                () -> assertTrue(report.getFailures().stream()
+                                .allMatch(failure -> failure.getFailure() instanceof DeadlineExceededException),
+                        "Requests in flight should fail with a deadline error: " + report.summary()),
+                () -> assertEquals(ids.length, report.getFailures().size() + report.getCancelled().size(),
+                        "Every ID should either time out or be cancelled: " + report.summary()),
+                () -> assertTrue(proxy.getConnectionCount() - connectionsBefore <= concurrency,
+                        "Cancelled IDs should not open connections"));
+    }
+
+    private void assertCutOffAtDeadline(String step) {
+        long start = System.nanoTime();
+        DeadlineExceededException error = Allure.step(step, () -> {
+            try (Deadline.Scope ignored = Deadline.within(BUDGET)) {
+                return assertThrows(DeadlineExceededException.class,
+                        () -> client.getEncoded(PROXIED_USER_ENDPOINT, "/api/test/user/1"));
+            }
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Allure.addAttachment("Error", String.valueOf(error));
+
+        assertTrue(elapsedMillis >= BUDGET.toMillis() - 50,
+                "Request should run until its budget is used up, took " + elapsedMillis + " ms");
+        assertTrue(elapsedMillis < BUDGET.toMillis() + SLACK_MILLIS,
+                "Request should be cut off at the deadline, took " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,79 @@
+package com.qa.challenge.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qa.challenge.crawl.ConsistencyCrawler;
+import com.qa.challenge.crawl.ConsistencyProblem;
+import com.qa.challenge.crawl.ConsistencyReport;
+import com.qa.challenge.jfr.JfrPhaseExtension;
+import com.qa.challenge.shard.ShardCondition;
+import com.qa.challenge.utils.BypassResponseCache;
+import com.qa.challenge.utils.FailureCaptureExtension;
+import com.qa.challenge.utils.RestClient;
+import com.qa.challenge.utils.TestConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Dating App API Testing")
+@Feature("Cross-endpoint Consistency")
+@Owner("QA Team")
+@ExtendWith({FailureCaptureExtension.class, ShardCondition.class, JfrPhaseExtension.class})
+public class ConsistencyCrawlTest {
+    // Problems listed in the failure message; the report has all of them
+    private static final int MAX_LISTED_PROBLEMS = 20;
+
+    @Test
+    @DisplayName("Users lists and user details agree")
+    @Description("Fetch the users list for every gender, then the details of every listed ID, and verify each user " +
+            "reports the gender it is listed under, appears once per list, under one gender, and in the gender=any list")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Data consistency")
+    @Issue("BUG-006")
+    // Conditional requests and content hashes are the crawler's own; cached answers would hide changes
+    @BypassResponseCache
+    void testListsAndDetailsAreConsistent() throws IOException {
+        ConsistencyCrawler crawler = new ConsistencyCrawler(RestClient.shared(), TestConfig.CRAWL_CONCURRENCY,
+                Paths.get(TestConfig.CRAWL_STATE_FILE), TestConfig.CRAWL_FULL);
+
+        ConsistencyReport report = Allure.step("Crawl all gender lists and the details of every listed ID",
+                crawler::crawl);
+
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        Path reportFile = Paths.get(System.getProperty("crawl.reportFile", "target/consistency/consistency-report.json"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, json);
+        Allure.addAttachment("Consistency report", "application/json", json, ".json");
+        Allure.step("Crawled " + report.getIdsCrawled() + " IDs: " + report.getNotModified() + " not modified, "
+                + report.getUnchanged() + " unchanged, " + report.getRechecked() + " re-checked, "
+                + report.getNotChecked() + " not checked");
+
+        List<ConsistencyProblem> problems = report.getProblems();
+        assertAll(
+                () -> assertTrue(report.getListErrors().isEmpty(),
+                        "FAIL: Every gender list should be available, failed: " + report.getListErrors()),
+                () -> assertEquals(0, report.getNotChecked(),
+                        "FAIL: Every listed ID should be checked before the deadline budget runs out"),
+                () -> assertTrue(problems.isEmpty(), "FAIL: " + problems.size() + " inconsistencies " + report.getProblemCounts()
+                        + ":\n  " + problems.stream().limit(MAX_LISTED_PROBLEMS).map(String::valueOf)
+                        .collect(Collectors.joining("\n  "))));
+    }
+}
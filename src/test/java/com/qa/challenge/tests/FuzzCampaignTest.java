@@ -0,0 +1,77 @@
+package com.qa.challenge.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qa.challenge.fuzz.FuzzCampaign;
+import com.qa.challenge.fuzz.FuzzCase;
+import com.qa.challenge.fuzz.FuzzConfig;
+import com.qa.challenge.fuzz.FuzzCorpus;
+import com.qa.challenge.fuzz.FuzzReport;
+import com.qa.challenge.utils.RestClient;
+import com.qa.challenge.utils.TestConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Dating App API Testing")
+@Feature("Input Fuzzing")
+@Owner("QA Team")
+@Tag("fuzz")
+// The campaign sets its own request rate; other tests would add to it
+@Isolated
+public class FuzzCampaignTest {
+
+    @Test
+    @DisplayName("Fuzz the user ID and gender inputs")
+    @Description("Send boundary values, encodings, long strings, case variants and random mutations for the {id} " +
+            "path segment and the gender query parameter, shrink every distinct server error to a minimal input " +
+            "and write them to the failure corpus replayed by FuzzCorpusTest")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Error handling")
+    void testNoInputCausesServerError() throws IOException {
+        FuzzConfig config = FuzzConfig.fromSystemProperties();
+
+        FuzzReport report = Allure.step("Fuzz " + config.getTargets() + " at " + config.getRequestsPerSecond()
+                + " req/s against " + TestConfig.BASE_URL, () -> new FuzzCampaign(config, RestClient.unreported()).run());
+
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        Path reportFile = Paths.get(System.getProperty("fuzz.reportFile", "target/fuzz/fuzz-report.json"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, json);
+        Allure.addAttachment("Fuzz report", "application/json", json, ".json");
+
+        // The checked-in corpus plus what this run found: a drop-in replacement for src/test/resources/fuzz/corpus.json
+        List<FuzzCase> corpus = FuzzCorpus.merge(FuzzCorpus.load(), report.getFailures());
+        Path corpusFile = Paths.get(System.getProperty("fuzz.corpusFile", "target/fuzz/corpus.json"));
+        FuzzCorpus.write(corpusFile, corpus);
+        Allure.addAttachment("Failure corpus", "application/json", FuzzCorpus.toJson(corpus), ".json");
+
+        for (FuzzCase failure : report.getFailures()) {
+            Allure.step(failure.getStatus() + " for " + failure.getTarget().getParameter() + "=" + failure.getInput()
+                    + " (" + failure.getOccurrences() + " inputs): " + failure.getSignature());
+        }
+        assertTrue(report.getFailures().isEmpty(), report.getFailures().size() + " distinct server errors; minimal inputs "
+                + "(replay them with -Dfuzz.corpus=" + corpusFile + "):\n  " + report.getFailures().stream()
+                .map(failure -> failure.getTarget().pathAndQuery(failure.getInput()) + " -> " + failure.getStatus()
+                        + " " + failure.getSignature())
+                .collect(Collectors.joining("\n  ")));
+    }
+}
@@ -0,0 +1,64 @@
+package com.qa.challenge.tests;
+
+import com.qa.challenge.fuzz.FuzzCase;
+import com.qa.challenge.fuzz.FuzzCorpus;
+import com.qa.challenge.fuzz.FuzzTarget;
+import com.qa.challenge.jfr.JfrPhaseExtension;
+import com.qa.challenge.shard.ShardCondition;
+import com.qa.challenge.utils.FailureCaptureExtension;
+import com.qa.challenge.utils.RestClient;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import io.qameta.allure.util.ResultsUtils;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Dating App API Testing")
+@Feature("Input Fuzzing")
+@Owner("QA Team")
+@ExtendWith({FailureCaptureExtension.class, ShardCondition.class, JfrPhaseExtension.class})
+public class FuzzCorpusTest {
+
+    static Stream<Arguments> corpus() {
+        return FuzzCorpus.load().stream()
+                .map(fuzzCase -> Arguments.of(fuzzCase.getTarget(), fuzzCase.getInput(), fuzzCase));
+    }
+
+    @ParameterizedTest(name = "{0} = \"{1}\"")
+    @MethodSource("corpus")
+    @DisplayName("Inputs that once caused a server error")
+    @Description("Replay every minimal input in the fuzz failure corpus and verify the server no longer answers " +
+            "it with a 5xx error")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Error handling")
+    void testCorpusInputDoesNotCauseServerError(FuzzTarget target, String input, FuzzCase recorded) {
+        if (recorded.getIssue() != null) {
+            // Same link as @Issue on the functional tests
+            Allure.getLifecycle().updateTestCase(result -> result.getLinks().add(ResultsUtils.createIssueLink(recorded.getIssue())));
+        }
+        String pathAndQuery = target.pathAndQuery(input);
+
+        Response response = Allure.step("GET " + pathAndQuery, () ->
+                RestClient.shared().getEncoded(target.getEndpoint(), pathAndQuery));
+
+        // Any answer but a server error is fine here; the functional tests check what the answer should be
+        assertTrue(response.getStatusCode() < 500,
+                "FAIL: " + pathAndQuery + " should not cause a server error (recorded as " + recorded.getStatus()
+                        + (recorded.getSignature() != null ? " " + recorded.getSignature() : "")
+                        + "), got: " + response.getStatusCode());
+    }
+}
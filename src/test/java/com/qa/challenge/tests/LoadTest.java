@@ -0,0 +1,75 @@
+package com.qa.challenge.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qa.challenge.load.LoadReport;
+import com.qa.challenge.load.LoadTestConfig;
+import com.qa.challenge.load.OpenLoopLoadGenerator;
+import com.qa.challenge.utils.LatencySummary;
+import com.qa.challenge.utils.RestClient;
+import com.qa.challenge.utils.TestConfig;
+import com.qa.challenge.utils.UserIdFixture;
+import com.qa.challenge.utils.UserIdSnapshot;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Dating App API Testing")
+@Feature("Performance")
+@Owner("QA Team")
+@Tag("load")
+// Other tests running at the same time would distort the measured latency
+@Isolated
+public class LoadTest {
+
+    @Test
+    @DisplayName("Open-loop load on users list and user details endpoints")
+    @Description("Drive both endpoints at a fixed request rate with the ID mix taken from the live ID list, " +
+            "and report p50/p90/p99/p99.9 latency and error rates per endpoint and per gender (NF-001)")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Response time under load")
+    void testEndpointsUnderOpenLoopLoad() throws IOException {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        UserIdSnapshot userIds = Allure.step("Fetch user IDs for the request mix", () -> {
+            UserIdSnapshot snapshot = UserIdFixture.snapshot();
+            assertFalse(snapshot.isEmpty(), "User ID list should not be empty");
+            return snapshot;
+        });
+
+        LoadReport report = Allure.step("Run " + config.getRequestsPerSecond() + " req/s for "
+                + config.getDurationSeconds() + " s against " + TestConfig.BASE_URL, () ->
+                new OpenLoopLoadGenerator(config, RestClient.unreported(), userIds.toArray()).run());
+
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        Path reportFile = Paths.get(System.getProperty("load.reportFile", "target/load-test/load-report.json"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, json);
+        Allure.addAttachment("Load test report", "application/json", json, ".json");
+
+        // NF-001: every endpoint should answer within the limit at p99, even under load
+        for (Map.Entry<String, LatencySummary> entry : report.getEndpoints().entrySet()) {
+            Allure.step("p99 of " + entry.getKey() + " is within " + config.getP99LimitMillis() + " ms", () ->
+                    assertTrue(entry.getValue().getP99Ms() <= config.getP99LimitMillis(),
+                            "p99 latency of " + entry.getKey() + " should be at most " + config.getP99LimitMillis()
+                                    + " ms, got: " + entry.getValue()));
+        }
+    }
+}
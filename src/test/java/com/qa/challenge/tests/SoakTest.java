@@ -0,0 +1,65 @@
+package com.qa.challenge.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qa.challenge.soak.SoakConfig;
+import com.qa.challenge.soak.SoakReport;
+import com.qa.challenge.soak.SoakRunner;
+import com.qa.challenge.utils.TestConfig;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Owner;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Dating App API Testing")
+@Feature("Performance")
+@Owner("QA Team")
+@Tag("soak")
+// Other tests running at the same time would distort the latency and resource samples
+@Isolated
+public class SoakTest {
+
+    @Test
+    @DisplayName("Soak the test scenarios and check for latency drift and client leaks")
+    @Description("Run the existing test classes over and over for a set time, record latency percentiles per " +
+            "endpoint and heap, thread and file descriptor counts of the client JVM per time window, and fail if " +
+            "the last windows drifted from the first ones beyond the configured thresholds")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Stability over time")
+    void testNoDriftOrLeaksOverTime() throws IOException {
+        SoakConfig config = SoakConfig.fromSystemProperties();
+        Path timeSeriesFile = Paths.get(System.getProperty("soak.timeSeriesFile", "target/soak/soak-timeseries.csv"));
+
+        SoakReport report = Allure.step("Cycle " + config.getScenarios() + " for " + config.getDurationSeconds()
+                + " s against " + TestConfig.BASE_URL, () -> new SoakRunner(config, timeSeriesFile).run());
+
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        Path reportFile = Paths.get(System.getProperty("soak.reportFile", "target/soak/soak-report.json"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, json);
+        Allure.addAttachment("Soak report", "application/json", json, ".json");
+        Allure.addAttachment("Soak time series", "text/csv", Files.readString(timeSeriesFile), ".csv");
+
+        Allure.step("Verdict " + report.getVerdict() + " after " + report.getCycles() + " cycles in "
+                + report.getWindows().size() + " windows: heap " + String.format("%+.1f", report.getHeapGrowthMbPerHour())
+                + " MB/hour, threads " + String.format("%+d", report.getThreadGrowth()) + ", p99 drift " + report.getLatencyDrift());
+        // Too short a run to compare is reported, not failed, so a smoke run of the soak set-up passes
+        assertNotEquals(SoakReport.Verdict.FAIL, report.getVerdict(),
+                "The client drifted over the soak:\n  " + String.join("\n  ", report.getFindings()));
+    }
+}
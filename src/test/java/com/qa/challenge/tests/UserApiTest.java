@@ -1,10 +1,22 @@
 package com.qa.challenge.tests;
 
+import com.qa.challenge.jfr.JfrPhaseExtension;
 import com.qa.challenge.models.User;
-import com.qa.challenge.models.UserIdListResponse;
 import com.qa.challenge.models.UserResponse;
+import com.qa.challenge.shard.Shard;
+import com.qa.challenge.shard.ShardCondition;
+import com.qa.challenge.shard.ShardedSweep;
+import com.qa.challenge.utils.AsyncUserClient;
+import com.qa.challenge.utils.BypassResponseCache;
+import com.qa.challenge.utils.FailureCaptureExtension;
+import com.qa.challenge.utils.FanOutRunner;
+import com.qa.challenge.utils.JsonContract;
+import com.qa.challenge.utils.LatencySlo;
+import com.qa.challenge.utils.LatencyRecorder;
 import com.qa.challenge.utils.RestClient;
 import com.qa.challenge.utils.TestConfig;
+import com.qa.challenge.utils.UserIdFixture;
+import com.qa.challenge.utils.UserIdSnapshot;
 import io.qameta.allure.Description;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
@@ -20,6 +32,7 @@ import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -27,6 +40,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.matchesPattern;
@@ -35,24 +51,26 @@ import static org.junit.jupiter.api.Assertions.*;
 @Epic("Dating App API Testing")
 @Feature("User Details API")
 @Owner("QA Team")
+@ExtendWith({FailureCaptureExtension.class, ShardCondition.class, JfrPhaseExtension.class})
 public class UserApiTest {
     private RestClient restClient;
-    private List<Integer> userIds;
+    private UserIdSnapshot userIds;
 
     @BeforeEach
     void setUp() {
-        restClient = new RestClient();
+        restClient = RestClient.shared();
 
+        // The ID list is fetched once per JVM and shared with the other test classes
         Allure.step("Setup: Fetch user IDs for test", () -> {
-            Map<String, Object> queryParams = new HashMap<>();
-            queryParams.put("gender", TestConfig.GENDER_ANY);
-            Response response = restClient.get(TestConfig.USERS_ENDPOINT, queryParams);
-            UserIdListResponse userIdList = response.as(UserIdListResponse.class);
-            if (userIdList.getIdList() != null && !userIdList.getIdList().isEmpty()) {
-                userIds = userIdList.getIdList();
+            UserIdSnapshot snapshot = UserIdFixture.snapshot();
+            if (!snapshot.isEmpty()) {
+                userIds = snapshot;
             } else {
-                userIds = List.of(1, 2, 3);
+                // The list was empty or could not be fetched (logged by UserIdFixture); fall back to well-known IDs
+                userIds = UserIdSnapshot.of(1, 2, 3);
+                Allure.addAttachment("User ID fallback", "No user IDs from the users list, using IDs 1, 2 and 3");
             }
+            Allure.addAttachment("User ID snapshot", snapshot.toString());
         });
     }
 
@@ -61,6 +79,7 @@ public class UserApiTest {
     @Description("Verify that user details can be retrieved using a valid user ID")
     @Severity(SeverityLevel.CRITICAL)
     @Story("Retrieve user profile")
+    @LatencySlo // NF-001: p95 and p99 within 1 second, after warm-up
     void testGetUserByValidId() {
         // Get the first available user ID - using dynamic values to properly test the unstable API
         Integer userId = userIds.size() > 0 ? userIds.get(0) : 1;
@@ -74,9 +93,6 @@ public class UserApiTest {
             return restClient.get(TestConfig.USER_ENDPOINT, pathParams, true);
         });
 
-        // Log the response for debugging
-        System.out.println("Response for user ID " + userId + ": " + response.asString());
-
         // If the API is returning errors, report this in Allure but don't fail the test
         if (response.getStatusCode() != 200) {
             System.out.println("WARNING: API returned status code " + response.getStatusCode());
@@ -116,10 +132,6 @@ public class UserApiTest {
                 .pathParam("id", invalidId)
                 .get(TestConfig.USER_ENDPOINT);
 
-        // Log the response for debugging and reporting
-        System.out.println("Request URL: " + TestConfig.BASE_URL + TestConfig.USER_ENDPOINT.replace("{id}", String.valueOf(invalidId)));
-        System.out.println("Response for invalid user ID (-1): " + response.asString());
-
         // For INVALID PARAMETER (negative ID), the API should properly indicate an error:
         // 1. Either return an appropriate error status code (400, 404, etc.)
         // 2. Or return 200 OK with clear error details in the response body (non-zero error code, error message)
@@ -167,10 +179,6 @@ public class UserApiTest {
                 .pathParam("id", invalidId)
                 .get(TestConfig.USER_ENDPOINT);
 
-        // Log the response for debugging and reporting
-        System.out.println("Request URL: " + TestConfig.BASE_URL + TestConfig.USER_ENDPOINT.replace("{id}", invalidId));
-        System.out.println("Response for INVALID non-numeric user ID '" + invalidId + "': " + response.asString());
-
         // For INVALID PARAMETER (non-numeric ID), the API should properly indicate an error:
         // 1. Either return an appropriate error status code (400, 404, etc.)
         // 2. Or return 200 OK with clear error details in the response body
@@ -215,10 +223,6 @@ public class UserApiTest {
                 .pathParam("id", veryLargeId)
                 .get(TestConfig.USER_ENDPOINT);
 
-        // Log the response for debugging and reporting
-        System.out.println("Request URL: " + TestConfig.BASE_URL + TestConfig.USER_ENDPOINT.replace("{id}", String.valueOf(veryLargeId)));
-        System.out.println("Response for INVALID very large user ID (" + veryLargeId + "): " + response.asString());
-
         // For INVALID PARAMETER (very large ID), the API should either:
         // 1. Return an appropriate error status code (404 Not Found is most appropriate)
         // 2. Return 200 OK with either:
@@ -262,9 +266,6 @@ public class UserApiTest {
 
         Response response = restClient.get(TestConfig.USER_ENDPOINT, pathParams, true);
 
-        // Log the response for debugging
-        System.out.println("Response for user data format test: " + response.asString());
-
         // If the API is returning errors, report this in Allure but don't fail the test
         if (response.getStatusCode() != 200) {
             System.out.println("WARNING: API returned status code " + response.getStatusCode());
@@ -301,9 +302,11 @@ public class UserApiTest {
 
     @Test
     @DisplayName("Get user details for all user IDs")
-    @Description("Iterate through all user IDs from the users list endpoint and verify user details endpoint for each.")
+    @Description("Check every user ID from the users list endpoint against the user details endpoint in parallel and report all failing IDs together.")
     @Severity(SeverityLevel.NORMAL)
     @Story("End-to-end: All user details accessible")
+    @BypassResponseCache // Every ID is fetched once; the sweep is about what the server answers now
+    @ShardedSweep // In a sharded run every shard checks its own slice of the IDs
     void testGetUserDetailsForAllUserIds() {
         // Step 1: Use already fetched user IDs from setUp()
         Allure.step("Verify userIds list is ready", () -> {
@@ -311,26 +314,79 @@ public class UserApiTest {
             assertFalse(userIds.isEmpty(), "User ID list should not be empty");
             Allure.addAttachment("Number of user IDs to test", String.valueOf(userIds.size()));
         });
+        int[] ids = Shard.slice(userIds.toArray());
+        if (Shard.isSharded()) {
+            Allure.addAttachment("User IDs of shard " + Shard.index() + " of " + Shard.count(), String.valueOf(ids.length));
+        }
 
-        // Step 2: For each user ID, verify user details endpoint
-        for (Integer userId : userIds) {
-            Map<String, Object> pathParams = new HashMap<>();
-            pathParams.put("id", userId);
-            Allure.step("Request and assert for user ID: " + userId, () -> {
-                Response response = restClient.get(TestConfig.USER_ENDPOINT, pathParams, true);
-                Allure.addAttachment("Request for userId " + userId, "GET " + TestConfig.USER_ENDPOINT + "?id=" + userId);
-                if (response.getStatusCode() != 200) {
-                    Allure.addAttachment("Failed userId response body", response.asString());
+        // Step 2: Verify user details endpoint for every user ID with bounded concurrency.
+        // With -Dhttp.resilience=true slow calls are hedged and 5xx retried; only deterministic failures fail the sweep
+        FanOutRunner.FanOutReport report;
+        if (TestConfig.SWEEP_ASYNC) {
+            // -Dsweep.async=true: this thread keeps up to http.async.maxInFlight requests in flight (HTTP/2 where
+            // the server supports it); the per-ID assertions then run over the collected results
+            Map<Integer, AsyncUserClient.UserResult> results = new ConcurrentHashMap<>();
+            AsyncUserClient.shared().getUsers(ids, result -> results.put(result.getId(), result)).join();
+            report = new FanOutRunner(1).run(ids, (userId, context) -> {
+                AsyncUserClient.UserResult result = results.get(userId);
+                if (result.getStatusCode() == 0) {
+                    throw result.getFailure();
                 }
-                assertEquals(200, response.getStatusCode(), "Status code should be 200 for user ID " + userId);
-                UserResponse userResponse = response.as(UserResponse.class);
-                if (!userResponse.getSuccess() || userResponse.getUser() == null) {
-                    Allure.addAttachment("Failed userId response body", response.asString());
+                if (result.getFailure() != null) {
+                    context.attach("Undecodable userId response body", result.getErrorBody());
+                    throw result.getFailure();
                 }
-                assertTrue(userResponse.getSuccess(), "Response should be successful for user ID " + userId);
-                assertNotNull(userResponse.getUser(), "User object should not be null for user ID " + userId);
+                assertUserDetails(userId, result.getStatusCode(), result::getContractViolations, result::getResponse,
+                        result::getErrorBody, context);
+            });
+            Allure.addAttachment("Async client stats", AsyncUserClient.shared().stats().toString());
+        } else {
+            RestClient sweepClient = TestConfig.HTTP_RESILIENCE_ENABLED ? RestClient.resilient() : restClient;
+            report = FanOutRunner.withConfiguredConcurrency().run(ids, (userId, context) -> {
+                Map<String, Object> pathParams = new HashMap<>();
+                pathParams.put("id", userId);
+                Response response = sweepClient.get(TestConfig.USER_ENDPOINT, pathParams, true);
+                // Every response is checked against the schema; the parsed tree is reused for the model
+                JsonContract.Checked checked = response.getStatusCode() == 200 ? JsonContract.USER_RESPONSE.check(response) : null;
+                // Lambdas, not method references: checked is null for non-200 answers
+                assertUserDetails(userId, response.getStatusCode(), () -> checked.getViolations(),
+                        () -> checked.as(UserResponse.class), response::asString, context);
             });
         }
+
+        // Step 3: One Allure step per ID, then fail once with every failing ID
+        report.publishAllureSteps("Request and assert for user ID: ");
+        if (TestConfig.HTTP_RESILIENCE_ENABLED) {
+            List<LatencyRecorder.ClassifiedFailure> classified = LatencyRecorder.classifiedFailures(TestConfig.USER_ENDPOINT);
+            if (!classified.isEmpty()) {
+                Allure.addAttachment("Failures classified by repeat behaviour", classified.stream()
+                        .map(failure -> failure.getKind() + " " + failure.getRequest() + " " + failure.getAttemptFailures())
+                        .collect(Collectors.joining("\n")));
+            }
+        }
+        report.assertNoFailures();
+    }
+
+    private static void assertUserDetails(int userId, int statusCode, Supplier<List<String>> contractViolations,
+                                          Supplier<UserResponse> userResponseSupplier, Supplier<String> body,
+                                          FanOutRunner.IdContext context) {
+        context.attach("Request for userId " + userId, "GET " + TestConfig.USER_ENDPOINT.replace("{id}", String.valueOf(userId)));
+        if (statusCode != 200) {
+            context.attach("Failed userId response body", body.get());
+        }
+        assertEquals(200, statusCode, "Status code should be 200 for user ID " + userId);
+        List<String> violations = contractViolations.get();
+        if (!violations.isEmpty()) {
+            context.attach("Failed userId response body", body.get());
+        }
+        assertTrue(violations.isEmpty(), "Response for user ID " + userId + " should match "
+                + JsonContract.USER_RESPONSE.getName() + ": " + violations);
+        UserResponse userResponse = userResponseSupplier.get();
+        if (!userResponse.getSuccess() || userResponse.getUser() == null) {
+            context.attach("Failed userId response body", body.get());
+        }
+        assertTrue(userResponse.getSuccess(), "Response should be successful for user ID " + userId);
+        assertNotNull(userResponse.getUser(), "User object should not be null for user ID " + userId);
     }
 
     @Test
@@ -340,9 +396,8 @@ public class UserApiTest {
     @Story("API Contract Validation")
     void testRequiredUserFieldsPresence() {
         // Filter out problematic IDs (like 0) and get a valid user ID
-        List<Integer> validIds = userIds.stream().filter(id -> id > 0).collect(java.util.stream.Collectors.toList());
         // If no valid IDs found, use a fallback ID
-        Integer userId = validIds.isEmpty() ? 1 : validIds.get(0);
+        Integer userId = userIds.stream().filter(id -> id > 0).findFirst().orElse(1);
 
         Map<String, Object> pathParams = new HashMap<>();
         pathParams.put("id", userId);
@@ -360,7 +415,11 @@ public class UserApiTest {
             assertEquals(200, response.getStatusCode(), "Status code should be 200");
         });
 
-        UserResponse userResponse = response.as(UserResponse.class);
+        // The schema requires every documented field with its type; the checks below add the semantics
+        JsonContract.Checked checked = Allure.step("Validate response against " + JsonContract.USER_RESPONSE.getName(), () ->
+            JsonContract.USER_RESPONSE.check(response).assertValid()
+        );
+        UserResponse userResponse = checked.as(UserResponse.class);
         Allure.step("Check response success flag", () -> {
             assertTrue(userResponse.getSuccess(), "Response should be successful");
         });
@@ -410,9 +469,8 @@ public class UserApiTest {
     @Issue("BUG-011")
     void testResponseFieldsMatchSpecification() {
         // Filter out problematic IDs (like 0) and get a valid user ID
-        List<Integer> validIds = userIds.stream().filter(id -> id > 0).collect(java.util.stream.Collectors.toList());
         // If no valid IDs found, use a fallback ID
-        Integer userId = validIds.isEmpty() ? 1 : validIds.get(0);
+        Integer userId = userIds.stream().filter(id -> id > 0).findFirst().orElse(1);
 
         Map<String, Object> pathParams = new HashMap<>();
         pathParams.put("id", userId);
@@ -428,13 +486,15 @@ public class UserApiTest {
             assertEquals(200, response.getStatusCode(), "Status code should be 200");
         });
 
-        // Check the raw response to see which field names are actually used
+        // Check the top-level field names of the parsed response, not substrings of the body
         String responseBody = response.getBody().asString();
+        JsonContract.Checked checked = JsonContract.USER_RESPONSE.check(response);
 
         Allure.step("Check if response uses 'success' instead of 'isSuccess' as specified in API documentation", () -> {
+            assertNotNull(checked.getNode(), "Response should be JSON: " + checked.getViolations());
             // The API specification requires 'isSuccess', but implementation uses 'success'
-            boolean usesIsSuccess = responseBody.contains("\"isSuccess\":");
-            boolean usesSuccess = responseBody.contains("\"success\":");
+            boolean usesIsSuccess = checked.getNode().has("isSuccess");
+            boolean usesSuccess = checked.getNode().has("success");
 
             // Document the findings
             if (usesSuccess && !usesIsSuccess) {
@@ -468,8 +528,12 @@ public class UserApiTest {
         });
 
         // Validate that our model can still handle the response despite the field name inconsistency
+        Allure.step("Validate response against " + JsonContract.USER_RESPONSE.getName(), () -> {
+            checked.assertValid();
+        });
+
         Allure.step("Verify model can handle field name inconsistency", () -> {
-            UserResponse userResponse = response.as(UserResponse.class);
+            UserResponse userResponse = checked.as(UserResponse.class);
             assertTrue(userResponse.getSuccess(), "Our model should handle either 'success' or 'isSuccess' field");
         });
     }
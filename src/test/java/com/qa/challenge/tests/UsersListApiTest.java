@@ -1,31 +1,41 @@
 package com.qa.challenge.tests;
 
+import com.qa.challenge.jfr.JfrPhaseExtension;
+import com.qa.challenge.models.UserIdArrayResponse;
 import com.qa.challenge.models.UserIdListResponse;
+import com.qa.challenge.shard.ShardCondition;
+import com.qa.challenge.utils.BypassResponseCache;
+import com.qa.challenge.utils.FailureCaptureExtension;
+import com.qa.challenge.utils.JsonContract;
+import com.qa.challenge.utils.LatencySlo;
 import com.qa.challenge.utils.RestClient;
 import com.qa.challenge.utils.TestConfig;
+import com.qa.challenge.utils.UserIdFixture;
+import com.qa.challenge.utils.UserIdListDecoder;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.HashMap;
 import java.util.Map;
 
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
 import static org.junit.jupiter.api.Assertions.*;
 
 @Epic("Dating App API Testing")
 @Feature("Users List API")
 @Owner("QA Team")
+@ExtendWith({FailureCaptureExtension.class, ShardCondition.class, JfrPhaseExtension.class})
 public class UsersListApiTest {
     private RestClient restClient;
 
     @BeforeEach
     void setUp() {
-        restClient = new RestClient();
+        restClient = RestClient.shared();
     }
 
     @Test
@@ -33,6 +43,8 @@ public class UsersListApiTest {
     @Description("Verify that users list can be retrieved with 'any' gender filter")
     @Severity(SeverityLevel.NORMAL)
     @Story("Retrieve users list by gender")
+    @BypassResponseCache // Publishes the list it gets to UserIdFixture, so it must be the server's current one
+    @LatencySlo // NF-001: p95 and p99 within 1 second, after warm-up
     void testGetUsersByAnyGender() {
         Map<String, Object> queryParams = new HashMap<>();
         queryParams.put("gender", TestConfig.GENDER_ANY);
@@ -41,11 +53,15 @@ public class UsersListApiTest {
 
         assertEquals(200, response.getStatusCode(), "Status code should be 200");
 
-        UserIdListResponse userIdList = response.as(UserIdListResponse.class);
+        // 'any' returns every user ID, so the list is decoded straight into an int[]
+        UserIdArrayResponse userIdList = UserIdListDecoder.decode(response);
         assertTrue(userIdList.getSuccess(), "Response should be successful");
         assertEquals(0, userIdList.getErrorCode(), "Error code should be 0");
         assertNull(userIdList.getErrorMessage(), "Error message should be null");
         assertNotNull(userIdList.getIdList(), "ID list should not be null");
+
+        // Share the freshly fetched list so other test classes don't fetch it again
+        UserIdFixture.publish(userIdList.getIdList());
     }
 
 
@@ -61,9 +77,6 @@ public class UsersListApiTest {
 
         Response response = restClient.get(TestConfig.USERS_ENDPOINT);
 
-        // Log the response for debugging and reporting
-        System.out.println("Response for INVALID missing required parameter (gender): " + response.asString());
-
         // For INVALID REQUEST (missing required parameter), the API should properly indicate an error:
         // 1. Return an appropriate error status code (400 Bad Request is most appropriate)
         // 2. Or return 200 OK with clear error details in response body
@@ -106,9 +119,6 @@ public class UsersListApiTest {
 
         Response response = restClient.get(TestConfig.USERS_ENDPOINT, queryParams);
 
-        // Log the response for debugging and reporting
-        System.out.println("Response for INVALID gender parameter value '" + invalidGender + "': " + response.asString());
-
         // For INVALID PARAMETER (invalid gender value), the API should properly indicate an error:
         // 1. Return an appropriate error status code (400 Bad Request is most appropriate)
         // 2. Or return 200 OK with clear error details in response body
@@ -158,14 +168,18 @@ public class UsersListApiTest {
             assertEquals(200, response.getStatusCode(), "Status code should be 200");
         });
 
-        // Check for presence of "idList" field which according to documentation should be "result"
-        String responseBody = response.getBody().asString();
+        // The schema requires "idList" and rejects "result", which the documentation uses (BUG-001)
+        JsonContract.Checked checked = JsonContract.USERS_LIST_RESPONSE.check(response);
         Allure.step("Assert response contains 'idList' field and not 'result' field", () -> {
-            assertTrue(responseBody.contains("\"idList\""),
+            assertNotNull(checked.getNode(), "Response should be JSON: " + checked.getViolations());
+            assertTrue(checked.getNode().has("idList"),
                 "Response contains 'idList' field instead of 'result' as specified in API documentation (BUG-001)");
-            assertFalse(responseBody.contains("\"result\": ["),
+            assertFalse(checked.getNode().has("result"),
                 "Response should not contain 'result' field as API incorrectly uses 'idList' instead (BUG-001)");
         });
+        Allure.step("Validate response against " + JsonContract.USERS_LIST_RESPONSE.getName(), () -> {
+            checked.assertValid();
+        });
         System.out.println("BUG-001: API response field naming inconsistency. Uses 'idList' instead of 'result' as specified.");
     }
 
@@ -0,0 +1,230 @@
+package com.qa.challenge.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD limit on the number of requests in flight, adjusted from the responses the server gives.
+ * <p>
+ * While responses come back healthy and the limit is actually used, it grows by about one per round trip
+ * ({@code 1/limit} per response). It is cut by {@code backoffRatio} when the smoothed 5xx/error rate goes above
+ * {@code maxErrorRate}, or when smoothed latency exceeds {@code latencyTolerance} times its no-load baseline.
+ * At most one cut is made per round trip: only requests started after the last cut can trigger the next one.
+ * A single lock guards the state; it is held for a few arithmetic operations per request.
+ */
+public class AdaptiveConcurrencyLimiter {
+    // Smoothing factors of the exponentially weighted moving averages
+    private static final double LATENCY_ALPHA = 0.2;
+    private static final double ERROR_ALPHA = 0.1;
+    // The baseline follows the smoothed latency down at once and up only very slowly
+    private static final double BASELINE_DRIFT = 0.001;
+    // Latency increases below this are noise, whatever the ratio
+    private static final long MIN_LATENCY_INCREASE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double maxErrorRate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int peakInFlight;
+    private double smoothedLatencyNanos = -1;
+    private double baselineLatencyNanos = -1;
+    private double errorRate;
+    private long lastDecreaseNanos = Long.MIN_VALUE;
+    private long decreases;
+    private long waits;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double latencyTolerance, double maxErrorRate) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits: min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1, got: " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.maxErrorRate = maxErrorRate;
+    }
+
+    /**
+     * Waits until fewer requests than the current limit are in flight and takes a slot. The wait ends with a
+     * {@link DeadlineExceededException} when the {@link Deadline} budget of the calling thread runs out first.
+     *
+     * @return start time to pass to {@link #release(long, boolean)}
+     */
+    public long acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                waits++;
+                long remainingNanos = Deadline.remainingNanos();
+                do {
+                    if (remainingNanos <= 0) {
+                        throw new DeadlineExceededException("No request slot became free before "
+                                + Deadline.effective().describe() + " ran out");
+                    }
+                    remainingNanos = permitReleased.awaitNanos(remainingNanos);
+                } while (inFlight >= (int) limit);
+            }
+            inFlight++;
+            peakInFlight = Math.max(peakInFlight, inFlight);
+            return System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives the slot back and adjusts the limit.
+     *
+     * @param startNanos value returned by {@link #acquire()}
+     * @param failed     the server answered 5xx or the request failed without a response
+     */
+    public void release(long startNanos, boolean failed) {
+        long now = System.nanoTime();
+        long latency = now - startNanos;
+        lock.lock();
+        try {
+            boolean limitWasReached = inFlight >= (int) limit;
+            inFlight--;
+
+            errorRate += ERROR_ALPHA * ((failed ? 1.0 : 0.0) - errorRate);
+            if (!failed) {
+                updateLatency(latency);
+            }
+
+            boolean overloaded = errorRate > maxErrorRate || latencyIncreased();
+            if (overloaded) {
+                if (startNanos > lastDecreaseNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                    decreases++;
+                    // Judge the new limit on fresh evidence
+                    errorRate = 0;
+                    smoothedLatencyNanos = baselineLatencyNanos;
+                }
+            } else if (limitWasReached) {
+                // Only grow when the limit is what holds requests back
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateLatency(long latency) {
+        if (smoothedLatencyNanos < 0) {
+            smoothedLatencyNanos = latency;
+            baselineLatencyNanos = latency;
+            return;
+        }
+        smoothedLatencyNanos += LATENCY_ALPHA * (latency - smoothedLatencyNanos);
+        if (smoothedLatencyNanos < baselineLatencyNanos) {
+            baselineLatencyNanos = smoothedLatencyNanos;
+        } else {
+            baselineLatencyNanos += BASELINE_DRIFT * (smoothedLatencyNanos - baselineLatencyNanos);
+        }
+    }
+
+    private boolean latencyIncreased() {
+        return baselineLatencyNanos > 0
+                && smoothedLatencyNanos > baselineLatencyNanos * latencyTolerance
+                && smoothedLatencyNanos - baselineLatencyNanos > MIN_LATENCY_INCREASE_NANOS;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats((int) limit, inFlight, peakInFlight, decreases, waits,
+                    smoothedLatencyNanos / 1_000_000.0, baselineLatencyNanos / 1_000_000.0, errorRate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Point-in-time view of the limiter, used as the concurrency metric.
+     */
+    public static class Stats {
+        private final int limit;
+        private final int inFlight;
+        private final int peakInFlight;
+        private final long decreases;
+        private final long waits;
+        private final double latencyMs;
+        private final double baselineLatencyMs;
+        private final double errorRate;
+
+        Stats(int limit, int inFlight, int peakInFlight, long decreases, long waits,
+              double latencyMs, double baselineLatencyMs, double errorRate) {
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.peakInFlight = peakInFlight;
+            this.decreases = decreases;
+            this.waits = waits;
+            this.latencyMs = latencyMs;
+            this.baselineLatencyMs = baselineLatencyMs;
+            this.errorRate = errorRate;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public int getPeakInFlight() {
+            return peakInFlight;
+        }
+
+        public long getDecreases() {
+            return decreases;
+        }
+
+        public long getWaits() {
+            return waits;
+        }
+
+        public double getLatencyMs() {
+            return latencyMs;
+        }
+
+        public double getBaselineLatencyMs() {
+            return baselineLatencyMs;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LimiterStats{limit=%d, inFlight=%d, peakInFlight=%d, decreases=%d, waits=%d, "
+                            + "latencyMs=%.1f, baselineLatencyMs=%.1f, errorRate=%.3f}",
+                    limit, inFlight, peakInFlight, decreases, waits, latencyMs, baselineLatencyMs, errorRate);
+        }
+    }
+}
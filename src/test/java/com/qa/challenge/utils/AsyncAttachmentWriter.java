@@ -0,0 +1,211 @@
+package com.qa.challenge.utils;
+
+import com.qa.challenge.jfr.AllureWriteEvent;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes Allure attachment files off the test thread, in batches.
+ * <p>
+ * {@link Allure#addAttachment} adds the attachment to the current step and writes its file in the same call.
+ * Here the test thread only does the first part ({@link AllureLifecycle#prepareAttachment}), which is an in-memory
+ * change, and queues the content. One writer thread drains the queue in batches of up to
+ * {@code allure.attachments.batchSize} and writes the files.
+ * <p>
+ * The queue is bounded by entries and by bytes. When either is used up, {@link #attach} blocks until the writer
+ * has caught up, so a slow disk slows the test down instead of filling the heap. {@link #flush()} waits until
+ * everything queued so far is on disk. It is called when a test fails and at the end of the run, and a
+ * shutdown hook calls it too. An attachment of a failed test is therefore never lost in the queue.
+ */
+public final class AsyncAttachmentWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAttachmentWriter.class);
+    private static final AsyncAttachmentWriter shared = new AsyncAttachmentWriter(TestConfig.ALLURE_ATTACHMENTS_QUEUE_SIZE,
+            TestConfig.ALLURE_ATTACHMENTS_QUEUE_BYTES, TestConfig.ALLURE_ATTACHMENTS_BATCH_SIZE);
+
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    // Bytes queued and not yet written; a single attachment larger than the budget takes the whole budget
+    private final Semaphore queuedBytes;
+    private final int maxQueuedBytes;
+    private final Object flushLock = new Object();
+    // Sequence numbers: attachments enqueued so far, and attachments written (or given up on) so far
+    private final AtomicLong enqueued = new AtomicLong();
+    private long written;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder blockedOnFullQueue = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    AsyncAttachmentWriter(int queueSize, int maxQueuedBytes, int batchSize) {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.queuedBytes = new Semaphore(maxQueuedBytes);
+        Thread writer = new Thread(this::writeLoop, "allure-attachment-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> awaitWritten(enqueued.get()), "allure-attachment-flush"));
+    }
+
+    /**
+     * Adds a text attachment to the current step or test. With {@code allure.attachments.async=false}, or when no
+     * test is running on this thread, this is plain {@link Allure#addAttachment}.
+     */
+    public static void attach(String name, String content) {
+        attach(name, "text/plain", content, ".txt");
+    }
+
+    public static void attach(String name, String type, String content, String fileExtension) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        if (!TestConfig.ALLURE_ATTACHMENTS_ASYNC || lifecycle.getCurrentTestCaseOrStep().isEmpty()) {
+            Allure.addAttachment(name, type, content, fileExtension);
+            return;
+        }
+        shared.enqueue(lifecycle, name, type, content.getBytes(StandardCharsets.UTF_8), fileExtension);
+    }
+
+    /**
+     * Waits until every attachment queued so far has been written.
+     */
+    public static void flush() {
+        shared.awaitWritten(shared.enqueued.get());
+    }
+
+    public static String stats() {
+        return shared.toString();
+    }
+
+    private void enqueue(AllureLifecycle lifecycle, String name, String type, byte[] content, String fileExtension) {
+        // Adds the attachment to the current step now, so it lands in the right place; only the file comes later
+        String source = lifecycle.prepareAttachment(name, type, fileExtension);
+        int permits = Math.min(content.length, maxQueuedBytes);
+        Pending pending = new Pending(lifecycle, source, content, permits);
+        boolean acquired = false;
+        boolean numbered = false;
+        try {
+            if (!queuedBytes.tryAcquire(permits)) {
+                blockedOnFullQueue.increment();
+                queuedBytes.acquire(permits);
+            }
+            acquired = true;
+            // Numbered before it is queued, so flush() never waits for a number that is not coming
+            enqueued.incrementAndGet();
+            numbered = true;
+            if (!queue.offer(pending)) {
+                blockedOnFullQueue.increment();
+                queue.put(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Still write it, on this thread, rather than leave a dangling reference in the report. Only what
+            // happened before the interrupt is undone: the byte budget and flush() count on it
+            try {
+                lifecycle.writeAttachment(source, new ByteArrayInputStream(content));
+            } finally {
+                if (acquired) {
+                    queuedBytes.release(permits);
+                }
+                if (numbered) {
+                    markWritten(1);
+                }
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            AllureWriteEvent event = new AllureWriteEvent();
+            event.begin();
+            long bytes = 0;
+            for (Pending pending : batch) {
+                bytes += pending.content.length;
+                try {
+                    pending.lifecycle.writeAttachment(pending.source, new ByteArrayInputStream(pending.content));
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    logger.warn("Could not write Allure attachment {}", pending.source, e);
+                } finally {
+                    queuedBytes.release(pending.permits);
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.setAttachments(batch.size());
+                event.setBytes(bytes);
+                event.commit();
+            }
+            batches.increment();
+            markWritten(batch.size());
+            batch.clear();
+        }
+    }
+
+    private void markWritten(int count) {
+        synchronized (flushLock) {
+            written += count;
+            flushLock.notifyAll();
+        }
+    }
+
+    private void awaitWritten(long target) {
+        synchronized (flushLock) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (written < target) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    logger.warn("Gave up waiting for {} Allure attachments to be written", target - written);
+                    return;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(flushLock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        long writtenSoFar;
+        synchronized (flushLock) {
+            writtenSoFar = written;
+        }
+        return "AsyncAttachmentWriter{queued=" + enqueued.get() + ", written=" + writtenSoFar + ", batches="
+                + batches.sum() + ", blockedOnFullQueue=" + blockedOnFullQueue.sum() + ", failed=" + failed.sum() + "}";
+    }
+
+    private static final class Pending {
+        private final AllureLifecycle lifecycle;
+        private final String source;
+        private final byte[] content;
+        private final int permits;
+
+        Pending(AllureLifecycle lifecycle, String source, byte[] content, int permits) {
+            this.lifecycle = lifecycle;
+            this.source = source;
+            this.content = content;
+            this.permits = permits;
+        }
+    }
+}
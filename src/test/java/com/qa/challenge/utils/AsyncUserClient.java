@@ -0,0 +1,400 @@
+package com.qa.challenge.utils;
+
+import com.qa.challenge.models.UserResponse;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking client for {@code GET /api/test/user/{id}}, built on {@code java.net.http.HttpClient}.
+ * <p>
+ * RestAssured blocks a thread per request and HttpClient 4 uses a connection per request in flight. Here one
+ * thread can keep many requests in flight: with {@code HTTP_2} they are multiplexed over one connection where the
+ * server negotiates HTTP/2 (ALPN over TLS, h2c upgrade over plain HTTP); otherwise the JDK client falls back to
+ * HTTP/1.1 with its own keep-alive connection pool. A semaphore caps the requests in flight; requests over the
+ * cap are queued and sent as slots free up, so {@link #getUser(int)} never blocks the caller.
+ * <p>
+ * Responses are checked against {@link JsonContract#USER_RESPONSE} and decoded, in one parse, on the client's
+ * worker threads. Timings go into {@link LatencyRecorder} like those of {@link RestClient}, and the shared
+ * {@link Cassette} is honoured, so record/replay covers this client too. The response cache, the adaptive limit and hedging do not apply.
+ */
+public class AsyncUserClient {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUserClient.class);
+
+    private static final AsyncUserClient shared = new AsyncUserClient(TestConfig.BASE_URL,
+            HttpClient.Version.valueOf(TestConfig.HTTP_ASYNC_VERSION.toUpperCase(Locale.ROOT)),
+            TestConfig.HTTP_ASYNC_MAX_IN_FLIGHT, Duration.ofSeconds(TestConfig.HTTP_ASYNC_TIMEOUT_SECONDS));
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    // Requests waiting for a slot, sent by whichever thread frees one or queues the next request
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    // Threads that asked for a drain; only the first one drains, the others make it loop once more
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+    private final Cassette cassette = Cassette.shared();
+
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder http1Responses = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param version        preferred protocol; {@code HTTP_2} still falls back to HTTP/1.1 per connection
+     * @param maxInFlight    requests sent and not yet answered, across all callers
+     * @param requestTimeout time allowed for connecting and for one response; zero or negative for no limit
+     */
+    public AsyncUserClient(String baseUrl, HttpClient.Version version, int maxInFlight, Duration requestTimeout) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in flight must be at least 1, got: " + maxInFlight);
+        }
+        this.baseUrl = baseUrl;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.requestTimeout = requestTimeout;
+        HttpClient.Builder builder = HttpClient.newBuilder().version(version);
+        if (requestTimeout.compareTo(Duration.ZERO) > 0) {
+            builder.connectTimeout(requestTimeout);
+        }
+        this.client = builder.build();
+    }
+
+    /**
+     * Returns the client shared by all tests in this JVM, configured from {@link TestConfig}.
+     */
+    public static AsyncUserClient shared() {
+        return shared;
+    }
+
+    /**
+     * Fetches one user without blocking the caller. While {@code maxInFlight} requests are already in flight the
+     * request is queued; it keeps the test name and deadline budget of the caller until it is sent.
+     * The future never completes exceptionally; I/O failures are reported in the {@link UserResult}.
+     */
+    public CompletableFuture<UserResult> getUser(int id) {
+        Pending request = new Pending(TestContext.wrap(() -> send(id)));
+        pending.add(request);
+        drain();
+        return request.result;
+    }
+
+    // Sends queued requests while slots are free. A drain requested while another thread drains makes that thread
+    // go round once more instead of recursing, since a request that completes at once frees its slot inline.
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!pending.isEmpty() && inFlight.tryAcquire()) {
+                Pending request = pending.poll();
+                if (request == null) {
+                    inFlight.release();
+                } else {
+                    dispatch(request);
+                }
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void dispatch(Pending request) {
+        CompletableFuture<UserResult> sent;
+        try {
+            sent = request.send.call();
+        } catch (Exception e) {
+            inFlight.release();
+            request.result.completeExceptionally(e);
+            drain();
+            return;
+        }
+        sent.whenComplete((result, error) -> {
+            inFlight.release();
+            if (error != null) {
+                request.result.completeExceptionally(error);
+            } else {
+                request.result.complete(result);
+            }
+            drain();
+        });
+    }
+
+    /**
+     * Fetches every user and streams the results to {@code onResult} as they arrive, in completion order.
+     * The callback may run on several threads at once. The returned future completes when all results have
+     * been delivered, or exceptionally as soon as the callback throws.
+     */
+    public CompletableFuture<Void> getUsers(int[] ids, Consumer<UserResult> onResult) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (ids.length == 0) {
+            done.complete(null);
+            return done;
+        }
+        AtomicInteger remaining = new AtomicInteger(ids.length);
+        long start = System.nanoTime();
+        done.thenRun(() -> logger.info("Fetched {} users in {} ms: {}",
+                ids.length, (System.nanoTime() - start) / 1_000_000, stats()));
+        for (int id : ids) {
+            if (done.isDone()) {
+                break;
+            }
+            getUser(id).whenComplete((result, error) -> {
+                try {
+                    if (error != null) {
+                        done.completeExceptionally(error);
+                        return;
+                    }
+                    onResult.accept(result);
+                } catch (Throwable t) {
+                    done.completeExceptionally(t);
+                    return;
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    done.complete(null);
+                }
+            });
+        }
+        return done;
+    }
+
+    /**
+     * Fetches every user; the list is in the order of {@code ids}. For very large ID lists prefer the
+     * streaming {@link #getUsers(int[], Consumer)}, which does not hold all responses at once.
+     */
+    public CompletableFuture<List<UserResult>> getUsers(int[] ids) {
+        List<CompletableFuture<UserResult>> futures = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            futures.add(getUser(id));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<UserResult> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<UserResult> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(maxInFlight, maxInFlight - inFlight.availablePermits(),
+                http2Responses.sum(), http1Responses.sum(), failures.sum());
+    }
+
+    private CompletableFuture<UserResult> send(int id) {
+        String path = TestConfig.USER_ENDPOINT.replace("{id}", String.valueOf(id));
+        String signature = Cassette.signature("GET", path);
+        if (cassette.getMode() == Cassette.Mode.REPLAY) {
+            return CompletableFuture.completedFuture(replay(id, signature));
+        }
+
+        URI uri = URI.create(baseUrl + path);
+        // The request timeout, or less when the caller's deadline budget runs out earlier; null when neither is set
+        Deadline.Budget budget = Deadline.forRequest(requestTimeout.toMillis());
+        if (budget != null && budget.isExpired()) {
+            failures.increment();
+            return CompletableFuture.completedFuture(new UserResult(id, 0, null, List.of(), null,
+                    new DeadlineExceededException("GET " + uri + " was not sent: " + budget.describe() + " ran out"), 0));
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .header("Accept", "application/json")
+                .GET();
+        if (budget != null) {
+            builder.timeout(Duration.ofNanos(Math.max(1, budget.remainingNanos())));
+        }
+        HttpRequest request = builder.build();
+        String testName = TestContext.currentTestName();
+        long start = System.nanoTime();
+        long[] headersAt = new long[1];
+        HttpResponse.BodyHandler<byte[]> handler = info -> {
+            headersAt[0] = System.nanoTime();
+            return HttpResponse.BodySubscribers.ofByteArray();
+        };
+
+        return client.sendAsync(request, handler).handle((response, error) -> {
+            long end = System.nanoTime();
+            if (error != null) {
+                failures.increment();
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                logger.debug("GET {} failed", uri, cause);
+                LatencyRecorder.recordFailure(TestConfig.USER_ENDPOINT, testName, uri.toString(), end - start, cause);
+                return new UserResult(id, 0, null, List.of(), null, cause, end - start);
+            }
+            (response.version() == HttpClient.Version.HTTP_2 ? http2Responses : http1Responses).increment();
+            byte[] body = response.body();
+            LatencyRecorder.record(TestConfig.USER_ENDPOINT, response.statusCode(), testName, uri.toString(),
+                    end - start, headersAt[0] - start, body.length);
+            if (cassette.getMode() == Cassette.Mode.RECORD) {
+                cassette.record(signature, response.statusCode(), statusLine(response), toHeaders(response.headers()), body);
+            }
+            return decode(id, response.statusCode(), body, end - start);
+        });
+    }
+
+    private UserResult replay(int id, String signature) {
+        Cassette.RecordedExchange exchange = cassette.replay(signature);
+        if (exchange == null) {
+            return new UserResult(id, 0, null, List.of(), null, new IllegalStateException("No recorded exchange for "
+                    + signature + " in the cassette; re-record it with -Dhttp.cassette=record"), 0);
+        }
+        return decode(id, exchange.getStatusCode(), exchange.getBody(), 0);
+    }
+
+    private UserResult decode(int id, int statusCode, byte[] body, long latencyNanos) {
+        if (statusCode < 200 || statusCode >= 300) {
+            return new UserResult(id, statusCode, null, List.of(), new String(body, StandardCharsets.UTF_8), null, latencyNanos);
+        }
+        // One parse for both the contract check and the model
+        JsonContract.Checked checked = JsonContract.USER_RESPONSE.check(body);
+        try {
+            UserResponse response = checked.as(UserResponse.class);
+            // Keep the body of answers a test is going to report
+            boolean reportable = !checked.isValid() || !response.getSuccess() || response.getUser() == null;
+            return new UserResult(id, statusCode, response, checked.getViolations(),
+                    reportable ? new String(body, StandardCharsets.UTF_8) : null, null, latencyNanos);
+        } catch (IllegalStateException e) {
+            return new UserResult(id, statusCode, null, checked.getViolations(),
+                    new String(body, StandardCharsets.UTF_8), e, latencyNanos);
+        }
+    }
+
+    private static String statusLine(HttpResponse<?> response) {
+        return (response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1") + " " + response.statusCode();
+    }
+
+    private static Headers toHeaders(HttpHeaders headers) {
+        List<Header> list = new ArrayList<>();
+        headers.map().forEach((name, values) -> values.forEach(value -> list.add(new Header(name, value))));
+        return new Headers(list);
+    }
+
+    private static final class Pending {
+        private final Callable<CompletableFuture<UserResult>> send;
+        private final CompletableFuture<UserResult> result = new CompletableFuture<>();
+
+        Pending(Callable<CompletableFuture<UserResult>> send) {
+            this.send = send;
+        }
+    }
+
+    /**
+     * Outcome of one user request. The raw body is only kept when it was not a successful, schema-valid user answer.
+     */
+    public static class UserResult {
+        private final int id;
+        private final int statusCode;
+        private final UserResponse response;
+        private final List<String> contractViolations;
+        private final String errorBody;
+        private final Throwable failure;
+        private final long latencyNanos;
+
+        UserResult(int id, int statusCode, UserResponse response, List<String> contractViolations, String errorBody,
+                   Throwable failure, long latencyNanos) {
+            this.id = id;
+            this.statusCode = statusCode;
+            this.response = response;
+            this.contractViolations = contractViolations;
+            this.errorBody = errorBody;
+            this.failure = failure;
+            this.latencyNanos = latencyNanos;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        // 0 when no response was received
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public UserResponse getResponse() {
+            return response;
+        }
+
+        // Differences from JsonContract.USER_RESPONSE; empty for valid and for non-2xx answers
+        public List<String> getContractViolations() {
+            return contractViolations;
+        }
+
+        public String getErrorBody() {
+            return errorBody;
+        }
+
+        // I/O failure, timeout, cassette miss or undecodable body; null otherwise
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+    }
+
+    /**
+     * Point-in-time view of the client, including which protocol the server actually answered with.
+     */
+    public static class Stats {
+        private final int maxInFlight;
+        private final int inFlight;
+        private final long http2Responses;
+        private final long http1Responses;
+        private final long failures;
+
+        Stats(int maxInFlight, int inFlight, long http2Responses, long http1Responses, long failures) {
+            this.maxInFlight = maxInFlight;
+            this.inFlight = inFlight;
+            this.http2Responses = http2Responses;
+            this.http1Responses = http1Responses;
+            this.failures = failures;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public long getHttp2Responses() {
+            return http2Responses;
+        }
+
+        public long getHttp1Responses() {
+            return http1Responses;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("AsyncClientStats{maxInFlight=%d, inFlight=%d, http2Responses=%d, http1Responses=%d, failures=%d}",
+                    maxInFlight, inFlight, http2Responses, http1Responses, failures);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.qa.challenge.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Reads every response body into memory as soon as the response arrives.
+ * <p>
+ * With a shared, pooled HttpClient a connection only goes back to the pool once its body has been read.
+ * Tests that only look at the status code would otherwise hold on to their connection until the pool runs dry.
+ * RestAssured keeps the bytes, so later {@code asString()} / {@code as(...)} calls do not read the stream again.
+ */
+public class BufferedBodyFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        response.asByteArray();
+        return response;
+    }
+}
@@ -0,0 +1,18 @@
+package com.qa.challenge.utils;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test method or class whose requests must reach the server even when the response cache is on
+ * ({@code -Dhttp.cache.enabled=true}), e.g. because it checks the server's current state or measures it.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(ResponseCacheBypassExtension.class)
+public @interface BypassResponseCache {
+}
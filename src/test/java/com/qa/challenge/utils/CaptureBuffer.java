@@ -0,0 +1,107 @@
+package com.qa.challenge.utils;
+
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-thread ring buffer of the most recent {@link CapturedExchange}s.
+ * <p>
+ * Each thread only touches its own ring, so recording needs no locking. Once the ring is full the oldest
+ * exchange is overwritten, which bounds memory to ring size times the body cap per thread.
+ */
+public final class CaptureBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(CaptureBuffer.class);
+    private static final ThreadLocal<Ring> rings = ThreadLocal.withInitial(() -> new Ring(TestConfig.HTTP_CAPTURE_RING_SIZE));
+
+    private CaptureBuffer() {
+    }
+
+    static void record(CapturedExchange exchange) {
+        rings.get().add(exchange);
+    }
+
+    /**
+     * Forgets everything captured on the current thread, e.g. before a new test starts.
+     */
+    public static void clear() {
+        rings.get().clear();
+    }
+
+    /**
+     * Returns the exchanges captured on the current thread, oldest first.
+     */
+    public static List<CapturedExchange> recent() {
+        return rings.get().snapshot();
+    }
+
+    /**
+     * Writes one exchange to the log and, when a test is running on this thread, to the Allure report.
+     */
+    static void write(String title, CapturedExchange exchange) {
+        String text = exchange.render();
+        logger.info("{}\n{}", title, text);
+        attach(title, text);
+    }
+
+    /**
+     * Writes everything captured on the current thread. Used when a test fails.
+     */
+    public static void writeRecent(String reason) {
+        List<CapturedExchange> exchanges = recent();
+        if (exchanges.isEmpty()) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < exchanges.size(); i++) {
+            text.append("----- Request ").append(i + 1).append(" of ").append(exchanges.size()).append(" -----\n");
+            text.append(exchanges.get(i).render()).append('\n');
+        }
+        logger.warn("{}: last {} HTTP exchanges\n{}", reason, exchanges.size(), text);
+        attach("Last " + exchanges.size() + " HTTP exchanges", text.toString());
+    }
+
+    private static void attach(String name, String text) {
+        // Worker threads (e.g. FanOutRunner) have no Allure test context; the log is enough there
+        if (Allure.getLifecycle().getCurrentTestCaseOrStep().isPresent()) {
+            AsyncAttachmentWriter.attach(name, text);
+        }
+    }
+
+    private static final class Ring {
+        private final CapturedExchange[] slots;
+        private int next;
+        private int size;
+
+        Ring(int capacity) {
+            slots = new CapturedExchange[Math.max(1, capacity)];
+        }
+
+        void add(CapturedExchange exchange) {
+            slots[next] = exchange;
+            next = (next + 1) % slots.length;
+            if (size < slots.length) {
+                size++;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(slots, null);
+            next = 0;
+            size = 0;
+        }
+
+        List<CapturedExchange> snapshot() {
+            List<CapturedExchange> result = new ArrayList<>(size);
+            int start = (next - size + slots.length) % slots.length;
+            for (int i = 0; i < size; i++) {
+                result.add(slots[(start + i) % slots.length]);
+            }
+            return result;
+        }
+    }
+}
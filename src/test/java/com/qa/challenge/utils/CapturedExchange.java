@@ -0,0 +1,75 @@
+package com.qa.challenge.utils;
+
+import io.restassured.http.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One request/response pair kept by {@link FailureCaptureFilter}.
+ * <p>
+ * Only references and a capped copy of the body are stored; the text is built by {@link #render()}
+ * when the exchange is actually written out, so passing requests never pay for formatting.
+ */
+public final class CapturedExchange {
+    private final String testName;
+    private final String method;
+    private final String uri;
+    private final Headers requestHeaders;
+    private final Object requestBody;
+    private final String statusLine;
+    private final int statusCode;
+    private final Headers responseHeaders;
+    private final byte[] responseBody;
+    private final int responseBodyLength;
+    private final int maxBodyBytes;
+
+    CapturedExchange(String testName, String method, String uri, Headers requestHeaders, Object requestBody,
+                     String statusLine, int statusCode, Headers responseHeaders,
+                     byte[] responseBody, int responseBodyLength, int maxBodyBytes) {
+        this.testName = testName;
+        this.method = method;
+        this.uri = uri;
+        this.requestHeaders = requestHeaders;
+        this.requestBody = requestBody;
+        this.statusLine = statusLine;
+        this.statusCode = statusCode;
+        this.responseHeaders = responseHeaders;
+        this.responseBody = responseBody;
+        this.responseBodyLength = responseBodyLength;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String render() {
+        StringBuilder text = new StringBuilder(512 + responseBody.length);
+        text.append("Test: ").append(testName).append('\n');
+        text.append("Request: ").append(method).append(' ').append(uri).append('\n');
+        text.append("Request headers:\n").append(requestHeaders).append('\n');
+        if (requestBody != null) {
+            text.append("Request body:\n").append(truncate(String.valueOf(requestBody))).append('\n');
+        }
+        text.append('\n').append(statusLine).append('\n');
+        text.append("Response headers:\n").append(responseHeaders).append('\n');
+        text.append("Response body");
+        if (responseBody.length < responseBodyLength) {
+            text.append(" (first ").append(responseBody.length).append(" of ").append(responseBodyLength).append(" bytes)");
+        }
+        text.append(":\n").append(new String(responseBody, StandardCharsets.UTF_8)).append('\n');
+        return text.toString();
+    }
+
+    private String truncate(String body) {
+        return body.length() <= maxBodyBytes ? body : body.substring(0, maxBodyBytes) + "... (truncated)";
+    }
+}
@@ -0,0 +1,344 @@
+package com.qa.challenge.utils;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only file of recorded HTTP exchanges, used by {@link CassetteFilter} to run the suite without a network.
+ * <p>
+ * In record mode every exchange is appended as one length-prefixed record: request signature, status code,
+ * status line, headers and body. Recording appends to an existing file; when a signature occurs more than once,
+ * the last record wins. In replay mode the file is memory-mapped read-only and scanned once to index the offset
+ * of each signature's record, so a lookup is one hash probe plus a copy of the body out of the page cache.
+ * Requests with no record are collected as misses and reported at the end of the run, so the cassette can be
+ * re-recorded.
+ * <p>
+ * Files are limited to 2 GB, the size of one mapped buffer.
+ */
+public final class Cassette implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Cassette.class);
+    // "CAS1"
+    private static final int MAGIC = 0x43415331;
+    // Connection-level or per-response headers; leaving them out keeps records small and replays deterministic
+    private static final Set<String> UNRECORDED_HEADERS =
+            Set.of("date", "connection", "keep-alive", "transfer-encoding", "content-length");
+
+    public enum Mode {
+        OFF, RECORD, REPLAY;
+
+        static Mode parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static Cassette shared;
+
+    private final Mode mode;
+    private final Path file;
+    // Record mode
+    private DataOutputStream out;
+    // Replay mode
+    private ByteBuffer mapped;
+    private Map<String, Integer> index;
+
+    private final Set<String> misses = new TreeSet<>();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+
+    private Cassette(Mode mode, Path file) {
+        this.mode = mode;
+        this.file = file;
+    }
+
+    /**
+     * Returns the JVM-wide cassette configured by {@link TestConfig#HTTP_CASSETTE_MODE}, opening it on first use.
+     */
+    public static synchronized Cassette shared() {
+        if (shared == null) {
+            shared = open(Mode.parse(TestConfig.HTTP_CASSETTE_MODE), Paths.get(TestConfig.HTTP_CASSETTE_FILE));
+        }
+        return shared;
+    }
+
+    /**
+     * Flushes and reports the shared cassette, if one was opened. Called once at the end of the test run.
+     */
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+        }
+    }
+
+    public static Cassette open(Mode mode, Path file) {
+        Cassette cassette = new Cassette(mode, file);
+        try {
+            if (mode == Mode.RECORD) {
+                cassette.openForRecording();
+            } else if (mode == Mode.REPLAY) {
+                cassette.openForReplay();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open cassette " + file.toAbsolutePath(), e);
+        }
+        return cassette;
+    }
+
+    private void openForRecording() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024));
+        if (isNew) {
+            out.writeInt(MAGIC);
+        }
+        logger.info("Recording HTTP exchanges to {}", file.toAbsolutePath());
+    }
+
+    private void openForReplay() throws IOException {
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("Cassette " + file.toAbsolutePath()
+                    + " does not exist; record one first with -Dhttp.cassette=record");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Cassette " + file + " is larger than 2 GB");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped = buffer;
+        }
+        index = buildIndex(mapped);
+        logger.info("Replaying {} recorded exchanges from {}", index.size(), file.toAbsolutePath());
+    }
+
+    private Map<String, Integer> buildIndex(ByteBuffer buffer) {
+        ByteBuffer scan = buffer.duplicate();
+        if (scan.remaining() < Integer.BYTES || scan.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a cassette file: " + file.toAbsolutePath());
+        }
+        Map<String, Integer> offsets = new HashMap<>();
+        while (scan.hasRemaining()) {
+            int recordStart = scan.position();
+            try {
+                String signature = readString(scan);
+                offsets.put(signature, scan.position());
+                skipExchange(scan);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                // A run that was killed while recording leaves a partial last record
+                logger.warn("Ignoring truncated record at byte {} of {}", recordStart, file);
+                break;
+            }
+        }
+        return offsets;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Key of a request in the cassette, e.g. {@code GET /api/test/user/5}: no scheme and host, so a cassette
+     * recorded against one base URL replays for another.
+     *
+     * @param pathAndQuery encoded path and query string
+     */
+    public static String signature(String method, String pathAndQuery) {
+        return method.toUpperCase(Locale.ROOT) + " " + pathAndQuery;
+    }
+
+    /**
+     * Appends one exchange, without connection-level headers such as {@code Date} and {@code Content-Length}.
+     * Thread-safe; each record is flushed as a whole.
+     */
+    public void record(String signature, int statusCode, String statusLine, Headers headers, byte[] body) {
+        synchronized (this) {
+            try {
+                writeString(signature);
+                out.writeInt(statusCode);
+                writeString(statusLine == null ? "" : statusLine);
+                List<Header> kept = new ArrayList<>(headers.size());
+                for (Header header : headers) {
+                    if (!UNRECORDED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                        kept.add(header);
+                    }
+                }
+                out.writeInt(kept.size());
+                for (Header header : kept) {
+                    writeString(header.getName());
+                    writeString(header.getValue());
+                }
+                out.writeInt(body.length);
+                out.write(body);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write to cassette " + file, e);
+            }
+        }
+        recorded.increment();
+    }
+
+    public boolean contains(String signature) {
+        return index != null && index.containsKey(signature);
+    }
+
+    /**
+     * Returns the recorded exchange for the signature, or {@code null} after noting a miss.
+     */
+    public RecordedExchange replay(String signature) {
+        Integer offset = index.get(signature);
+        if (offset == null) {
+            synchronized (misses) {
+                misses.add(signature);
+            }
+            return null;
+        }
+        ByteBuffer read = mapped.duplicate();
+        read.position(offset);
+        int statusCode = read.getInt();
+        String statusLine = readString(read);
+        int headerCount = read.getInt();
+        List<Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new Header(readString(read), readString(read)));
+        }
+        byte[] body = new byte[read.getInt()];
+        read.get(body);
+        replayed.increment();
+        return new RecordedExchange(statusCode, statusLine, new Headers(headers), body);
+    }
+
+    public List<String> misses() {
+        synchronized (misses) {
+            return new ArrayList<>(misses);
+        }
+    }
+
+    /**
+     * Flushes a recording, or logs and writes the misses of a replay. {@link #closeShared()} does this for the
+     * shared cassette.
+     */
+    @Override
+    public void close() {
+        if (out != null) {
+            synchronized (this) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    logger.warn("Could not close cassette {}", file, e);
+                }
+            }
+            logger.info("Recorded {} HTTP exchanges to {}", recorded.sum(), file.toAbsolutePath());
+        }
+        if (mode == Mode.REPLAY) {
+            List<String> missed = misses();
+            logger.info("Replayed {} HTTP exchanges from {}, {} requests not recorded",
+                    replayed.sum(), file.toAbsolutePath(), missed.size());
+            if (!missed.isEmpty()) {
+                logger.warn("Cassette misses (re-record with -Dhttp.cassette=record):\n  {}", String.join("\n  ", missed));
+                writeMisses(missed);
+            }
+        }
+    }
+
+    private static void writeMisses(List<String> missed) {
+        Path report = Paths.get(System.getProperty("http.cassette.missesFile", "target/metrics/cassette-misses.txt"));
+        try {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            Files.write(report, missed, StandardCharsets.UTF_8);
+            logger.info("Cassette misses written to {}", report.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Could not write cassette misses to {}", report, e);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipExchange(ByteBuffer buffer) {
+        buffer.getInt(); // status code
+        skip(buffer, buffer.getInt()); // status line
+        int headerCount = buffer.getInt();
+        for (int i = 0; i < headerCount * 2; i++) {
+            skip(buffer, buffer.getInt());
+        }
+        skip(buffer, buffer.getInt()); // body
+    }
+
+    private static void skip(ByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * One exchange read back from the cassette.
+     */
+    public static final class RecordedExchange {
+        private final int statusCode;
+        private final String statusLine;
+        private final Headers headers;
+        private final byte[] body;
+
+        RecordedExchange(int statusCode, String statusLine, Headers headers, byte[] body) {
+            this.statusCode = statusCode;
+            this.statusLine = statusLine;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getStatusLine() {
+            return statusLine;
+        }
+
+        public Headers getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.qa.challenge.utils;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.internal.RestAssuredResponseImpl;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Records every exchange to a {@link Cassette}, or answers every request from it without touching the network.
+ * <p>
+ * Registered as a global filter, so direct {@code RestAssured.given()} calls are covered too. Its order puts it
+ * after all other filters except Allure's, i.e. right in front of the HTTP client: the concurrency limit, the
+ * response cache and failure capture see replayed responses just like real ones.
+ * <p>
+ * The signature is the method, the path and the query string, without scheme and host, so a cassette recorded
+ * against the stub server replays for the live base URL and vice versa. Conditional requests also carry their
+ * {@code If-None-Match}/{@code If-Modified-Since} values, so a recorded 304 never replaces the 200 of the same URL.
+ * A conditional request with no record of its own replays the unconditional answer, which is a valid answer to it
+ * too. A replay miss fails the request with a message naming the signature; all misses are listed at the end of
+ * the run.
+ * <p>
+ * Requests made through {@link #bypass(Supplier)} go past the filter untouched, e.g. those of
+ * {@link RestClient#forBaseUrl} clients, whose fault-injected answers must neither be recorded nor replayed.
+ */
+public class CassetteFilter implements OrderedFilter {
+    private final Cassette cassette;
+    // The server may answer 304 instead of 200 when these are sent
+    private static final List<String> CONDITIONAL_HEADERS = List.of("If-None-Match", "If-Modified-Since");
+
+    // Set while a request that must not use this cassette is sent on this thread
+    private final ThreadLocal<Boolean> bypassed = new ThreadLocal<>();
+
+    public CassetteFilter(Cassette cassette) {
+        this.cassette = cassette;
+    }
+
+    @Override
+    public int getOrder() {
+        // AllureRestAssured has LOWEST_PRECEDENCE
+        return LOWEST_PRECEDENCE - 1;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (bypassed.get() != null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String signature = signature(requestSpec);
+        if (cassette.getMode() == Cassette.Mode.REPLAY) {
+            String unconditional = unconditionalSignature(requestSpec);
+            Cassette.RecordedExchange exchange = cassette.replay(
+                    cassette.contains(signature) ? signature : unconditional);
+            if (exchange == null) {
+                throw new IllegalStateException("No recorded exchange for " + signature + " in the cassette; "
+                        + "re-record it with -Dhttp.cassette=record");
+            }
+            return toResponse(exchange, requestSpec);
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (cassette.getMode() == Cassette.Mode.RECORD) {
+            cassette.record(signature, response.getStatusCode(), response.getStatusLine(),
+                    response.getHeaders(), response.asByteArray());
+        }
+        return response;
+    }
+
+    /**
+     * Runs {@code call} on the current thread with this filter passing its requests straight through.
+     */
+    <T> T bypass(Supplier<T> call) {
+        Boolean previous = bypassed.get();
+        bypassed.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                bypassed.remove();
+            }
+        }
+    }
+
+    static String signature(FilterableRequestSpecification requestSpec) {
+        StringBuilder signature = new StringBuilder(unconditionalSignature(requestSpec));
+        for (String validator : CONDITIONAL_HEADERS) {
+            String value = requestSpec.getHeaders().getValue(validator);
+            if (value != null) {
+                signature.append(" [").append(validator).append(": ").append(value).append(']');
+            }
+        }
+        return signature.toString();
+    }
+
+    private static String unconditionalSignature(FilterableRequestSpecification requestSpec) {
+        String uri = requestSpec.getURI();
+        // Drop scheme and host; RestAssured has already encoded the path and query
+        int schemeEnd = uri.indexOf("://");
+        int pathStart = schemeEnd < 0 ? 0 : uri.indexOf('/', schemeEnd + 3);
+        String pathAndQuery = pathStart < 0 ? "/" : uri.substring(pathStart);
+        Object body = requestSpec.getBody();
+        String signature = Cassette.signature(requestSpec.getMethod(), pathAndQuery);
+        return body == null ? signature : signature + " #" + Integer.toHexString(body.toString().hashCode());
+    }
+
+    private static Response toResponse(Cassette.RecordedExchange exchange, FilterableRequestSpecification requestSpec) {
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(exchange.getStatusCode())
+                .setHeaders(exchange.getHeaders())
+                .setBody(exchange.getBody());
+        if (!exchange.getStatusLine().isEmpty()) {
+            builder.setStatusLine(exchange.getStatusLine());
+        }
+        String contentType = exchange.getHeaders().getValue("Content-Type");
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        Response response = builder.build();
+        // ResponseBuilder falls back to the default config; use ours so the shared Jackson mapper deserializes
+        ((RestAssuredResponseImpl) response).setConfig(requestSpec.getConfig());
+        return response;
+    }
+}
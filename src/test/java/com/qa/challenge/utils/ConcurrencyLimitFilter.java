@@ -0,0 +1,42 @@
+package com.qa.challenge.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Holds every request until {@link AdaptiveConcurrencyLimiter} has a free slot and reports its outcome back.
+ * The body is read before the slot is released, so the measured latency covers the whole exchange.
+ */
+public class ConcurrencyLimitFilter implements Filter {
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start;
+        try {
+            start = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a concurrency slot", e);
+        }
+
+        boolean failed = true;
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            response.asByteArray();
+            failed = response.getStatusCode() >= 500;
+            return response;
+        } finally {
+            limiter.release(start, failed);
+        }
+    }
+}
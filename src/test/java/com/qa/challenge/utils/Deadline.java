@@ -0,0 +1,162 @@
+package com.qa.challenge.utils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of the work running on the current thread.
+ * <p>
+ * There are three levels: the whole run ({@code -Ddeadline.suiteSeconds}), each test ({@code -Ddeadline.testSeconds},
+ * set by {@link RunListener}) and any narrower budget a test opens with {@link #within(Duration)}. The one that runs
+ * out first applies. Every request is also limited by {@code http.requestTimeoutMillis} on its own.
+ * <p>
+ * {@link DeadlineFilter} refuses to send a request once the budget is gone and aborts a request still in flight when
+ * it runs out. {@link FanOutRunner} does not start the IDs still waiting, and {@link HedgingRetryPolicy} does not
+ * retry. Worker threads started with {@link TestContext#wrap} inherit the budget of the thread that created them.
+ */
+public final class Deadline {
+    // The run's budget applies on every thread, including threads no test has handed its context to
+    private static volatile Budget suite;
+    private static final ThreadLocal<Budget> current = new ThreadLocal<>();
+
+    private Deadline() {
+    }
+
+    /**
+     * Narrows the budget of the current thread until the returned scope is closed. A budget already in place that
+     * runs out earlier still applies.
+     * <pre>{@code
+     * try (Deadline.Scope ignored = Deadline.within(Duration.ofSeconds(2))) {
+     *     RestClient.shared().get(...);
+     * }
+     * }</pre>
+     */
+    public static Scope within(Duration budget) {
+        Budget previous = current.get();
+        current.set(Budget.of("scoped budget", budget.toMillis()).earliest(previous));
+        return new Scope(previous);
+    }
+
+    /**
+     * Time left in the budget of the current thread, or {@link Long#MAX_VALUE} without a budget.
+     */
+    public static long remainingNanos() {
+        Budget budget = effective();
+        return budget == null ? Long.MAX_VALUE : budget.remainingNanos();
+    }
+
+    public static boolean isExpired() {
+        Budget budget = effective();
+        return budget != null && budget.isExpired();
+    }
+
+    /**
+     * Fails if the budget of the current thread has run out.
+     *
+     * @param work what was about to start, for the message, e.g. {@code "GET /api/test/user/1"}
+     */
+    public static void check(String work) {
+        Budget budget = effective();
+        if (budget != null && budget.isExpired()) {
+            throw new DeadlineExceededException(work + " was not started: " + budget.describe() + " ran out");
+        }
+    }
+
+    // The budget of the thread or of the run, whichever runs out first; null when neither is set
+    static Budget effective() {
+        Budget budget = current.get();
+        return budget == null ? suite : budget.earliest(suite);
+    }
+
+    // The budget of one request: its own timeout, unless the thread's budget runs out earlier
+    static Budget forRequest(long requestTimeoutMillis) {
+        Budget budget = effective();
+        return requestTimeoutMillis <= 0 ? budget : Budget.of("request timeout", requestTimeoutMillis).earliest(budget);
+    }
+
+    static void startSuite(long seconds) {
+        suite = seconds > 0 ? Budget.of("suite budget", TimeUnit.SECONDS.toMillis(seconds)) : null;
+    }
+
+    static void startTest(long seconds) {
+        if (seconds > 0) {
+            current.set(Budget.of("test budget", TimeUnit.SECONDS.toMillis(seconds)));
+        } else {
+            current.remove();
+        }
+    }
+
+    static void endTest() {
+        current.remove();
+    }
+
+    // Read and set by TestContext.wrap, which hands the budget to worker threads
+    static Budget get() {
+        return current.get();
+    }
+
+    static void set(Budget budget) {
+        if (budget == null) {
+            current.remove();
+        } else {
+            current.set(budget);
+        }
+    }
+
+    /**
+     * Restores the budget that applied before {@link #within(Duration)}.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Budget previous;
+
+        private Scope(Budget previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            set(previous);
+        }
+    }
+
+    /**
+     * A point in time ({@link System#nanoTime()}) and what it was derived from, for messages.
+     */
+    static final class Budget {
+        private final String name;
+        private final long millis;
+        private final long deadlineNanos;
+
+        private Budget(String name, long millis, long deadlineNanos) {
+            this.name = name;
+            this.millis = millis;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        static Budget of(String name, long millis) {
+            return new Budget(name, millis, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        long remainingNanos() {
+            return deadlineNanos - System.nanoTime();
+        }
+
+        boolean isExpired() {
+            return remainingNanos() <= 0;
+        }
+
+        // nanoTime values may overflow, so they are only ever compared by their difference
+        Budget earliest(Budget other) {
+            return other == null || deadlineNanos - other.deadlineNanos <= 0 ? this : other;
+        }
+
+        String describe() {
+            return "the " + name + " of " + millis + " ms";
+        }
+
+        @Override
+        public String toString() {
+            return describe();
+        }
+    }
+}
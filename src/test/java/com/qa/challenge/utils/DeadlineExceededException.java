@@ -0,0 +1,17 @@
+package com.qa.challenge.utils;
+
+/**
+ * A request or task was not started, or was aborted, because its {@link Deadline} budget or its request timeout
+ * ran out. Not a server failure: retries and hedges are not attempted for it.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
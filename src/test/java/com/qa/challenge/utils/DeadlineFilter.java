@@ -0,0 +1,222 @@
+package com.qa.challenge.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.EofSensorInputStream;
+import org.apache.http.conn.EofSensorWatcher;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Enforces the per-request timeout ({@code http.requestTimeoutMillis}) and the {@link Deadline} budget of the
+ * calling thread on every RestAssured request.
+ * <p>
+ * A request whose budget is already gone is not sent. Otherwise the HttpClient request interceptor registered in
+ * {@link PooledHttpClientFactory} hands over the connection just before the request is written: its read timeout
+ * is lowered to the time left, and a watchdog shuts the connection down when the time is up. The read timeout
+ * alone would not do, since a body that drips in a few bytes at a time never leaves the socket idle for long.
+ * The filter runs outside {@link BufferedBodyFilter}, so the time it takes to read the body counts too.
+ * <p>
+ * The watchdog is called off as soon as the body has been read, before HttpClient hands the connection back to the
+ * pool, so it never shuts down a connection another request has leased since.
+ */
+public class DeadlineFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineFilter.class);
+    private static final ScheduledThreadPoolExecutor watchdog = createWatchdog();
+    // The request being sent on this thread, picked up by the request interceptor
+    private static final ThreadLocal<Watch> pending = new ThreadLocal<>();
+
+    private final long requestTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    public DeadlineFilter(long requestTimeoutMillis, int readTimeoutMillis) {
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    private static ScheduledThreadPoolExecutor createWatchdog() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("request-deadline-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Nearly every request finishes in time; its cancelled task must not linger in the queue
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Deadline.Budget budget = Deadline.forRequest(requestTimeoutMillis);
+        if (budget == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String request = requestSpec.getMethod() + " " + requestSpec.getURI();
+        if (budget.isExpired()) {
+            throw new DeadlineExceededException(request + " was not sent: " + budget.describe() + " ran out");
+        }
+
+        Watch watch = new Watch(budget, readTimeoutMillis);
+        pending.set(watch);
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Exception e) {
+            // RestAssured rethrows I/O failures unchecked. Those of the watchdog, or of the read timeout lowered to
+            // the time left, are reported as the deadline they are
+            if (watch.fired || budget.isExpired()) {
+                throw new DeadlineExceededException(request + " was aborted: " + budget.describe() + " ran out", e);
+            }
+            throw e;
+        } finally {
+            watch.disarm();
+            pending.remove();
+        }
+        // A body cut short by the watchdog can still end up as a complete-looking response
+        if (watch.fired) {
+            throw new DeadlineExceededException(request + " was aborted: " + budget.describe() + " ran out");
+        }
+        return response;
+    }
+
+    // Called by the HttpClient request interceptor once the connection is open, just before the request is written.
+    // HttpClient calls it again when it retries the request on its own, e.g. after the watchdog closed the connection.
+    static void onRequestSent(HttpContext context) throws InterruptedIOException {
+        Watch watch = pending.get();
+        Object connection = context.getAttribute(HttpCoreContext.HTTP_CONNECTION);
+        if (watch == null || !(connection instanceof HttpClientConnection)) {
+            return;
+        }
+        if (isOutOfTime()) {
+            // HttpClient does not retry an InterruptedIOException, so the request ends here
+            throw new InterruptedIOException(watch.budget.describe() + " ran out");
+        }
+        watch.arm((HttpClientConnection) connection);
+    }
+
+    // Called by the HttpClient response interceptor once the status line and headers are parsed. The response is
+    // complete when its body has been read, which is also when HttpClient releases the connection to the pool.
+    static void onResponseHeaders(HttpResponse response) {
+        Watch watch = pending.get();
+        if (watch == null) {
+            return;
+        }
+        HttpEntity entity = response.getEntity();
+        if (entity == null || !entity.isStreaming()) {
+            watch.disarm();
+            return;
+        }
+        response.setEntity(new HttpEntityWrapper(entity) {
+            @Override
+            public InputStream getContent() throws IOException {
+                return new EofSensorInputStream(super.getContent(), watch);
+            }
+        });
+    }
+
+    // Whether the request being sent on this thread is out of time; HttpClient then does not retry it on its own
+    static boolean isOutOfTime() {
+        Watch watch = pending.get();
+        return watch != null && (watch.fired || watch.budget.isExpired());
+    }
+
+    // Also watches the body stream, and calls off the watchdog when it ends; the stream is closed as without a watcher
+    private static final class Watch implements EofSensorWatcher {
+        private final Deadline.Budget budget;
+        private final int readTimeoutMillis;
+        private Lease lease;
+        private volatile boolean fired;
+
+        Watch(Deadline.Budget budget, int readTimeoutMillis) {
+            this.budget = budget;
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        void arm(HttpClientConnection connection) {
+            disarm();
+            // At least 1 ms: a socket timeout of 0 would mean no timeout at all
+            long remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(budget.remainingNanos()));
+            connection.setSocketTimeout((int) Math.min(remainingMillis,
+                    readTimeoutMillis > 0 ? readTimeoutMillis : Integer.MAX_VALUE));
+            lease = new Lease(connection);
+            lease.task = watchdog.schedule(lease, remainingMillis, TimeUnit.MILLISECONDS);
+        }
+
+        void disarm() {
+            if (lease != null) {
+                lease.cancel();
+                lease = null;
+            }
+        }
+
+        @Override
+        public boolean eofDetected(InputStream wrapped) {
+            disarm();
+            return true;
+        }
+
+        @Override
+        public boolean streamClosed(InputStream wrapped) {
+            disarm();
+            return true;
+        }
+
+        @Override
+        public boolean streamAbort(InputStream wrapped) {
+            disarm();
+            return true;
+        }
+
+        // One armed watchdog for one use of a connection. Either the watchdog fires or the lease is cancelled,
+        // never both, so a watchdog that was already running when the response completed does nothing
+        private final class Lease implements Runnable {
+            private final HttpClientConnection connection;
+            private final AtomicBoolean settled = new AtomicBoolean();
+            private ScheduledFuture<?> task;
+
+            Lease(HttpClientConnection connection) {
+                this.connection = connection;
+            }
+
+            @Override
+            public void run() {
+                if (!settled.compareAndSet(false, true)) {
+                    return;
+                }
+                fired = true;
+                try {
+                    connection.shutdown();
+                } catch (IOException e) {
+                    logger.debug("Could not shut down a connection past its deadline", e);
+                }
+            }
+
+            void cancel() {
+                if (settled.compareAndSet(false, true)) {
+                    task.cancel(false);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.qa.challenge.utils;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+
+/**
+ * Writes the HTTP exchanges captured by {@link FailureCaptureFilter} to the log and the Allure report
+ * when a test fails. The buffer is cleared before each test, so only that test's requests are written.
+ * It also waits for the test's queued attachments to be written (see {@link AsyncAttachmentWriter}).
+ */
+public class FailureCaptureExtension implements BeforeEachCallback, TestExecutionExceptionHandler {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        CaptureBuffer.clear();
+    }
+
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        CaptureBuffer.writeRecent(context.getDisplayName() + " failed: " + throwable.getMessage());
+        // The failed test's attachments are on disk before it is reported, even if the JVM dies right after
+        AsyncAttachmentWriter.flush();
+        throw throwable;
+    }
+}
@@ -0,0 +1,46 @@
+package com.qa.challenge.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.Arrays;
+
+/**
+ * Replaces logging and Allure-attaching every request with capture on failure.
+ * <p>
+ * Each exchange goes into the current thread's {@link CaptureBuffer}; only a capped copy of the body is kept.
+ * Non-2xx responses are written out right away. Everything else is only written when the test
+ * fails (see {@link FailureCaptureExtension}), so passing requests cost a few field copies.
+ */
+public class FailureCaptureFilter implements Filter {
+    private final int maxBodyBytes;
+
+    public FailureCaptureFilter(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        byte[] body = response.asByteArray();
+        byte[] kept = body.length <= maxBodyBytes ? body : Arrays.copyOf(body, maxBodyBytes);
+
+        CapturedExchange exchange = new CapturedExchange(TestContext.currentTestName(),
+                requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getHeaders(), requestSpec.getBody(),
+                response.getStatusLine(), response.getStatusCode(), response.getHeaders(),
+                kept, body.length, maxBodyBytes);
+        CaptureBuffer.record(exchange);
+
+        int status = response.getStatusCode();
+        // 304 only answers a conditional request made by ResponseCacheFilter
+        if ((status < 200 || status >= 300) && status != 304) {
+            CaptureBuffer.write("HTTP " + status + " for " + exchange.getMethod() + " " + exchange.getUri(), exchange);
+        }
+        return response;
+    }
+}
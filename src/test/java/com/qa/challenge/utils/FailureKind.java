@@ -0,0 +1,11 @@
+package com.qa.challenge.utils;
+
+/**
+ * How a failed request behaved when it was repeated by {@link HedgingRetryPolicy}.
+ */
+public enum FailureKind {
+    // Failed at first, then succeeded on a retry or hedge
+    TRANSIENT,
+    // Failed on every attempt, e.g. the 500 for user ID 0 (BUG-010)
+    DETERMINISTIC
+}
@@ -0,0 +1,328 @@
+package com.qa.challenge.utils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.StepResult;
+import org.opentest4j.MultipleFailuresError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a per-ID check for a list of IDs with bounded concurrency and collects every failure
+ * instead of stopping at the first one.
+ * <p>
+ * Allure keeps its step context per thread, so workers only record what happened; the Allure
+ * steps are written afterwards on the calling (test) thread, one step per ID, in input order.
+ * <p>
+ * Workers inherit the {@link Deadline} budget of the test. IDs still waiting when it runs out are not checked;
+ * they are reported together, as one failure, instead of one deadline failure per ID.
+ */
+public class FanOutRunner {
+    private static final Logger logger = LoggerFactory.getLogger(FanOutRunner.class);
+
+    private final int concurrency;
+
+    public FanOutRunner(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, got: " + concurrency);
+        }
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Creates a runner using the concurrency level from {@link TestConfig#FAN_OUT_CONCURRENCY}.
+     */
+    public static FanOutRunner withConfiguredConcurrency() {
+        return new FanOutRunner(TestConfig.FAN_OUT_CONCURRENCY);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * A check executed for a single ID. Any thrown exception or assertion error marks the ID as failed.
+     */
+    @FunctionalInterface
+    public interface IdCheck {
+        void check(int id, IdContext context) throws Throwable;
+    }
+
+    /**
+     * Collects Allure attachments for one ID while running on a worker thread.
+     */
+    public static class IdContext {
+        private final Map<String, String> attachments = new LinkedHashMap<>();
+
+        public void attach(String name, String content) {
+            attachments.put(name, content);
+        }
+    }
+
+    /**
+     * Outcome of the check for a single ID.
+     */
+    public static class IdResult {
+        private final int id;
+        private final Throwable failure;
+        private final long durationNanos;
+        private final Map<String, String> attachments;
+        // Not checked because the deadline budget had run out; failure is then the DeadlineExceededException
+        private final boolean cancelled;
+
+        IdResult(int id, Throwable failure, long durationNanos, Map<String, String> attachments) {
+            this(id, failure, durationNanos, attachments, false);
+        }
+
+        private IdResult(int id, Throwable failure, long durationNanos, Map<String, String> attachments,
+                         boolean cancelled) {
+            this.id = id;
+            this.failure = failure;
+            this.durationNanos = durationNanos;
+            this.attachments = attachments;
+            this.cancelled = cancelled;
+        }
+
+        static IdResult cancelled(int id, DeadlineExceededException reason) {
+            return new IdResult(id, reason, 0, Map.of(), true);
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public boolean isPassed() {
+            return failure == null;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public Map<String, String> getAttachments() {
+            return attachments;
+        }
+    }
+
+    /**
+     * Aggregated result of a fan-out run.
+     */
+    public static class FanOutReport {
+        private final List<IdResult> results;
+        private final List<IdResult> failures;
+        private final List<IdResult> cancelled;
+        private final long wallTimeNanos;
+
+        FanOutReport(List<IdResult> results, long wallTimeNanos) {
+            this.results = results;
+            this.wallTimeNanos = wallTimeNanos;
+            this.failures = new ArrayList<>();
+            this.cancelled = new ArrayList<>();
+            for (IdResult result : results) {
+                if (result.isCancelled()) {
+                    cancelled.add(result);
+                } else if (!result.isPassed()) {
+                    failures.add(result);
+                }
+            }
+        }
+
+        public List<IdResult> getResults() {
+            return results;
+        }
+
+        public List<IdResult> getFailures() {
+            return failures;
+        }
+
+        /**
+         * IDs not checked because the deadline budget had run out.
+         */
+        public List<IdResult> getCancelled() {
+            return cancelled;
+        }
+
+        public long getWallTimeNanos() {
+            return wallTimeNanos;
+        }
+
+        public String summary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Checked ").append(results.size() - cancelled.size()).append(" IDs in ")
+                    .append(wallTimeNanos / 1_000_000).append(" ms, ")
+                    .append(failures.size()).append(" failed");
+            if (!cancelled.isEmpty()) {
+                sb.append(", ").append(cancelled.size()).append(" not checked because the deadline budget ran out");
+            }
+            for (IdResult failure : failures) {
+                sb.append("\n- ID ").append(failure.getId()).append(": ")
+                        .append(failure.getFailure().getMessage());
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Writes one Allure step per ID onto the current test. Must be called from the test thread.
+         * With {@code allure.attachments.collapsePassed}, the attachments of passed IDs go into one summary
+         * attachment instead of one file each; failed IDs always keep theirs on their own step.
+         */
+        public void publishAllureSteps(String stepNamePrefix) {
+            AllureLifecycle lifecycle = Allure.getLifecycle();
+            StringBuilder collapsed = new StringBuilder();
+            int collapsedIds = 0;
+            for (IdResult result : results) {
+                if (result.isCancelled()) {
+                    continue;
+                }
+                String uuid = UUID.randomUUID().toString();
+                StepResult step = new StepResult()
+                        .setName(stepNamePrefix + result.getId())
+                        .setStatus(result.isPassed() ? Status.PASSED : statusOf(result.getFailure()));
+                if (!result.isPassed()) {
+                    step.setStatusDetails(new StatusDetails()
+                            .setMessage(result.getFailure().getMessage())
+                            .setTrace(stackTraceOf(result.getFailure())));
+                }
+                lifecycle.startStep(uuid, step);
+                if (result.isPassed() && TestConfig.ALLURE_ATTACHMENTS_COLLAPSE_PASSED) {
+                    if (!result.getAttachments().isEmpty()) {
+                        collapsedIds++;
+                        result.getAttachments().forEach((name, content) -> collapsed.append("=== ").append(name)
+                                .append(" ===\n").append(content).append("\n\n"));
+                    }
+                } else {
+                    result.getAttachments().forEach(AsyncAttachmentWriter::attach);
+                }
+                lifecycle.stopStep(uuid);
+            }
+            if (!cancelled.isEmpty()) {
+                Allure.step(cancelled.size() + " IDs not checked: the deadline budget ran out", Status.BROKEN);
+            }
+            if (collapsedIds > 0) {
+                AsyncAttachmentWriter.attach("Attachments of " + collapsedIds + " passed IDs", collapsed.toString());
+            }
+            AsyncAttachmentWriter.attach("Fan-out summary", summary());
+        }
+
+        /**
+         * Fails with every collected per-ID failure, or does nothing if all IDs passed.
+         */
+        public void assertNoFailures() {
+            if (failures.isEmpty() && cancelled.isEmpty()) {
+                return;
+            }
+            List<Throwable> causes = new ArrayList<>();
+            for (IdResult failure : failures) {
+                causes.add(failure.getFailure());
+            }
+            if (!cancelled.isEmpty()) {
+                causes.add(new DeadlineExceededException(cancelled.size() + " of " + results.size()
+                        + " user IDs not checked, e.g. " + cancelled.get(0).getFailure().getMessage()));
+            }
+            throw new MultipleFailuresError(failures.size() + " of " + results.size()
+                    + " user IDs failed: " + failedIds() + (cancelled.isEmpty() ? ""
+                    : ", " + cancelled.size() + " not checked"), causes);
+        }
+
+        private String failedIds() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < failures.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(failures.get(i).getId());
+            }
+            return sb.append("]").toString();
+        }
+
+        private static Status statusOf(Throwable failure) {
+            return failure instanceof AssertionError ? Status.FAILED : Status.BROKEN;
+        }
+
+        private static String stackTraceOf(Throwable failure) {
+            StringWriter writer = new StringWriter();
+            failure.printStackTrace(new PrintWriter(writer));
+            return writer.toString();
+        }
+    }
+
+    /**
+     * Runs the check for every ID, at most {@code concurrency} at a time, and waits for all of them.
+     */
+    public FanOutReport run(int[] ids, IdCheck check) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "fan-out-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            List<Future<IdResult>> futures = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                // Workers tag their requests with the test that started the fan-out
+                futures.add(executor.submit(TestContext.wrap(() -> runOne(id, check))));
+            }
+
+            List<IdResult> results = new ArrayList<>(ids.length);
+            for (Future<IdResult> future : futures) {
+                results.add(future.get());
+            }
+            FanOutReport report = new FanOutReport(results, System.nanoTime() - start);
+            logger.info("Fan-out with concurrency {}: {}", concurrency, report.summary());
+            if (TestConfig.HTTP_LIMITER_ENABLED) {
+                logger.info("Concurrency limiter after fan-out: {}", RestClient.concurrencyLimiterStats());
+            }
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for fan-out results", e);
+        } catch (ExecutionException e) {
+            // runOne catches everything, so this only happens on executor failures
+            throw new IllegalStateException("Fan-out task failed unexpectedly", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static IdResult runOne(int id, IdCheck check) {
+        try {
+            Deadline.check("User ID " + id);
+        } catch (DeadlineExceededException e) {
+            return IdResult.cancelled(id, e);
+        }
+        IdContext context = new IdContext();
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            check.check(id, context);
+        } catch (Throwable t) {
+            failure = t;
+        }
+        return new IdResult(id, failure, System.nanoTime() - start, context.attachments);
+    }
+}
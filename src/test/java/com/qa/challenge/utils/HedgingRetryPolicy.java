@@ -0,0 +1,242 @@
+package com.qa.challenge.utils;
+
+import io.restassured.response.Response;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedging and retries for idempotent GETs, used by {@link RestClient#resilient()}.
+ * <p>
+ * Hedging: when an attempt has not answered within the configured latency percentile of its endpoint, a second,
+ * identical request is sent and the first healthy answer wins. Hedges are capped at a share of all calls, so a slow
+ * server does not get twice the load. Retrying: 5xx answers and I/O failures are retried with exponential backoff
+ * and full jitter; 4xx answers are returned as they are. A call that ran out of its {@link Deadline} budget is not
+ * retried, and no backoff sleeps past the deadline.
+ * <p>
+ * Failures are not hidden. A call that failed and then recovered is recorded as {@link FailureKind#TRANSIENT};
+ * one that failed on every attempt is recorded as {@link FailureKind#DETERMINISTIC}, and its last response is
+ * returned so the test still fails. Both, and the hedge and retry counts, go into the run summary written by
+ * {@link LatencyRecorder}.
+ */
+public class HedgingRetryPolicy {
+    private static final Logger logger = LoggerFactory.getLogger(HedgingRetryPolicy.class);
+    // Healthy samples an endpoint needs before its percentile is trusted as a hedge delay
+    private static final int MIN_SAMPLES_FOR_HEDGING = 20;
+
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double hedgePercentile;
+    private final double maxHedgeShare;
+
+    private final ExecutorService executor;
+    private final Map<String, Histogram> healthyLatencyMicros = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+
+    /**
+     * @param maxAttempts       attempts per call including the first; 1 disables retries
+     * @param baseBackoffMillis backoff before the first retry, doubled for every further retry
+     * @param maxBackoffMillis  upper bound of the backoff
+     * @param hedgePercentile   latency percentile (e.g. 95) after which a hedge is sent; 0 disables hedging
+     * @param maxHedgeShare     maximum hedges as a share of all calls
+     */
+    public HedgingRetryPolicy(int maxAttempts, long baseBackoffMillis, long maxBackoffMillis,
+                              double hedgePercentile, double maxHedgeShare) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1, got: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.hedgePercentile = hedgePercentile;
+        this.maxHedgeShare = maxHedgeShare;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "http-hedge-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the call with hedging and retries.
+     *
+     * @param endpoint template the call belongs to, e.g. {@code /api/test/user/{id}}
+     * @param request  the concrete request, used when reporting failures
+     * @param call     sends the request once; must be safe to run more than once and on another thread
+     */
+    public Response execute(String endpoint, String request, Supplier<Response> call) {
+        calls.incrementAndGet();
+        List<String> failures = new ArrayList<>();
+        Response response = null;
+        RuntimeException error = null;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (attempt > 1) {
+                LatencyRecorder.recordRetry(endpoint);
+                backoff(attempt - 1);
+            }
+            try {
+                response = hedged(endpoint, call);
+                error = null;
+                if (!isServerError(response)) {
+                    if (!failures.isEmpty()) {
+                        classify(endpoint, request, FailureKind.TRANSIENT, failures);
+                    }
+                    return response;
+                }
+                failures.add(String.valueOf(response.getStatusCode()));
+            } catch (DeadlineExceededException e) {
+                // Out of time: not the server's failure, and another attempt would not get any further
+                throw e;
+            } catch (RuntimeException e) {
+                error = e;
+                failures.add(e.getClass().getSimpleName());
+            }
+        }
+
+        classify(endpoint, request, FailureKind.DETERMINISTIC, failures);
+        if (error != null) {
+            throw error;
+        }
+        return response;
+    }
+
+    private Response hedged(String endpoint, Supplier<Response> call) {
+        long hedgeDelayMicros = hedgeDelayMicros(endpoint);
+        if (hedgeDelayMicros < 0) {
+            return timed(endpoint, call);
+        }
+
+        Callable<Response> task = TestContext.wrap(() -> timed(endpoint, call));
+        CompletionService<Response> completion = new ExecutorCompletionService<>(executor);
+        Future<Response> primary = completion.submit(task);
+        Future<Response> hedge = null;
+        try {
+            Future<Response> first = completion.poll(hedgeDelayMicros, TimeUnit.MICROSECONDS);
+            if (first == null && takeHedgeBudget()) {
+                hedge = completion.submit(task);
+            }
+            if (first == null) {
+                first = completion.take();
+            }
+
+            Response response = null;
+            RuntimeException error = null;
+            try {
+                response = resultOf(first);
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            // The other request may still give a healthy answer
+            Future<Response> other = first == primary ? hedge : primary;
+            if ((error != null || isServerError(response)) && other != null) {
+                first = completion.take();
+                try {
+                    response = resultOf(first);
+                    error = null;
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+            }
+            if (hedge != null) {
+                LatencyRecorder.recordHedge(endpoint, first == hedge);
+            }
+            if (error != null) {
+                throw error;
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + endpoint, e);
+        }
+    }
+
+    private Response timed(String endpoint, Supplier<Response> call) {
+        long start = System.nanoTime();
+        Response response = call.get();
+        if (!isServerError(response)) {
+            healthyLatencyMicros.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(3))
+                    .recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        return response;
+    }
+
+    private long hedgeDelayMicros(String endpoint) {
+        if (hedgePercentile <= 0) {
+            return -1;
+        }
+        Histogram latency = healthyLatencyMicros.get(endpoint);
+        if (latency == null || latency.getTotalCount() < MIN_SAMPLES_FOR_HEDGING) {
+            return -1;
+        }
+        return latency.getValueAtPercentile(hedgePercentile);
+    }
+
+    private boolean takeHedgeBudget() {
+        if (hedges.incrementAndGet() <= Math.max(1, maxHedgeShare * calls.get())) {
+            return true;
+        }
+        hedges.decrementAndGet();
+        return false;
+    }
+
+    private void backoff(int retry) {
+        // Full jitter: uniform between 0 and the exponential bound, so retries of a sweep do not line up
+        long bound = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(retry - 1, 20));
+        long sleep = bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+        // Never sleeps past the deadline; the next attempt then fails without being sent
+        sleep = Math.min(sleep, Math.max(0, TimeUnit.NANOSECONDS.toMillis(Deadline.remainingNanos())));
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during retry backoff", e);
+        }
+    }
+
+    private static void classify(String endpoint, String request, FailureKind kind, List<String> failures) {
+        logger.warn("{} failure for {}: attempts failed with {}", kind, request, failures);
+        LatencyRecorder.recordClassifiedFailure(endpoint, request, kind, failures);
+    }
+
+    private static Response resultOf(Future<Response> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static boolean isServerError(Response response) {
+        return response.getStatusCode() >= 500;
+    }
+}
@@ -0,0 +1,153 @@
+package com.qa.challenge.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.qa.challenge.jfr.DeserializationEvent;
+import io.restassured.response.Response;
+import org.opentest4j.AssertionFailedError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A response contract: a JSON schema from {@code src/test/resources/schemas}, compiled once per JVM.
+ * <p>
+ * {@link #check(byte[])} parses the body once into a tree and validates that tree against the compiled schema.
+ * The same tree is then bound to the model by {@link Checked#as(Class)}, so checking the contract and
+ * deserializing together cost one parse. Compiled schemas are immutable and shared by all threads.
+ */
+public final class JsonContract {
+    public static final JsonContract USER_RESPONSE = load("schemas/user-response.json");
+    public static final JsonContract USERS_LIST_RESPONSE = load("schemas/users-list-response.json");
+
+    private final String name;
+    private final JsonSchema schema;
+
+    private JsonContract(String name, JsonSchema schema) {
+        this.name = name;
+        this.schema = schema;
+    }
+
+    private static JsonContract load(String resource) {
+        try (InputStream in = JsonContract.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Schema not found on the classpath: " + resource);
+            }
+            JsonNode schemaNode = RestClient.objectMapper().readTree(in);
+            return new JsonContract(resource, SchemaFactoryHolder.factory.getJsonSchema(schemaNode));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read schema " + resource, e);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException("Invalid schema " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Validates the body RestAssured has already buffered (see {@link BufferedBodyFilter}).
+     */
+    public Checked check(Response response) {
+        return check(response.asByteArray());
+    }
+
+    public Checked check(byte[] body) {
+        JsonNode node;
+        // The parse is most of the JSON cost; the bind in Checked.as is timed on its own
+        DeserializationEvent event = new DeserializationEvent();
+        event.begin();
+        try {
+            node = RestClient.objectMapper().readTree(body);
+        } catch (IOException e) {
+            return new Checked(null, List.of("body is not JSON: " + e.getMessage()));
+        } finally {
+            RecordingObjectMapper.commit(event, "JsonNode (" + name + ")");
+        }
+        try {
+            ProcessingReport report = schema.validate(node);
+            if (report.isSuccess()) {
+                return new Checked(node, Collections.emptyList());
+            }
+            List<String> violations = new ArrayList<>();
+            for (ProcessingMessage message : report) {
+                JsonNode pointer = message.asJson().path("instance").path("pointer");
+                violations.add((pointer.asText().isEmpty() ? "/" : pointer.asText()) + ": " + message.getMessage());
+            }
+            return new Checked(node, violations);
+        } catch (ProcessingException e) {
+            return new Checked(node, List.of("validation failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Outcome of {@link #check(byte[])}: the parsed body and the contract violations, if any.
+     */
+    public final class Checked {
+        private final JsonNode node;
+        private final List<String> violations;
+
+        Checked(JsonNode node, List<String> violations) {
+            this.node = node;
+            this.violations = violations;
+        }
+
+        // null if the body was not JSON
+        public JsonNode getNode() {
+            return node;
+        }
+
+        public List<String> getViolations() {
+            return violations;
+        }
+
+        public boolean isValid() {
+            return violations.isEmpty();
+        }
+
+        /**
+         * Fails with every violation, or does nothing if the body matches the schema.
+         */
+        public Checked assertValid() {
+            if (!isValid()) {
+                throw new AssertionFailedError("Response does not match " + name + ":\n  " + String.join("\n  ", violations));
+            }
+            return this;
+        }
+
+        /**
+         * Binds the already parsed body to a model without parsing it again.
+         */
+        public <T> T as(Class<T> type) {
+            if (node == null) {
+                throw new IllegalStateException("Response body is not JSON: " + violations);
+            }
+            ObjectMapper mapper = RestClient.objectMapper();
+            DeserializationEvent event = new DeserializationEvent();
+            event.begin();
+            try {
+                return mapper.treeToValue(node, type);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not bind response to " + type.getSimpleName(), e);
+            } finally {
+                RecordingObjectMapper.commit(event, type.getTypeName());
+            }
+        }
+    }
+
+    // Building the factory loads every keyword validator, so it is done once, on first use
+    private static final class SchemaFactoryHolder {
+        private static final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
+    }
+}
@@ -0,0 +1,195 @@
+package com.qa.challenge.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Records wall time, time to first byte and response size of every request in {@link LatencyRecorder}.
+ * <p>
+ * Other filters (Allure, logging) run around this one, so the timestamps are taken at the HttpClient level by
+ * interceptors registered in {@link PooledHttpClientFactory}: when the request is sent, when the status line and
+ * headers arrive (first byte) and when the body has been read (wall). The filter itself only tags the sample
+ * with the endpoint template (e.g. {@code /api/test/user/{id}}, not the resolved URL), status code and test name.
+ * <p>
+ * A request that fails on the network (connect error, reset, timeout) is recorded too, with the time it took to
+ * fail and status {@link LatencyRecorder#NO_RESPONSE}, so the percentiles and the baseline do not only cover the
+ * requests that got an answer.
+ */
+public class LatencyFilter implements Filter {
+    // Set by RestClient when it substitutes path parameters itself, so the template is not visible here
+    private static final ThreadLocal<String> templateOverride = new ThreadLocal<>();
+    private static final ThreadLocal<WireTiming> wireTiming = ThreadLocal.withInitial(WireTiming::new);
+    // Set by LatencySloExtension on the threads whose requests it measures
+    private static final ThreadLocal<RequestObserver> observer = new ThreadLocal<>();
+
+    static void setEndpointTemplate(String template) {
+        templateOverride.set(template);
+    }
+
+    static void clearEndpointTemplate() {
+        templateOverride.remove();
+    }
+
+    static void observe(RequestObserver requestObserver) {
+        observer.set(requestObserver);
+    }
+
+    static void stopObserving() {
+        observer.remove();
+    }
+
+    // The template the request was made from, e.g. /api/test/user/{id}, not the resolved URL
+    static String endpointTemplate(FilterableRequestSpecification requestSpec) {
+        String template = templateOverride.get();
+        return template != null ? template : requestSpec.getUserDefinedPath();
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String template = endpointTemplate(requestSpec);
+
+        WireTiming timing = wireTiming.get();
+        timing.reset();
+        long start = System.nanoTime();
+        Response response;
+        byte[] body;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            body = response.asByteArray();
+        } catch (Exception e) {
+            // RestAssured rethrows I/O failures as they are, checked or not
+            if (timing.sentAt != 0 || isIoFailure(e)) {
+                // A connect failure happens before the request is sent, so the time counts from here
+                long wall = System.nanoTime() - (timing.sentAt != 0 ? timing.sentAt : start);
+                LatencyRecorder.recordFailure(template, TestContext.currentTestName(), requestSpec.getURI(), wall, e);
+                notifyObserver(requestSpec, template, LatencyRecorder.NO_RESPONSE, wall);
+            }
+            throw e;
+        }
+        long end = System.nanoTime();
+
+        if (timing.sentAt == 0 || timing.firstByteAt == 0) {
+            // No HTTP exchange was seen: the response came from ResponseCacheFilter or a replayed cassette
+            return response;
+        }
+        long bodyDone = timing.bodyDoneAt != 0 ? timing.bodyDoneAt : end;
+        long wall = bodyDone - timing.sentAt;
+        long firstByte = timing.firstByteAt - timing.sentAt;
+        LatencyRecorder.record(template, response.getStatusCode(), TestContext.currentTestName(),
+                requestSpec.getURI(), wall, firstByte, body.length);
+        notifyObserver(requestSpec, template, response.getStatusCode(), wall);
+        return response;
+    }
+
+    private static void notifyObserver(FilterableRequestSpecification requestSpec, String template, int statusCode,
+                                       long wallNanos) {
+        RequestObserver requestObserver = observer.get();
+        if (requestObserver != null) {
+            requestObserver.onRequest(requestSpec.getMethod(), requestSpec.getURI(), template, statusCode, wallNanos);
+        }
+    }
+
+    // Network failures, as opposed to e.g. a cassette miss, which never reaches the network
+    private static boolean isIoFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Called by the HttpClient request interceptor just before the request is written
+    static void onRequestSent() {
+        WireTiming timing = wireTiming.get();
+        timing.sentAt = System.nanoTime();
+        timing.firstByteAt = 0;
+        timing.bodyDoneAt = 0;
+    }
+
+    // Called by the HttpClient response interceptor once the status line and headers are parsed
+    static void onResponseHeaders(HttpResponse response) {
+        WireTiming timing = wireTiming.get();
+        timing.firstByteAt = System.nanoTime();
+        HttpEntity entity = response.getEntity();
+        if (entity != null) {
+            response.setEntity(new BodyTimingEntity(entity, timing));
+        }
+    }
+
+    /**
+     * Gets every request sent over the network on the observed thread, with its wall time.
+     */
+    interface RequestObserver {
+        void onRequest(String method, String uri, String template, int statusCode, long wallNanos);
+    }
+
+    private static final class WireTiming {
+        private long sentAt;
+        private long firstByteAt;
+        private long bodyDoneAt;
+
+        void reset() {
+            sentAt = 0;
+            firstByteAt = 0;
+            bodyDoneAt = 0;
+        }
+    }
+
+    // Notes the time the body stream reaches its end or is closed
+    private static final class BodyTimingEntity extends HttpEntityWrapper {
+        private final WireTiming timing;
+
+        BodyTimingEntity(HttpEntity wrapped, WireTiming timing) {
+            super(wrapped);
+            this.timing = timing;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b < 0) {
+                        done();
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int off, int len) throws IOException {
+                    int n = super.read(buffer, off, len);
+                    if (n < 0) {
+                        done();
+                    }
+                    return n;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    done();
+                    super.close();
+                }
+            };
+        }
+
+        private void done() {
+            if (timing.bodyDoneAt == 0) {
+                timing.bodyDoneAt = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.qa.challenge.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Data;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * JVM-wide store of per-request timings recorded by {@link LatencyFilter}, plus the hedges, retries and
+ * classified failures of {@link HedgingRetryPolicy} and the hits of {@link ResponseCacheFilter}.
+ * <p>
+ * Samples are tagged by endpoint template, status code and test name and go into concurrent
+ * HdrHistograms, so recording is cheap and lock-free. At the end of the run {@link RunListener}
+ * writes a per-endpoint summary, including the slowest individual requests.
+ */
+public final class LatencyRecorder {
+    /**
+     * Status code of a request that failed without a response; counted as an error like 4xx and 5xx.
+     */
+    public static final int NO_RESPONSE = 0;
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyRecorder.class);
+    private static final int SLOWEST_REQUESTS_KEPT = 10;
+    private static final int CLASSIFIED_FAILURES_KEPT = 100;
+
+    private static final Map<SampleKey, Samples> samples = new ConcurrentHashMap<>();
+    private static final Map<String, SlowestRequests> slowest = new ConcurrentHashMap<>();
+    private static final Map<String, ResilienceCounters> resilience = new ConcurrentHashMap<>();
+    private static final Map<String, CacheCounters> cache = new ConcurrentHashMap<>();
+
+    private LatencyRecorder() {
+    }
+
+    public static void record(String endpointTemplate, int statusCode, String testName, String url,
+                              long wallNanos, long firstByteNanos, long responseBytes) {
+        samples.computeIfAbsent(new SampleKey(endpointTemplate, statusCode, testName), key -> new Samples())
+                .record(wallNanos, firstByteNanos, responseBytes);
+        slowest.computeIfAbsent(endpointTemplate, key -> new SlowestRequests(SLOWEST_REQUESTS_KEPT))
+                .offer(url, statusCode, testName, wallNanos, null);
+    }
+
+    /**
+     * Records a request that failed without a response after {@code wallNanos}, under status {@link #NO_RESPONSE}.
+     * It counts in the wall time and the errors, not in the time to first byte.
+     */
+    public static void recordFailure(String endpointTemplate, String testName, String url, long wallNanos,
+                                     Throwable error) {
+        samples.computeIfAbsent(new SampleKey(endpointTemplate, NO_RESPONSE, testName), key -> new Samples())
+                .record(wallNanos, -1, 0);
+        slowest.computeIfAbsent(endpointTemplate, key -> new SlowestRequests(SLOWEST_REQUESTS_KEPT))
+                .offer(url, NO_RESPONSE, testName, wallNanos, String.valueOf(error));
+    }
+
+    /**
+     * Counts a hedge sent by {@link HedgingRetryPolicy}; {@code won} if its answer was used.
+     */
+    public static void recordHedge(String endpointTemplate, boolean won) {
+        ResilienceCounters counters = resilienceOf(endpointTemplate);
+        counters.hedges.increment();
+        if (won) {
+            counters.hedgeWins.increment();
+        }
+    }
+
+    public static void recordRetry(String endpointTemplate) {
+        resilienceOf(endpointTemplate).retries.increment();
+    }
+
+    public static void recordClassifiedFailure(String endpointTemplate, String request, FailureKind kind,
+                                               List<String> attemptFailures) {
+        ResilienceCounters counters = resilienceOf(endpointTemplate);
+        (kind == FailureKind.TRANSIENT ? counters.transientFailures : counters.deterministicFailures).increment();
+        synchronized (counters.failures) {
+            if (counters.failures.size() < CLASSIFIED_FAILURES_KEPT) {
+                counters.failures.add(new ClassifiedFailure(request, kind, List.copyOf(attemptFailures),
+                        TestContext.currentTestName()));
+            }
+        }
+    }
+
+    /**
+     * Failures classified so far for one endpoint template (at most the first 100).
+     */
+    public static List<ClassifiedFailure> classifiedFailures(String endpointTemplate) {
+        ResilienceCounters counters = resilience.get(endpointTemplate);
+        if (counters == null) {
+            return List.of();
+        }
+        synchronized (counters.failures) {
+            return new ArrayList<>(counters.failures);
+        }
+    }
+
+    /**
+     * Counts a response served by {@link ResponseCacheFilter}; {@code revalidated} if the server answered 304.
+     */
+    public static void recordCacheHit(String endpointTemplate, long bytesSaved, boolean revalidated) {
+        CacheCounters counters = cache.computeIfAbsent(endpointTemplate, key -> new CacheCounters());
+        (revalidated ? counters.revalidations : counters.hits).increment();
+        counters.bytesSaved.add(bytesSaved);
+    }
+
+    public static void recordCacheMiss(String endpointTemplate) {
+        cache.computeIfAbsent(endpointTemplate, key -> new CacheCounters()).misses.increment();
+    }
+
+    private static ResilienceCounters resilienceOf(String endpointTemplate) {
+        return resilience.computeIfAbsent(endpointTemplate, key -> new ResilienceCounters());
+    }
+
+    public static void reset() {
+        samples.clear();
+        slowest.clear();
+        resilience.clear();
+        cache.clear();
+    }
+
+    /**
+     * Builds the per-endpoint summary of everything recorded so far.
+     */
+    public static Map<String, EndpointSummary> summary() {
+        Map<String, Aggregate> aggregates = new TreeMap<>();
+        samples.forEach((key, value) -> aggregates
+                .computeIfAbsent(key.endpoint, endpoint -> new Aggregate())
+                .add(key, value));
+
+        Map<String, EndpointSummary> result = new TreeMap<>();
+        aggregates.forEach((endpoint, aggregate) -> {
+            EndpointSummary summary = aggregate.toSummary();
+            SlowestRequests slow = slowest.get(endpoint);
+            if (slow != null) {
+                summary.setSlowestRequests(slow.snapshot());
+            }
+            ResilienceCounters counters = resilience.get(endpoint);
+            if (counters != null) {
+                counters.fill(summary);
+            }
+            CacheCounters cacheCounters = cache.get(endpoint);
+            if (cacheCounters != null) {
+                cacheCounters.fill(summary);
+            }
+            result.put(endpoint, summary);
+        });
+        return result;
+    }
+
+    /**
+     * Copies of the cumulative wall-time histograms (microseconds) per endpoint template. Subtracting an earlier
+     * copy gives the requests recorded in between, which is how a soak run gets per-window percentiles.
+     */
+    public static Map<String, Histogram> wallTimeByEndpoint() {
+        return wallTimeBy(key -> key.endpoint);
+    }
+
+    /**
+     * Cumulative error count per endpoint template, counted the same way as in the summary.
+     */
+    public static Map<String, Long> errorsByEndpoint() {
+        return errorsBy(key -> key.endpoint);
+    }
+
+    /**
+     * Copies of the cumulative wall-time histograms (microseconds) per test name, over all endpoints.
+     */
+    public static Map<String, Histogram> wallTimeByTest() {
+        return wallTimeBy(key -> key.testName);
+    }
+
+    public static Map<String, Long> errorsByTest() {
+        return errorsBy(key -> key.testName);
+    }
+
+    private static Map<String, Histogram> wallTimeBy(Function<SampleKey, String> group) {
+        Map<String, Histogram> result = new TreeMap<>();
+        samples.forEach((key, value) -> result.computeIfAbsent(group.apply(key), name -> new Histogram(3)).add(value.wall.copy()));
+        return result;
+    }
+
+    private static Map<String, Long> errorsBy(Function<SampleKey, String> group) {
+        Map<String, Long> result = new TreeMap<>();
+        samples.forEach((key, value) -> {
+            if (isError(key.statusCode)) {
+                result.merge(group.apply(key), value.wall.getTotalCount(), Long::sum);
+            }
+        });
+        return result;
+    }
+
+    // 304 answers a revalidation; only 4xx, 5xx and no response at all (NO_RESPONSE) are errors
+    private static boolean isError(int statusCode) {
+        return statusCode < 200 || statusCode >= 400;
+    }
+
+    /**
+     * Logs the summary and writes it as JSON. Called once at the end of the test run.
+     */
+    public static void writeSummary(Path file) {
+        Map<String, EndpointSummary> summary = summary();
+        if (summary.isEmpty()) {
+            return;
+        }
+        summary.forEach((endpoint, endpointSummary) -> {
+            logger.info("Latency {}: wall {} | first byte p50={}ms p99={}ms | avg {} bytes", endpoint,
+                    endpointSummary.getWallTime(), endpointSummary.getTimeToFirstByte().getP50Ms(),
+                    endpointSummary.getTimeToFirstByte().getP99Ms(), endpointSummary.getMeanResponseBytes());
+            if (endpointSummary.getHedges() > 0 || endpointSummary.getRetries() > 0) {
+                logger.info("Resilience {}: hedges={} (won {}), retries={}, transient failures={}, deterministic failures={}",
+                        endpoint, endpointSummary.getHedges(), endpointSummary.getHedgeWins(), endpointSummary.getRetries(),
+                        endpointSummary.getTransientFailures(), endpointSummary.getDeterministicFailures());
+            }
+            if (endpointSummary.getCacheHits() + endpointSummary.getCacheRevalidations() + endpointSummary.getCacheMisses() > 0) {
+                logger.info("Cache {}: hits={}, revalidated (304)={}, misses={}, hit ratio={}, bytes saved={}",
+                        endpoint, endpointSummary.getCacheHits(), endpointSummary.getCacheRevalidations(),
+                        endpointSummary.getCacheMisses(), String.format("%.3f", endpointSummary.getCacheHitRatio()),
+                        endpointSummary.getCacheBytesSaved());
+            }
+        });
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+            logger.info("Latency summary written to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Could not write latency summary to {}", file, e);
+        }
+    }
+
+    public static Path summaryFile() {
+        return Paths.get(System.getProperty("metrics.summaryFile", "target/metrics/latency-summary.json"));
+    }
+
+    /**
+     * Per-endpoint summary written at the end of the run.
+     */
+    @Data
+    public static class EndpointSummary {
+        private LatencySummary wallTime;
+        private LatencySummary timeToFirstByte;
+        private long totalResponseBytes;
+        private long meanResponseBytes;
+        private Map<Integer, Long> countByStatus = new TreeMap<>();
+        private Map<String, LatencySummary> wallTimeByTest = new TreeMap<>();
+        private List<SlowRequest> slowestRequests = new ArrayList<>();
+        // Filled in when RestClient.resilient() was used; every attempt is also counted in the timings above
+        private long hedges;
+        private long hedgeWins;
+        private long retries;
+        private long transientFailures;
+        private long deterministicFailures;
+        private List<ClassifiedFailure> classifiedFailures = new ArrayList<>();
+        // Filled in when the response cache is on; hits are not counted in the timings above
+        private long cacheHits;
+        private long cacheRevalidations;
+        private long cacheMisses;
+        private double cacheHitRatio;
+        private long cacheBytesSaved;
+    }
+
+    @Data
+    public static class ClassifiedFailure {
+        private final String request;
+        private final FailureKind kind;
+        // Status code or exception of each failed attempt
+        private final List<String> attemptFailures;
+        private final String testName;
+    }
+
+    @Data
+    public static class SlowRequest {
+        private final String url;
+        private final int statusCode;
+        private final String testName;
+        private final double wallMs;
+        // Why a request without a response failed; null when there was one
+        private final String error;
+    }
+
+    private static final class SampleKey {
+        private final String endpoint;
+        private final int statusCode;
+        private final String testName;
+
+        SampleKey(String endpoint, int statusCode, String testName) {
+            this.endpoint = endpoint;
+            this.statusCode = statusCode;
+            this.testName = testName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SampleKey)) {
+                return false;
+            }
+            SampleKey other = (SampleKey) o;
+            return statusCode == other.statusCode && endpoint.equals(other.endpoint) && testName.equals(other.testName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, statusCode, testName);
+        }
+    }
+
+    private static final class ResilienceCounters {
+        private final LongAdder hedges = new LongAdder();
+        private final LongAdder hedgeWins = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder transientFailures = new LongAdder();
+        private final LongAdder deterministicFailures = new LongAdder();
+        private final List<ClassifiedFailure> failures = new ArrayList<>();
+
+        void fill(EndpointSummary summary) {
+            summary.setHedges(hedges.sum());
+            summary.setHedgeWins(hedgeWins.sum());
+            summary.setRetries(retries.sum());
+            summary.setTransientFailures(transientFailures.sum());
+            summary.setDeterministicFailures(deterministicFailures.sum());
+            synchronized (failures) {
+                summary.setClassifiedFailures(new ArrayList<>(failures));
+            }
+        }
+    }
+
+    private static final class CacheCounters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder revalidations = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder bytesSaved = new LongAdder();
+
+        void fill(EndpointSummary summary) {
+            long served = hits.sum() + revalidations.sum();
+            long lookups = served + misses.sum();
+            summary.setCacheHits(hits.sum());
+            summary.setCacheRevalidations(revalidations.sum());
+            summary.setCacheMisses(misses.sum());
+            summary.setCacheHitRatio(lookups == 0 ? 0 : (double) served / lookups);
+            summary.setCacheBytesSaved(bytesSaved.sum());
+        }
+    }
+
+    private static final class Samples {
+        // All values in microseconds
+        private final Histogram wall = new ConcurrentHistogram(3);
+        private final Histogram firstByte = new ConcurrentHistogram(3);
+        private final LongAdder bytes = new LongAdder();
+
+        // firstByteNanos is negative when no response came
+        void record(long wallNanos, long firstByteNanos, long responseBytes) {
+            wall.recordValue(TimeUnit.NANOSECONDS.toMicros(wallNanos));
+            if (firstByteNanos >= 0) {
+                firstByte.recordValue(TimeUnit.NANOSECONDS.toMicros(firstByteNanos));
+            }
+            bytes.add(responseBytes);
+        }
+    }
+
+    private static final class Aggregate {
+        private final Histogram wall = new Histogram(3);
+        private final Histogram firstByte = new Histogram(3);
+        private final Map<String, Histogram> wallByTest = new TreeMap<>();
+        private final Map<Integer, Long> countByStatus = new TreeMap<>();
+        private long errors;
+        // Failed without a response, so not in the time to first byte
+        private long noResponses;
+        private long bytes;
+
+        void add(SampleKey key, Samples value) {
+            Histogram wallCopy = value.wall.copy();
+            wall.add(wallCopy);
+            firstByte.add(value.firstByte.copy());
+            wallByTest.computeIfAbsent(key.testName, name -> new Histogram(3)).add(wallCopy);
+            countByStatus.merge(key.statusCode, wallCopy.getTotalCount(), Long::sum);
+            if (isError(key.statusCode)) {
+                errors += wallCopy.getTotalCount();
+            }
+            if (key.statusCode == NO_RESPONSE) {
+                noResponses += wallCopy.getTotalCount();
+            }
+            bytes += value.bytes.sum();
+        }
+
+        EndpointSummary toSummary() {
+            EndpointSummary summary = new EndpointSummary();
+            summary.setWallTime(LatencySummary.from(wall, errors));
+            summary.setTimeToFirstByte(LatencySummary.from(firstByte, errors - noResponses));
+            summary.setTotalResponseBytes(bytes);
+            summary.setMeanResponseBytes(wall.getTotalCount() == 0 ? 0 : bytes / wall.getTotalCount());
+            summary.setCountByStatus(countByStatus);
+            wallByTest.forEach((test, histogram) -> summary.getWallTimeByTest().put(test, LatencySummary.from(histogram, 0)));
+            return summary;
+        }
+    }
+
+    /**
+     * Keeps the N slowest requests. Only takes the lock when a sample is slower than the fastest one kept.
+     */
+    private static final class SlowestRequests {
+        private final int capacity;
+        private final PriorityQueue<SlowRequest> queue = new PriorityQueue<>(Comparator.comparingDouble(SlowRequest::getWallMs));
+        private volatile double floorMs = -1;
+
+        SlowestRequests(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(String url, int statusCode, String testName, long wallNanos, String error) {
+            double wallMs = wallNanos / 1_000_000.0;
+            if (wallMs <= floorMs) {
+                return;
+            }
+            synchronized (this) {
+                queue.add(new SlowRequest(url, statusCode, testName, wallMs, error));
+                if (queue.size() > capacity) {
+                    queue.poll();
+                }
+                if (queue.size() == capacity) {
+                    floorMs = queue.peek().getWallMs();
+                }
+            }
+        }
+
+        synchronized List<SlowRequest> snapshot() {
+            List<SlowRequest> result = new ArrayList<>(queue);
+            result.sort(Comparator.comparingDouble(SlowRequest::getWallMs).reversed());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.qa.challenge.utils;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Latency objective for the requests a test sends. Once the test has passed, {@link LatencySloExtension} sends
+ * the same requests again: {@link #warmup()} times unmeasured, then {@link #repetitions()} times measured, and
+ * fails the test if the p95 or p99 of the measured calls is above the limit.
+ * <p>
+ * The first request is reported as the cold latency and kept out of the percentiles, since it may pay for
+ * connection setup and for code the JIT has not compiled yet. The test bypasses the response cache, so its own
+ * requests are timed at the server too.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(LatencySloExtension.class)
+@BypassResponseCache
+public @interface LatencySlo {
+
+    long p95Millis() default 1000;
+
+    long p99Millis() default 1000;
+
+    // Limit for the cold first request; 0 reports it without a limit
+    long coldMillis() default 0;
+
+    int warmup() default 5;
+
+    int repetitions() default 50;
+
+    // Threads sending the measured calls; 1 sends them one after another from the test thread
+    int parallelism() default 1;
+}
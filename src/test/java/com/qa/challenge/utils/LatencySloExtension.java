@@ -0,0 +1,211 @@
+package com.qa.challenge.utils;
+
+import io.qameta.allure.Allure;
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registered by {@link LatencySlo}. Runs the test once as usual and notes the requests it sends over the network
+ * (see {@link LatencyFilter}). If the test passed, the requests are sent again, round robin, with the unreported
+ * client, so the repeats add neither log lines nor Allure steps: first the warm-up calls, then the measured calls,
+ * from {@link LatencySlo#parallelism()} threads.
+ * <p>
+ * The cold latency is the first request of the test. The verdict uses only the measured calls. A measured call
+ * that answers with another status than the original request fails the test, since a fast error is no evidence
+ * of a fast answer. The distribution is attached to the Allure result either way.
+ */
+public class LatencySloExtension implements InvocationInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(LatencySloExtension.class);
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        LatencySlo slo = AnnotationSupport.findAnnotation(extensionContext.getTestMethod(), LatencySlo.class)
+                .orElseThrow(() -> new IllegalStateException("LatencySloExtension needs @LatencySlo"));
+        List<ObservedRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        LatencyFilter.observe((method, uri, template, statusCode, wallNanos) ->
+                requests.add(new ObservedRequest(method, uri, template, statusCode, wallNanos)));
+        try {
+            invocation.proceed();
+        } finally {
+            LatencyFilter.stopObserving();
+        }
+        if (!TestConfig.LATENCY_SLO_ENABLED) {
+            return;
+        }
+        List<ObservedRequest> observed = new ArrayList<>(requests);
+        List<ObservedRequest> replayed = distinct(observed);
+        if (replayed.isEmpty()) {
+            // A replayed cassette, or nothing this extension may safely send again
+            Allure.addAttachment("Latency SLO", "Not measured: the test sent no GET request over the network");
+            return;
+        }
+
+        int warmup = TestConfig.LATENCY_SLO_WARMUP > 0 ? TestConfig.LATENCY_SLO_WARMUP : slo.warmup();
+        int repetitions = TestConfig.LATENCY_SLO_REPETITIONS > 0 ? TestConfig.LATENCY_SLO_REPETITIONS : slo.repetitions();
+        int parallelism = TestConfig.LATENCY_SLO_PARALLELISM > 0 ? TestConfig.LATENCY_SLO_PARALLELISM : slo.parallelism();
+        Allure.step("Latency SLO: " + warmup + " warm-up calls", () -> new Measurement(replayed).send(warmup, 1));
+        Measurement measured = new Measurement(replayed);
+        Allure.step("Latency SLO: " + repetitions + " measured calls on " + parallelism + " thread(s)",
+                () -> measured.send(repetitions, parallelism));
+
+        Histogram warm = measured.histogram;
+        double p95 = millis(warm.getValueAtPercentile(95));
+        double p99 = millis(warm.getValueAtPercentile(99));
+        double cold = millis(observed.get(0).wallNanos);
+        Allure.addAttachment("Latency distribution", report(slo, replayed, cold, warmup, parallelism, measured));
+        logger.info("{}: cold {} ms, warm p95 {} ms / p99 {} ms over {} calls", TestContext.currentTestName(),
+                format(cold), format(p95), format(p99), warm.getTotalCount());
+
+        List<String> violations = new ArrayList<>();
+        if (measured.statusMismatches.get() > 0) {
+            violations.add(measured.statusMismatches.get() + " of " + repetitions
+                    + " measured calls answered with another status than the test's own request");
+        }
+        if (p95 > slo.p95Millis()) {
+            violations.add("warm p95 " + format(p95) + " ms is above " + slo.p95Millis() + " ms");
+        }
+        if (p99 > slo.p99Millis()) {
+            violations.add("warm p99 " + format(p99) + " ms is above " + slo.p99Millis() + " ms");
+        }
+        if (slo.coldMillis() > 0 && cold > slo.coldMillis()) {
+            violations.add("cold first request " + format(cold) + " ms is above " + slo.coldMillis() + " ms");
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Latency SLO violated: " + String.join("; ", violations));
+        }
+    }
+
+    // One entry per URI, in the order the test first sent them; only GETs are safe to send again
+    private static List<ObservedRequest> distinct(List<ObservedRequest> observed) {
+        List<ObservedRequest> distinct = new ArrayList<>();
+        for (ObservedRequest request : observed) {
+            if ("GET".equals(request.method) && distinct.stream().noneMatch(seen -> seen.uri.equals(request.uri))) {
+                distinct.add(request);
+            }
+        }
+        return distinct;
+    }
+
+    private static String report(LatencySlo slo, List<ObservedRequest> replayed, double cold, int warmup,
+                                 int parallelism, Measurement measured) {
+        Histogram warm = measured.histogram;
+        StringBuilder text = new StringBuilder();
+        text.append("Requests: ");
+        replayed.forEach(request -> text.append('\n').append("  ").append(request.method).append(' ').append(request.uri));
+        text.append(String.format(Locale.ROOT, "%nCold (first request): %s ms%s",
+                format(cold), slo.coldMillis() > 0 ? " (limit " + slo.coldMillis() + " ms)" : ""));
+        text.append(String.format(Locale.ROOT, "%nWarm-up calls (not measured): %d%nMeasured calls: %d on %d thread(s),"
+                        + " %d with another status%n", warmup, warm.getTotalCount(), parallelism,
+                measured.statusMismatches.get()));
+        text.append(String.format(Locale.ROOT, "Warm p50 %s ms, p90 %s ms, p95 %s ms (limit %d), p99 %s ms (limit %d),"
+                        + " max %s ms%n%n", format(millis(warm.getValueAtPercentile(50))),
+                format(millis(warm.getValueAtPercentile(90))), format(millis(warm.getValueAtPercentile(95))),
+                slo.p95Millis(), format(millis(warm.getValueAtPercentile(99))), slo.p99Millis(),
+                format(millis(warm.getMaxValue()))));
+        ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(distribution, true, StandardCharsets.UTF_8)) {
+            // Values in milliseconds
+            warm.outputPercentileDistribution(out, 5, 1e6);
+        }
+        return text.append(distribution.toString(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.1f", millis);
+    }
+
+    private static final class ObservedRequest {
+        private final String method;
+        private final String uri;
+        private final String template;
+        private final int statusCode;
+        private final long wallNanos;
+
+        ObservedRequest(String method, String uri, String template, int statusCode, long wallNanos) {
+            this.method = method;
+            this.uri = uri;
+            this.template = template;
+            this.statusCode = statusCode;
+            this.wallNanos = wallNanos;
+        }
+    }
+
+    // Sends the requests again and records their wire-level wall time, as measured by LatencyFilter
+    private static final class Measurement {
+        private final List<ObservedRequest> requests;
+        private final Histogram histogram = new Histogram(MAX_TRACKABLE_NANOS, 3);
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger statusMismatches = new AtomicInteger();
+
+        Measurement(List<ObservedRequest> requests) {
+            this.requests = requests;
+        }
+
+        void send(int calls, int threads) throws Exception {
+            if (threads <= 1) {
+                sendUntil(calls);
+                return;
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Object>> workers = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    workers.add(executor.submit(TestContext.wrap(() -> {
+                        sendUntil(calls);
+                        return null;
+                    })));
+                }
+                for (Future<Object> worker : workers) {
+                    worker.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private void sendUntil(int calls) {
+            LatencyFilter.observe((method, uri, template, statusCode, wallNanos) -> {
+                synchronized (histogram) {
+                    histogram.recordValue(Math.min(wallNanos, MAX_TRACKABLE_NANOS));
+                }
+            });
+            try {
+                for (int call = next.getAndIncrement(); call < calls; call = next.getAndIncrement()) {
+                    ObservedRequest request = requests.get(call % requests.size());
+                    Response response = RestClient.unreported().getEncoded(request.template, request.uri);
+                    if (response.getStatusCode() != request.statusCode) {
+                        statusMismatches.incrementAndGet();
+                    }
+                }
+            } finally {
+                LatencyFilter.stopObserving();
+            }
+        }
+    }
+}
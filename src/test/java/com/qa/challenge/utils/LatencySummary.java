@@ -0,0 +1,41 @@
+package com.qa.challenge.utils;
+
+import lombok.Data;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentile summary of a latency histogram recorded in microseconds, reported in milliseconds.
+ */
+@Data
+public class LatencySummary {
+    private long count;
+    private long errors;
+    private double errorRate;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+
+    public static LatencySummary from(Histogram histogramMicros, long errors) {
+        LatencySummary summary = new LatencySummary();
+        long count = histogramMicros.getTotalCount();
+        summary.setCount(count);
+        summary.setErrors(errors);
+        summary.setErrorRate(count == 0 ? 0.0 : (double) errors / count);
+        summary.setMeanMs(histogramMicros.getMean() / 1000.0);
+        summary.setP50Ms(histogramMicros.getValueAtPercentile(50.0) / 1000.0);
+        summary.setP90Ms(histogramMicros.getValueAtPercentile(90.0) / 1000.0);
+        summary.setP99Ms(histogramMicros.getValueAtPercentile(99.0) / 1000.0);
+        summary.setP999Ms(histogramMicros.getValueAtPercentile(99.9) / 1000.0);
+        summary.setMaxMs(histogramMicros.getMaxValue() / 1000.0);
+        return summary;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d errors=%d (%.2f%%) p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms",
+                count, errors, errorRate * 100, p50Ms, p90Ms, p99Ms, p999Ms, maxMs);
+    }
+}
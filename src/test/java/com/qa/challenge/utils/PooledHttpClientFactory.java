@@ -0,0 +1,139 @@
+package com.qa.challenge.utils;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.HttpRequestRetryHandler;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the single Apache HttpClient used by RestAssured for every request in this JVM.
+ * <p>
+ * Connections are kept alive in a pool, and all TLS sockets come from one SSL context, so
+ * its session cache lets new connections resume earlier TLS sessions instead of doing a full handshake.
+ * Connecting, waiting for a pooled connection and waiting for the next bytes of a response are bounded by timeouts;
+ * the time of the whole request is bounded by {@link DeadlineFilter}.
+ * RestAssured only accepts the deprecated {@code AbstractHttpClient} API, hence {@link DefaultHttpClient}.
+ */
+@SuppressWarnings("deprecation")
+public class PooledHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+    private final PoolingClientConnectionManager connectionManager;
+    private final AtomicLong createdConnections = new AtomicLong();
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final long leaseTimeoutMillis;
+
+    /**
+     * @param connectTimeoutMillis time allowed to open a connection; 0 waits forever
+     * @param readTimeoutMillis    time allowed between two packets of a response; 0 waits forever
+     * @param leaseTimeoutMillis   time allowed to wait for a free connection when the pool is exhausted; 0 waits forever
+     */
+    public PooledHttpClientFactory(int maxTotal, int maxPerRoute, long connectionTtlSeconds,
+                                   int connectTimeoutMillis, int readTimeoutMillis, long leaseTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+        SchemeRegistry schemeRegistry = SchemeRegistryFactory.createDefault();
+        connectionManager = new PoolingClientConnectionManager(schemeRegistry, connectionTtlSeconds, TimeUnit.SECONDS) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+                return new DefaultClientConnectionOperator(registry) {
+                    @Override
+                    public OperatedClientConnection createConnection() {
+                        createdConnections.incrementAndGet();
+                        return super.createConnection();
+                    }
+                };
+            }
+        };
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+    }
+
+    @Override
+    public HttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        HttpParams params = client.getParams();
+        HttpConnectionParams.setConnectionTimeout(params, connectTimeoutMillis);
+        HttpConnectionParams.setSoTimeout(params, readTimeoutMillis);
+        params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, leaseTimeoutMillis);
+        // HttpClient retries idempotent requests after I/O errors, but not one aborted at its deadline
+        HttpRequestRetryHandler retryHandler = client.getHttpRequestRetryHandler();
+        client.setHttpRequestRetryHandler((exception, executionCount, context) ->
+                !DeadlineFilter.isOutOfTime() && retryHandler.retryRequest(exception, executionCount, context));
+        // Wire-level timestamps for LatencyFilter, and the connection for DeadlineFilter to abort when time is up,
+        // until the body has been read
+        client.addRequestInterceptor((request, context) -> {
+            LatencyFilter.onRequestSent();
+            DeadlineFilter.onRequestSent(context);
+        });
+        client.addResponseInterceptor((response, context) -> {
+            LatencyFilter.onResponseHeaders(response);
+            DeadlineFilter.onResponseHeaders(response);
+        });
+        return client;
+    }
+
+    public ConnectionPoolStats stats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getAvailable(), stats.getPending(),
+                stats.getMax(), createdConnections.get());
+    }
+
+    /**
+     * Point-in-time view of the connection pool, used to tune its size.
+     */
+    public static class ConnectionPoolStats {
+        private final int leased;
+        private final int idle;
+        private final int pending;
+        private final int max;
+        private final long created;
+
+        ConnectionPoolStats(int leased, int idle, int pending, int max, long created) {
+            this.leased = leased;
+            this.idle = idle;
+            this.pending = pending;
+            this.max = max;
+            this.created = created;
+        }
+
+        public int getLeased() {
+            return leased;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getPending() {
+            return pending;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        @Override
+        public String toString() {
+            return "ConnectionPoolStats{leased=" + leased + ", idle=" + idle + ", pending=" + pending
+                    + ", max=" + max + ", created=" + created + "}";
+        }
+    }
+}
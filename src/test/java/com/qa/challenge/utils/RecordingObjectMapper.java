@@ -0,0 +1,52 @@
+package com.qa.challenge.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qa.challenge.jfr.DeserializationEvent;
+import io.restassured.mapper.ObjectMapperDeserializationContext;
+import io.restassured.mapper.ObjectMapperSerializationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * RestAssured object mapper that binds with the shared Jackson mapper, like the default Jackson 2 mapper does,
+ * and emits a {@link DeserializationEvent} for each {@code response.as(...)}.
+ */
+class RecordingObjectMapper implements io.restassured.mapper.ObjectMapper {
+    private final ObjectMapper mapper;
+
+    RecordingObjectMapper(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Object deserialize(ObjectMapperDeserializationContext context) {
+        DeserializationEvent event = new DeserializationEvent();
+        event.begin();
+        try {
+            return mapper.readValue(context.getDataToDeserialize().asByteArray(), mapper.constructType(context.getType()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind response to " + context.getType().getTypeName(), e);
+        } finally {
+            commit(event, context.getType().getTypeName());
+        }
+    }
+
+    @Override
+    public Object serialize(ObjectMapperSerializationContext context) {
+        try {
+            return mapper.writeValueAsString(context.getObjectToSerialize());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void commit(DeserializationEvent event, String type) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setType(type);
+            event.setTest(TestContext.currentTestName());
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.qa.challenge.utils;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU store of successful GET responses with a time to live, used by {@link ResponseCacheFilter}.
+ * <p>
+ * Within its TTL an entry is served without contacting the server. After that it is kept for revalidation:
+ * if the server sent an {@code ETag} or {@code Last-Modified} header, the next request is made conditional and
+ * a {@code 304 Not Modified} answer renews the entry. Entries without validators are simply fetched again.
+ * A single lock guards the map; it is held only to look up, insert or reorder an entry.
+ * <p>
+ * Tests that must always reach the server are excluded by name (see {@link BypassResponseCache}); the name is
+ * taken from {@link TestContext}, so requests a test makes from worker threads are excluded as well.
+ */
+public class ResponseCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final int maxBodyBytes;
+
+    private final Map<String, Entry> entries;
+    private final Set<String> bypassedTests = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * @param maxEntries   entries kept before the least recently used one is evicted
+     * @param ttlSeconds   how long an entry is served without asking the server
+     * @param maxBodyBytes responses with a larger body are not cached
+     */
+    public ResponseCache(int maxEntries, long ttlSeconds, int maxBodyBytes) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1, got: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxBodyBytes = maxBodyBytes;
+        // Access order: every get moves the entry to the end, so the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResponseCache.Entry> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Excludes the test from the cache until {@link #endBypass(String)}; its requests always go to the server.
+     */
+    public void beginBypass(String testName) {
+        bypassedTests.add(testName);
+    }
+
+    public void endBypass(String testName) {
+        bypassedTests.remove(testName);
+    }
+
+    boolean isBypassed(String testName) {
+        if (bypassedTests.contains(testName)) {
+            bypasses.increment();
+            return true;
+        }
+        return false;
+    }
+
+    // null if nothing is cached under the key, fresh or not
+    synchronized Entry lookup(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a response if it can be cached: a 200 whose body fits and that the server did not mark no-store.
+     */
+    void store(String key, Response response) {
+        if (response.getStatusCode() != 200) {
+            return;
+        }
+        String cacheControl = response.getHeader("Cache-Control");
+        if (cacheControl != null && cacheControl.toLowerCase().contains("no-store")) {
+            return;
+        }
+        byte[] body = response.asByteArray();
+        if (body.length > maxBodyBytes) {
+            return;
+        }
+        Entry entry = new Entry(response, body.length, response.getHeader("ETag"),
+                response.getHeader("Last-Modified"), System.nanoTime() + ttlNanos);
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    // The server answered 304: the entry is good for another TTL
+    void renew(Entry entry) {
+        entry.expiresAtNanos = System.nanoTime() + ttlNanos;
+    }
+
+    void countHit(Entry entry, boolean revalidated) {
+        (revalidated ? revalidations : hits).increment();
+        bytesSaved.add(entry.bodyBytes());
+    }
+
+    void countMiss() {
+        misses.increment();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new Stats(size, hits.sum(), revalidations.sum(), misses.sum(), bypasses.sum(),
+                evictions.sum(), bytesSaved.sum());
+    }
+
+    /**
+     * A cached response. Callers get a copy from {@link #response()}, so tests never share a response object.
+     */
+    static final class Entry {
+        private final Response response;
+        private final long bodyBytes;
+        private final String etag;
+        private final String lastModified;
+        private volatile long expiresAtNanos;
+
+        Entry(Response response, long bodyBytes, String etag, String lastModified, long expiresAtNanos) {
+            this.response = response;
+            this.bodyBytes = bodyBytes;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isFresh() {
+            return System.nanoTime() - expiresAtNanos < 0;
+        }
+
+        boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+
+        String etag() {
+            return etag;
+        }
+
+        String lastModified() {
+            return lastModified;
+        }
+
+        long bodyBytes() {
+            return bodyBytes;
+        }
+
+        Response response() {
+            return new ResponseBuilder().clone(response).build();
+        }
+    }
+
+    /**
+     * Point-in-time view of the cache, reported at the end of the run.
+     */
+    public static class Stats {
+        private final int entries;
+        private final long hits;
+        private final long revalidations;
+        private final long misses;
+        private final long bypasses;
+        private final long evictions;
+        private final long bytesSaved;
+
+        Stats(int entries, long hits, long revalidations, long misses, long bypasses, long evictions, long bytesSaved) {
+            this.entries = entries;
+            this.hits = hits;
+            this.revalidations = revalidations;
+            this.misses = misses;
+            this.bypasses = bypasses;
+            this.evictions = evictions;
+            this.bytesSaved = bytesSaved;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getRevalidations() {
+            return revalidations;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getBypasses() {
+            return bypasses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getBytesSaved() {
+            return bytesSaved;
+        }
+
+        // Fresh hits and 304 revalidations over all cacheable lookups; bypassed requests are not counted
+        public double getHitRatio() {
+            long lookups = hits + revalidations + misses;
+            return lookups == 0 ? 0 : (double) (hits + revalidations) / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats{entries=%d, hits=%d, revalidations=%d, misses=%d, bypasses=%d, "
+                            + "evictions=%d, hitRatio=%.3f, bytesSaved=%d}",
+                    entries, hits, revalidations, misses, bypasses, evictions, getHitRatio(), bytesSaved);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.qa.challenge.utils;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Registered by {@link BypassResponseCache}: excludes the running test from the response cache for its duration.
+ * The test is identified by its {@link TestContext} name, which {@link RunListener} sets before this runs.
+ */
+public class ResponseCacheBypassExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        RestClient.responseCache().beginBypass(TestContext.currentTestName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        RestClient.responseCache().endBypass(TestContext.currentTestName());
+    }
+}
@@ -0,0 +1,67 @@
+package com.qa.challenge.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Answers repeated identical GETs from a {@link ResponseCache}.
+ * <p>
+ * The key is the method and the full request URI, i.e. the endpoint template with its path and query parameters
+ * filled in. A fresh entry is returned without a request; an expired one with validators is revalidated with
+ * {@code If-None-Match}/{@code If-Modified-Since}. Hits and bytes saved are also recorded per endpoint template
+ * in {@link LatencyRecorder}. Runs first among the spec filters, so a hit takes no concurrency slot.
+ */
+public class ResponseCacheFilter implements Filter {
+    private final ResponseCache cache;
+
+    public ResponseCacheFilter(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!"GET".equalsIgnoreCase(requestSpec.getMethod()) || cache.isBypassed(TestContext.currentTestName())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        String endpoint = LatencyFilter.endpointTemplate(requestSpec);
+        String key = requestSpec.getMethod() + " " + requestSpec.getURI();
+        ResponseCache.Entry entry = cache.lookup(key);
+        if (entry != null && entry.isFresh()) {
+            return hit(endpoint, entry, false);
+        }
+
+        boolean conditional = entry != null && entry.canRevalidate();
+        if (conditional) {
+            if (entry.etag() != null) {
+                requestSpec.header("If-None-Match", entry.etag());
+            }
+            if (entry.lastModified() != null) {
+                requestSpec.header("If-Modified-Since", entry.lastModified());
+            }
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (conditional && response.getStatusCode() == 304) {
+            // Reads the empty body so the connection goes back to the pool
+            response.asByteArray();
+            cache.renew(entry);
+            return hit(endpoint, entry, true);
+        }
+
+        cache.countMiss();
+        LatencyRecorder.recordCacheMiss(endpoint);
+        cache.store(key, response);
+        return response;
+    }
+
+    private Response hit(String endpoint, ResponseCache.Entry entry, boolean revalidated) {
+        cache.countHit(entry, revalidated);
+        LatencyRecorder.recordCacheHit(endpoint, entry.bodyBytes(), revalidated);
+        return entry.response();
+    }
+}
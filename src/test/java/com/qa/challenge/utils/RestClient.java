@@ -3,10 +3,11 @@ package com.qa.challenge.utils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import io.qameta.allure.Allure;
+import com.qa.challenge.jfr.RestCallEvent;
 import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
 import io.restassured.config.ObjectMapperConfig;
 import io.restassured.config.RestAssuredConfig;
 import io.restassured.filter.log.LogDetail;
@@ -17,57 +18,316 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 public class RestClient {
     private static final Logger logger = LoggerFactory.getLogger(RestClient.class);
-    private final RequestSpecification requestSpec;
+
+    // Mapper, config and connection pool are built once per JVM (i.e. once per Surefire fork)
+    private static final ObjectMapper objectMapper = createObjectMapper();
+    private static final PooledHttpClientFactory httpClientFactory = new PooledHttpClientFactory(
+            TestConfig.HTTP_POOL_MAX_TOTAL, TestConfig.HTTP_POOL_MAX_PER_ROUTE, TestConfig.HTTP_POOL_CONNECTION_TTL_SECONDS,
+            TestConfig.HTTP_CONNECT_TIMEOUT_MILLIS, TestConfig.HTTP_READ_TIMEOUT_MILLIS, TestConfig.HTTP_REQUEST_TIMEOUT_MILLIS);
+    private static final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            TestConfig.HTTP_LIMITER_INITIAL, TestConfig.HTTP_LIMITER_MIN, TestConfig.HTTP_LIMITER_MAX,
+            TestConfig.HTTP_LIMITER_BACKOFF, TestConfig.HTTP_LIMITER_LATENCY_TOLERANCE, TestConfig.HTTP_LIMITER_MAX_ERROR_RATE);
+    private static final ResponseCache responseCache = new ResponseCache(
+            TestConfig.HTTP_CACHE_MAX_ENTRIES, TestConfig.HTTP_CACHE_TTL_SECONDS, TestConfig.HTTP_CACHE_MAX_BODY_BYTES);
+    // The global cassette filter; null when no cassette is in use
+    private static CassetteFilter cassetteFilter;
+    private static final RestAssuredConfig config = createConfig();
+    private static final RequestSpecification baseSpec = createBaseSpec();
+    private static final RequestSpecification unreportedSpec = createUnreportedSpec();
+    private static final RestClient shared = new RestClient();
+    private static final RestClient unreported = new RestClient(unreportedSpec);
+    private static final RestClient resilient = new RestClient(baseSpec, new HedgingRetryPolicy(
+            TestConfig.HTTP_RETRY_MAX_ATTEMPTS, TestConfig.HTTP_RETRY_BASE_BACKOFF_MILLIS,
+            TestConfig.HTTP_RETRY_MAX_BACKOFF_MILLIS, TestConfig.HTTP_HEDGE_PERCENTILE, TestConfig.HTTP_HEDGE_MAX_SHARE));
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            logger.info("HTTP connection pool at shutdown: {}", httpClientFactory.stats());
+            if (TestConfig.HTTP_LIMITER_ENABLED) {
+                logger.info("Concurrency limiter at shutdown: {}", limiter.stats());
+            }
+            if (TestConfig.HTTP_CACHE_ENABLED) {
+                logger.info("Response cache at shutdown: {}", responseCache.stats());
+            }
+        }));
+    }
+
+    /**
+     * Returns the client shared by all tests in this JVM. It is safe to use from multiple threads.
+     */
+    public static RestClient shared() {
+        return shared;
+    }
+
+    /**
+     * Returns a shared client without request logging and Allure attachments, for load generation where
+     * thousands of requests per test would swamp the log and the report. It also bypasses the adaptive
+     * concurrency limit, since an open-loop load test sets the request rate itself.
+     */
+    public static RestClient unreported() {
+        return unreported;
+    }
+
+    /**
+     * Returns a shared client that hedges slow requests and retries 5xx/I/O failures (see {@link HedgingRetryPolicy}).
+     * Opt-in: recovered failures are recorded as transient in the run summary, not reported by the test.
+     */
+    public static RestClient resilient() {
+        return resilient;
+    }
+
+    /**
+     * Returns a client for another host, without the concurrency limit and response cache of {@link #shared()},
+     * e.g. for a {@code LatencyInjectionProxy} in front of a stub server. Timeouts and deadlines apply as usual.
+     * The run's cassette ({@code -Dhttp.cassette}) is not used: the requests always go to {@code baseUrl}.
+     */
+    public static RestClient forBaseUrl(String baseUrl) {
+        return new RestClient(new RequestSpecBuilder()
+                .setBaseUri(baseUrl)
+                .setContentType(ContentType.JSON)
+                .setConfig(config)
+                .addFilter(new FailureCaptureFilter(TestConfig.HTTP_CAPTURE_MAX_BODY_BYTES))
+                .build(), null, false);
+    }
+
+    /**
+     * Like {@link #forBaseUrl(String)}, but recording to or replaying from {@code cassette} instead of the network
+     * alone, e.g. to check that a recording replays.
+     */
+    public static RestClient forBaseUrl(String baseUrl, Cassette cassette) {
+        return new RestClient(new RequestSpecBuilder()
+                .setBaseUri(baseUrl)
+                .setContentType(ContentType.JSON)
+                .setConfig(config)
+                .addFilter(new FailureCaptureFilter(TestConfig.HTTP_CAPTURE_MAX_BODY_BYTES))
+                .addFilter(new CassetteFilter(cassette))
+                .build(), null, false);
+    }
+
+    public static PooledHttpClientFactory.ConnectionPoolStats poolStats() {
+        return httpClientFactory.stats();
+    }
+
+    /**
+     * Current state of the adaptive concurrency limit shared by all tests using {@link #shared()}.
+     */
+    public static AdaptiveConcurrencyLimiter.Stats concurrencyLimiterStats() {
+        return limiter.stats();
+    }
+
+    /**
+     * Hits, revalidations and bytes saved by the response cache of {@link #shared()} ({@code -Dhttp.cache.enabled=true}).
+     */
+    public static ResponseCache.Stats responseCacheStats() {
+        return responseCache.stats();
+    }
+
+    static ResponseCache responseCache() {
+        return responseCache;
+    }
+
+    // Shared with AsyncUserClient, so both clients decode the same way
+    static ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    private final RequestSpecification spec;
+    // null: every call is sent exactly once
+    private final HedgingRetryPolicy policy;
+    private final boolean usesCassette;
 
     public RestClient() {
+        // Shared state is static; instances are kept for backwards compatibility with existing callers
+        this(baseSpec);
+    }
+
+    private RestClient(RequestSpecification spec) {
+        this(spec, null);
+    }
+
+    private RestClient(RequestSpecification spec, HedgingRetryPolicy policy) {
+        this(spec, policy, true);
+    }
+
+    private RestClient(RequestSpecification spec, HedgingRetryPolicy policy, boolean usesCassette) {
+        this.spec = spec;
+        this.policy = policy;
+        this.usesCassette = usesCassette;
+    }
+
+    private static ObjectMapper createObjectMapper() {
         // Configure Jackson for handling Java 8 date/time types
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    private static RestAssuredConfig createConfig() {
+        HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(httpClientFactory)
+                .reuseHttpClientInstance();
+        // Create the pooled client up front so concurrent first requests don't race to create it
+        httpClientConfig.httpClientInstance();
 
-        // Add custom deserializer for LocalDateTime if needed
-        RestAssured.config = RestAssuredConfig.config()
+        RestAssuredConfig restAssuredConfig = RestAssuredConfig.config()
+                .httpClient(httpClientConfig)
                 .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
-                .jackson2ObjectMapperFactory((type, s) -> objectMapper));
+                .jackson2ObjectMapperFactory((type, s) -> objectMapper)
+                // Same mapper; also times every response.as(...) for JFR recordings (-Pjfr)
+                .defaultObjectMapper(new RecordingObjectMapper(objectMapper)));
 
+        // Tests that call RestAssured.given() directly use the same mapper and connection pool
+        RestAssured.config = restAssuredConfig;
+        // Global filters, so direct RestAssured.given() calls also release their pooled connection, get timed and
+        // keep to their deadline. The deadline comes first, so reading the body counts towards it.
+        RestAssured.filters(new DeadlineFilter(TestConfig.HTTP_REQUEST_TIMEOUT_MILLIS, TestConfig.HTTP_READ_TIMEOUT_MILLIS),
+                new BufferedBodyFilter(), new LatencyFilter());
+        if (Cassette.shared().getMode() != Cassette.Mode.OFF) {
+            // Also global, so a replay run makes no network calls at all
+            cassetteFilter = new CassetteFilter(Cassette.shared());
+            RestAssured.filters(cassetteFilter);
+        }
+        return restAssuredConfig;
+    }
+
+    private static RequestSpecification createBaseSpec() {
         RequestSpecBuilder builder = new RequestSpecBuilder()
                 .setBaseUri(TestConfig.BASE_URL)
                 .setContentType(ContentType.JSON)
-                .setConfig(RestAssured.config)
-                .log(LogDetail.ALL)
-                .addFilter(new AllureRestAssured()); // Add Allure reporting filter
+                .setConfig(config);
+        if (TestConfig.HTTP_CACHE_ENABLED) {
+            // First, so a cache hit neither waits for nor takes a concurrency slot
+            builder.addFilter(new ResponseCacheFilter(responseCache));
+        }
+        if (TestConfig.HTTP_LIMITER_ENABLED) {
+            // Keeps parallel tests and sweeps from overloading the server into the 5xx errors we report
+            builder.addFilter(new ConcurrencyLimitFilter(limiter));
+        }
+        if ("all".equalsIgnoreCase(TestConfig.HTTP_CAPTURE_MODE)) {
+            builder.log(LogDetail.ALL)
+                    .addFilter(new AllureRestAssured()); // Add Allure reporting filter
+        } else {
+            // Logging and attaching every request dominates large sweeps; keep details only for failures
+            builder.addFilter(new FailureCaptureFilter(TestConfig.HTTP_CAPTURE_MAX_BODY_BYTES));
+        }
+        return builder.build();
+    }
+
+    private static RequestSpecification createUnreportedSpec() {
+        return new RequestSpecBuilder()
+                .setBaseUri(TestConfig.BASE_URL)
+                .setContentType(ContentType.JSON)
+                .setConfig(config)
+                .build();
+    }
 
-        requestSpec = RestAssured.given().spec(builder.build());
+    // Every call starts from a fresh copy of the base spec, so parameters never leak between requests or threads
+    private RequestSpecification request() {
+        return RestAssured.given().spec(spec);
+    }
+
+    // The call may run more than once and on another thread when a policy is set
+    private Response send(String endpoint, String description, Supplier<Response> request) {
+        // Wrapped per attempt, since a policy may run attempts on other threads
+        Supplier<Response> call = usesCassette || cassetteFilter == null ? request : () -> cassetteFilter.bypass(request);
+        RestCallEvent event = new RestCallEvent();
+        event.begin();
+        Response response = null;
+        try {
+            response = policy == null ? call.get() : policy.execute(endpoint, description, call);
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setEndpoint(endpoint);
+                // Status 0: the call threw, e.g. a connection failure
+                event.setStatus(response != null ? response.getStatusCode() : 0);
+                event.setBytes(response != null ? response.asByteArray().length : 0);
+                event.setTest(TestContext.currentTestName());
+                event.commit();
+            }
+        }
     }
 
     public Response get(String endpoint) {
-        return requestSpec.when().get(endpoint);
+        return send(endpoint, "GET " + endpoint, () -> request().when().get(endpoint));
     }
 
     public Response get(String endpoint, Map<String, Object> queryParams) {
-        return requestSpec.queryParams(queryParams).when().get(endpoint);
+        return send(endpoint, "GET " + endpoint + " " + queryParams,
+                () -> request().queryParams(queryParams).when().get(endpoint));
     }
 
     public Response get(String endpoint, Map<String, Object> queryParams, Map<String, Object> pathParams) {
-        return requestSpec.queryParams(queryParams).pathParams(pathParams).when().get(endpoint);
+        return send(endpoint, "GET " + endpoint + " " + pathParams + " " + queryParams,
+                () -> request().queryParams(queryParams).pathParams(pathParams).when().get(endpoint));
     }
 
     public Response get(String endpoint, Map<String, Object> pathParams, boolean isPathParam) {
         // Log the actual path parameter values being used
-        logger.info("Making GET request to {} with path parameters: {}", endpoint, pathParams);
+        logger.debug("Making GET request to {} with path parameters: {}", endpoint, pathParams);
 
-        // Substitute path parameter placeholders in the endpoint
+        String finalEndpoint = expandPath(endpoint, pathParams);
+        logger.debug("Final endpoint URL: {}", finalEndpoint);
+        return send(endpoint, "GET " + finalEndpoint, () -> {
+            // The substituted URL no longer shows the template, so hand it to the latency filter directly
+            LatencyFilter.setEndpointTemplate(endpoint);
+            try {
+                return request().when().get(finalEndpoint);
+            } finally {
+                LatencyFilter.clearEndpointTemplate();
+            }
+        });
+    }
+
+    /**
+     * Like {@link #get(String, Map, boolean)}, with extra request headers such as {@code If-None-Match}.
+     */
+    public Response getWithHeaders(String endpoint, Map<String, Object> pathParams, Map<String, String> headers) {
+        String finalEndpoint = expandPath(endpoint, pathParams);
+        return send(endpoint, "GET " + finalEndpoint + " " + headers, () -> {
+            LatencyFilter.setEndpointTemplate(endpoint);
+            try {
+                return request().headers(headers).when().get(finalEndpoint);
+            } finally {
+                LatencyFilter.clearEndpointTemplate();
+            }
+        });
+    }
+
+    /**
+     * Sends {@code pathAndQuery} exactly as given, with URL encoding turned off, so callers such as the fuzzer
+     * control every byte on the wire. The value must already be percent-encoded into a syntactically valid URI.
+     *
+     * @param endpoint template the request is timed under, e.g. {@code /api/test/user/{id}}
+     */
+    public Response getEncoded(String endpoint, String pathAndQuery) {
+        return send(endpoint, "GET " + pathAndQuery, () -> {
+            LatencyFilter.setEndpointTemplate(endpoint);
+            try {
+                return request().urlEncodingEnabled(false).when().get(pathAndQuery);
+            } finally {
+                LatencyFilter.clearEndpointTemplate();
+            }
+        });
+    }
+
+    /**
+     * Substitutes {@code {name}} placeholders in the endpoint with the path parameter values (not URL-encoded).
+     * Public so the JMH benchmarks ({@code -Pjmh}) can measure it against other templating approaches.
+     */
+    public static String expandPath(String endpoint, Map<String, Object> pathParams) {
         String finalEndpoint = endpoint;
         for (Map.Entry<String, Object> entry : pathParams.entrySet()) {
             String placeholder = "{" + entry.getKey() + "}";
             finalEndpoint = finalEndpoint.replace(placeholder, String.valueOf(entry.getValue()));
-            logger.info("Replaced {} with {} in endpoint", placeholder, entry.getValue());
+            logger.debug("Replaced {} with {} in endpoint", placeholder, entry.getValue());
         }
-
-        logger.info("Final endpoint URL: {}", finalEndpoint);
-        return requestSpec.when().get(finalEndpoint);
+        return finalEndpoint;
     }
 }
@@ -0,0 +1,104 @@
+package com.qa.challenge.utils;
+
+import com.qa.challenge.baseline.BaselineRecorder;
+import com.qa.challenge.jfr.TestRunRecording;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * JUnit Platform listener (registered in {@code META-INF/services}) that tracks the running test for
+ * {@link TestContext} and writes the run-wide latency summary once all tests have finished. The run's figures
+ * also go to the performance baseline, which compares them with earlier runs.
+ * It also closes the recorded or replayed {@link Cassette}, which reports requests that were not recorded, and
+ * waits for queued Allure attachments after a failed test and at the end of the run. With {@code -Pjfr} it
+ * starts and stops the run's flight recording. It starts the {@link Deadline} budgets of the run and of each test.
+ * JUnit calls it on the thread that executes the test.
+ * <p>
+ * A nested run, such as the scenario runs of a soak, only tags requests with the running test: the outer run keeps
+ * its recording, summary, cassette and budgets, and the outer test gets its name back when a nested test ends.
+ */
+public class RunListener implements TestExecutionListener {
+    private final boolean nested;
+    // Name of the outer test while a nested test runs on the same thread
+    private final ThreadLocal<String> outerTestName = new ThreadLocal<>();
+    private long runStart;
+
+    public RunListener() {
+        this(false);
+    }
+
+    protected RunListener(boolean nested) {
+        this.nested = nested;
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if (nested) {
+            return;
+        }
+        TestRunRecording.start();
+        runStart = System.nanoTime();
+        Deadline.startSuite(TestConfig.DEADLINE_SUITE_SECONDS);
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (!testIdentifier.isTest()) {
+            return;
+        }
+        if (nested) {
+            // The outer test's budget keeps running, so a nested test cannot extend it
+            outerTestName.set(TestContext.currentTestNameOrNull());
+            TestContext.setCurrentTestName(testName(testIdentifier));
+            return;
+        }
+        TestContext.setCurrentTestName(testName(testIdentifier));
+        Deadline.startTest(TestConfig.DEADLINE_TEST_SECONDS);
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (!testIdentifier.isTest()) {
+            return;
+        }
+        if (nested) {
+            TestContext.setCurrentTestName(outerTestName.get());
+            outerTestName.remove();
+        } else {
+            TestContext.clear();
+            Deadline.endTest();
+        }
+        if (testExecutionResult.getStatus() == TestExecutionResult.Status.FAILED) {
+            AsyncAttachmentWriter.flush();
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (nested) {
+            return;
+        }
+        LatencyRecorder.writeSummary(LatencyRecorder.summaryFile());
+        BaselineRecorder.recordRun((System.nanoTime() - runStart) / 1e9);
+        Cassette.closeShared();
+        AsyncAttachmentWriter.flush();
+        TestRunRecording.stop();
+    }
+
+    private static String testName(TestIdentifier testIdentifier) {
+        // Method source gives "UserApiTest.testGetUserByValidId"; parameterized invocations keep their display name
+        return testIdentifier.getSource()
+                .filter(source -> source instanceof MethodSource)
+                .map(source -> (MethodSource) source)
+                .map(source -> simpleClassName(source.getClassName()) + "." + source.getMethodName()
+                        + (testIdentifier.getDisplayName().startsWith("[") ? " " + testIdentifier.getDisplayName() : ""))
+                .orElse(testIdentifier.getDisplayName());
+    }
+
+    private static String simpleClassName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
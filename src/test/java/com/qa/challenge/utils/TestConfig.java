@@ -1,7 +1,14 @@
 package com.qa.challenge.utils;
 
+import com.qa.challenge.stub.LatencyInjectionProxy;
+import com.qa.challenge.stub.ProxyFault;
+import com.qa.challenge.stub.StubUserServer;
+
 public class TestConfig {
-    public static final String BASE_URL = "https://hr-challenge.dev.tapyou.com";
+    public static final String LIVE_BASE_URL = "https://hr-challenge.dev.tapyou.com";
+    // -Dstub.enabled=true runs against the in-process stub server, -Dapi.baseUrl=... against any other host;
+    // -Dproxy.fault=latency:200 etc. puts a LatencyInjectionProxy in front of a plain-HTTP target such as the stub
+    public static final String BASE_URL = resolveBaseUrl();
     public static final String USERS_ENDPOINT = "/api/test/users";
     public static final String USER_ENDPOINT = "/api/test/user/{id}";
 
@@ -11,4 +18,115 @@ public class TestConfig {
     public static final String GENDER_MAGIC = "magic";
     public static final String GENDER_MCCLOUD = "McCloud";
     public static final String GENDER_ANY = "any";
+
+    // How long the shared user ID snapshot is reused before it is fetched again (-Duserids.ttl.seconds=N)
+    public static final long USER_IDS_TTL_SECONDS = Long.getLong("userids.ttl.seconds", 300);
+
+    // Keep-alive connection pool shared by all requests in the JVM (-Dhttp.pool.maxTotal=N etc.)
+    public static final int HTTP_POOL_MAX_TOTAL = Integer.getInteger("http.pool.maxTotal", 32);
+    public static final int HTTP_POOL_MAX_PER_ROUTE = Integer.getInteger("http.pool.maxPerRoute", 32);
+    public static final long HTTP_POOL_CONNECTION_TTL_SECONDS = Long.getLong("http.pool.connectionTtlSeconds", 60);
+
+    // Client-side timeouts of every RestAssured request: opening a connection, waiting for the next bytes of the
+    // response, and the whole request including its body, which also bounds waiting for a pooled connection.
+    // 0 turns one off (-Dhttp.requestTimeoutMillis=N etc.)
+    public static final int HTTP_CONNECT_TIMEOUT_MILLIS = Integer.getInteger("http.connectTimeoutMillis", 5000);
+    public static final int HTTP_READ_TIMEOUT_MILLIS = Integer.getInteger("http.readTimeoutMillis", 30000);
+    public static final long HTTP_REQUEST_TIMEOUT_MILLIS = Long.getLong("http.requestTimeoutMillis", 60000);
+
+    // Deadline budgets of the whole run and of each test (see Deadline): requests and workers of a test inherit
+    // them, and work not yet started when one runs out is not started at all; 0 = no budget
+    public static final long DEADLINE_SUITE_SECONDS = Long.getLong("deadline.suiteSeconds", 0);
+    public static final long DEADLINE_TEST_SECONDS = Long.getLong("deadline.testSeconds", 0);
+
+    // Adaptive (AIMD) limit on requests in flight through RestClient.shared() (-Dhttp.limiter.enabled=false etc.)
+    public static final boolean HTTP_LIMITER_ENABLED =
+            Boolean.parseBoolean(System.getProperty("http.limiter.enabled", "true"));
+    public static final int HTTP_LIMITER_INITIAL = Integer.getInteger("http.limiter.initial", 8);
+    public static final int HTTP_LIMITER_MIN = Integer.getInteger("http.limiter.min", 1);
+    public static final int HTTP_LIMITER_MAX = Integer.getInteger("http.limiter.max", HTTP_POOL_MAX_PER_ROUTE);
+    public static final double HTTP_LIMITER_BACKOFF = doubleProperty("http.limiter.backoff", 0.5);
+    public static final double HTTP_LIMITER_LATENCY_TOLERANCE = doubleProperty("http.limiter.latencyTolerance", 2.0);
+    public static final double HTTP_LIMITER_MAX_ERROR_RATE = doubleProperty("http.limiter.maxErrorRate", 0.1);
+
+    // Hedging and retries of RestClient.resilient(); -Dhttp.resilience=true makes the all-IDs sweep use it
+    public static final boolean HTTP_RESILIENCE_ENABLED = Boolean.getBoolean("http.resilience");
+    public static final int HTTP_RETRY_MAX_ATTEMPTS = Integer.getInteger("http.retry.maxAttempts", 3);
+    public static final long HTTP_RETRY_BASE_BACKOFF_MILLIS = Long.getLong("http.retry.baseBackoffMillis", 50);
+    public static final long HTTP_RETRY_MAX_BACKOFF_MILLIS = Long.getLong("http.retry.maxBackoffMillis", 1000);
+    public static final double HTTP_HEDGE_PERCENTILE = doubleProperty("http.hedge.percentile", 95.0);
+    public static final double HTTP_HEDGE_MAX_SHARE = doubleProperty("http.hedge.maxShare", 0.05);
+
+    // Opt-in LRU/TTL cache of repeated identical GETs in RestClient.shared() (-Dhttp.cache.enabled=true etc.)
+    public static final boolean HTTP_CACHE_ENABLED = Boolean.getBoolean("http.cache.enabled");
+    public static final int HTTP_CACHE_MAX_ENTRIES = Integer.getInteger("http.cache.maxEntries", 1024);
+    public static final long HTTP_CACHE_TTL_SECONDS = Long.getLong("http.cache.ttlSeconds", 60);
+    public static final int HTTP_CACHE_MAX_BODY_BYTES = Integer.getInteger("http.cache.maxBodyBytes", 1024 * 1024);
+
+    // Record/replay of HTTP exchanges: off, record or replay (-Dhttp.cassette=replay runs without any network)
+    public static final String HTTP_CASSETTE_MODE = System.getProperty("http.cassette", "off");
+    public static final String HTTP_CASSETTE_FILE = System.getProperty("http.cassette.file", "cassettes/api.cassette");
+
+    // Non-blocking user-detail client on java.net.http (AsyncUserClient); -Dsweep.async=true makes the all-IDs sweep use it
+    public static final boolean SWEEP_ASYNC = Boolean.getBoolean("sweep.async");
+    public static final String HTTP_ASYNC_VERSION = System.getProperty("http.async.version", "HTTP_2");
+    public static final int HTTP_ASYNC_MAX_IN_FLIGHT = Integer.getInteger("http.async.maxInFlight", 64);
+    public static final long HTTP_ASYNC_TIMEOUT_SECONDS = Long.getLong("http.async.timeoutSeconds", 30);
+
+    // Number of user IDs checked in parallel by the all-IDs sweep (-Dfanout.concurrency=N).
+    // With the limiter on, the sweep offers as many as the limiter may allow and the limiter decides.
+    public static final int FAN_OUT_CONCURRENCY =
+            Integer.getInteger("fanout.concurrency", HTTP_LIMITER_ENABLED ? HTTP_LIMITER_MAX : 8);
+
+    // Sharded runs (-Pshard -Dshard.index=i -Dshard.count=n): each JVM runs a hash-based slice of the tests,
+    // parameterized cases and user IDs (see com.qa.challenge.shard.Shard)
+    public static final int SHARD_INDEX = Integer.getInteger("shard.index", 0);
+    public static final int SHARD_COUNT = Integer.getInteger("shard.count", 1);
+
+    // Cross-endpoint consistency crawl; the state file lets later runs re-check only IDs whose listing or details
+    // changed (-Dcrawl.full=true checks every ID)
+    public static final int CRAWL_CONCURRENCY = Integer.getInteger("crawl.concurrency", FAN_OUT_CONCURRENCY);
+    public static final String CRAWL_STATE_FILE = System.getProperty("crawl.stateFile", "target/consistency/crawl-state.bin");
+    public static final boolean CRAWL_FULL = Boolean.getBoolean("crawl.full");
+
+    // Request/response capture: "failures" logs and attaches exchanges only for non-2xx responses and failed tests,
+    // "all" logs every request and attaches it to Allure (-Dhttp.capture=all)
+    public static final String HTTP_CAPTURE_MODE = System.getProperty("http.capture", "failures");
+    public static final int HTTP_CAPTURE_RING_SIZE = Integer.getInteger("http.capture.ringSize", 16);
+    public static final int HTTP_CAPTURE_MAX_BODY_BYTES = Integer.getInteger("http.capture.maxBodyBytes", 8 * 1024);
+
+    // @LatencySlo: the measured repeats of a passed test's requests (-Dslo.enabled=false skips them); a value
+    // above 0 for slo.warmup, slo.repetitions or slo.parallelism overrides every annotation's own value
+    public static final boolean LATENCY_SLO_ENABLED = Boolean.parseBoolean(System.getProperty("slo.enabled", "true"));
+    public static final int LATENCY_SLO_WARMUP = Integer.getInteger("slo.warmup", 0);
+    public static final int LATENCY_SLO_REPETITIONS = Integer.getInteger("slo.repetitions", 0);
+    public static final int LATENCY_SLO_PARALLELISM = Integer.getInteger("slo.parallelism", 0);
+
+    // Allure attachments are queued and written in batches by a background thread (-Dallure.attachments.async=false
+    // writes them on the test thread); the queue is bounded by entries and bytes and blocks the test when full.
+    // With collapsePassed the per-ID attachments of passing sweep steps become one summary attachment.
+    public static final boolean ALLURE_ATTACHMENTS_ASYNC =
+            Boolean.parseBoolean(System.getProperty("allure.attachments.async", "true"));
+    public static final int ALLURE_ATTACHMENTS_QUEUE_SIZE = Integer.getInteger("allure.attachments.queueSize", 1024);
+    public static final int ALLURE_ATTACHMENTS_QUEUE_BYTES =
+            Integer.getInteger("allure.attachments.queueBytes", 32 * 1024 * 1024);
+    public static final int ALLURE_ATTACHMENTS_BATCH_SIZE = Integer.getInteger("allure.attachments.batchSize", 64);
+    public static final boolean ALLURE_ATTACHMENTS_COLLAPSE_PASSED =
+            Boolean.parseBoolean(System.getProperty("allure.attachments.collapsePassed", "true"));
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    private static String resolveBaseUrl() {
+        String baseUrl = Boolean.getBoolean("stub.enabled")
+                ? StubUserServer.shared().getBaseUrl()
+                : System.getProperty("api.baseUrl", LIVE_BASE_URL);
+        String proxyFault = System.getProperty("proxy.fault", "");
+        if (!proxyFault.isEmpty()) {
+            return LatencyInjectionProxy.shared(baseUrl, ProxyFault.parse(proxyFault)).getBaseUrl();
+        }
+        return baseUrl;
+    }
 }
@@ -0,0 +1,58 @@
+package com.qa.challenge.utils;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Name of the test running on the current thread, used to tag request metrics.
+ * Set by {@link RunListener}; worker threads started by a test can inherit it with {@link #wrap(Callable)},
+ * together with the test's {@link Deadline} budget.
+ */
+public final class TestContext {
+    private static final String NO_TEST = "(no test)";
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+
+    private TestContext() {
+    }
+
+    public static String currentTestName() {
+        String name = currentTest.get();
+        return name != null ? name : NO_TEST;
+    }
+
+    // Null when no test is running, so RunListener can restore exactly what was there
+    static String currentTestNameOrNull() {
+        return currentTest.get();
+    }
+
+    static void setCurrentTestName(String name) {
+        if (name == null) {
+            currentTest.remove();
+        } else {
+            currentTest.set(name);
+        }
+    }
+
+    static void clear() {
+        currentTest.remove();
+    }
+
+    /**
+     * Wraps a task so it runs with the test name and deadline budget of the thread that created it.
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        String name = currentTest.get();
+        Deadline.Budget budget = Deadline.get();
+        return () -> {
+            String previous = currentTest.get();
+            Deadline.Budget previousBudget = Deadline.get();
+            currentTest.set(name);
+            Deadline.set(budget);
+            try {
+                return task.call();
+            } finally {
+                currentTest.set(previous);
+                Deadline.set(previousBudget);
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.qa.challenge.utils;
+
+import com.qa.challenge.models.UserIdArrayResponse;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM-wide cache of the {@code gender=any} user ID list, shared by all test classes.
+ * <p>
+ * The list is fetched once and reused until it is older than {@link TestConfig#USER_IDS_TTL_SECONDS}
+ * or {@link #invalidate()} is called. Reads of a fresh snapshot go through a single volatile field
+ * and never lock; only the thread that refreshes an expired snapshot takes the lock.
+ * Snapshots are immutable, so tests running in parallel need no JUnit resource lock to share them.
+ * <p>
+ * A non-200 or unsuccessful list is logged and handed out as an empty snapshot, but not cached, so the next
+ * caller fetches it again instead of working with no IDs for the whole TTL.
+ */
+public final class UserIdFixture {
+    private static final Logger logger = LoggerFactory.getLogger(UserIdFixture.class);
+    private static final Object refreshLock = new Object();
+
+    private static volatile UserIdSnapshot current;
+
+    private UserIdFixture() {
+    }
+
+    /**
+     * Returns the cached snapshot, fetching it first if there is none yet or it has expired.
+     */
+    public static UserIdSnapshot snapshot() {
+        UserIdSnapshot snapshot = current;
+        if (isFresh(snapshot)) {
+            return snapshot;
+        }
+        synchronized (refreshLock) {
+            snapshot = current;
+            if (isFresh(snapshot)) {
+                return snapshot;
+            }
+            snapshot = fetch();
+            if (snapshot != null) {
+                current = snapshot;
+                return snapshot;
+            }
+            return new UserIdSnapshot(new int[0], System.nanoTime());
+        }
+    }
+
+    /**
+     * Replaces the cached snapshot with IDs another test has already fetched from the server.
+     */
+    public static void publish(int[] ids) {
+        current = new UserIdSnapshot(ids == null ? new int[0] : ids.clone(), System.nanoTime());
+    }
+
+    /**
+     * Drops the cached snapshot so the next {@link #snapshot()} call fetches it again.
+     */
+    public static void invalidate() {
+        current = null;
+    }
+
+    private static boolean isFresh(UserIdSnapshot snapshot) {
+        if (snapshot == null) {
+            return false;
+        }
+        long ageNanos = System.nanoTime() - snapshot.getFetchedAtNanos();
+        return ageNanos < TimeUnit.SECONDS.toNanos(TestConfig.USER_IDS_TTL_SECONDS);
+    }
+
+    // Null when the server did not return a successful list
+    private static UserIdSnapshot fetch() {
+        Map<String, Object> queryParams = new HashMap<>();
+        queryParams.put("gender", TestConfig.GENDER_ANY);
+        Response response = RestClient.shared().get(TestConfig.USERS_ENDPOINT, queryParams);
+        if (response.getStatusCode() != 200) {
+            logger.warn("Could not fetch user ID snapshot: HTTP {}, body: {}", response.getStatusCode(), response.asString());
+            return null;
+        }
+        // Streamed straight into an int[]; the list can be large
+        UserIdArrayResponse userIdList = UserIdListDecoder.decode(response);
+        if (!userIdList.getSuccess()) {
+            logger.warn("Could not fetch user ID snapshot: errorCode={}, errorMessage={}",
+                    userIdList.getErrorCode(), userIdList.getErrorMessage());
+            return null;
+        }
+        int[] ids = userIdList.getIdList();
+        UserIdSnapshot snapshot = new UserIdSnapshot(ids == null ? new int[0] : ids, System.nanoTime());
+        logger.info("Fetched user ID snapshot with {} IDs", snapshot.size());
+        return snapshot;
+    }
+}
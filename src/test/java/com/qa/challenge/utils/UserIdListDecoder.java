@@ -0,0 +1,129 @@
+package com.qa.challenge.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.qa.challenge.jfr.DeserializationEvent;
+import com.qa.challenge.models.UserIdArrayResponse;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes users list responses with Jackson's streaming API instead of data binding.
+ * <p>
+ * {@code idList} goes straight into an {@code int[]}, and {@code isSuccess}/{@code success}, {@code errorCode}
+ * and {@code errorMessage} are read in the same pass. No String copy of the body is made and no ID is boxed.
+ * With millions of IDs this needs a fraction of the heap that {@code response.as(UserIdListResponse.class)} does.
+ * Unknown fields are skipped, like {@code @JsonIgnoreProperties(ignoreUnknown = true)} on the model.
+ */
+public final class UserIdListDecoder {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private UserIdListDecoder() {
+    }
+
+    /**
+     * Decodes the body RestAssured has already buffered (see {@link BufferedBodyFilter}).
+     */
+    public static UserIdArrayResponse decode(Response response) {
+        return decode(response.asByteArray());
+    }
+
+    public static UserIdArrayResponse decode(byte[] body) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return decode(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode users list response", e);
+        }
+    }
+
+    public static UserIdArrayResponse decode(InputStream body) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return decode(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode users list response", e);
+        }
+    }
+
+    private static UserIdArrayResponse decode(JsonParser parser) throws IOException {
+        // The parser reads lazily, so the event covers the whole parse
+        DeserializationEvent event = new DeserializationEvent();
+        event.begin();
+        try {
+            return read(parser);
+        } finally {
+            RecordingObjectMapper.commit(event, UserIdArrayResponse.class.getTypeName());
+        }
+    }
+
+    private static UserIdArrayResponse read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Users list response is not a JSON object");
+        }
+        boolean isSuccess = false;
+        boolean success = false;
+        int errorCode = 0;
+        String errorMessage = null;
+        int[] idList = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "isSuccess":
+                    isSuccess = value == JsonToken.VALUE_TRUE;
+                    break;
+                case "success":
+                    success = value == JsonToken.VALUE_TRUE;
+                    break;
+                case "errorCode":
+                    errorCode = parser.getValueAsInt(0);
+                    break;
+                case "errorMessage":
+                    errorMessage = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                    break;
+                case "idList":
+                    idList = value == JsonToken.START_ARRAY ? readIntArray(parser) : null;
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return new UserIdArrayResponse(isSuccess, errorCode, errorMessage, idList, success);
+    }
+
+    // IDs are collected in fixed-size chunks and copied once at the end, so a large list is never regrown
+    private static int[] readIntArray(JsonParser parser) throws IOException {
+        List<int[]> fullChunks = new ArrayList<>();
+        int[] chunk = new int[CHUNK_SIZE];
+        int inChunk = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_NUMBER_INT) {
+                throw new JsonParseException(parser, "Expected an integer user ID in idList, got " + token);
+            }
+            if (inChunk == CHUNK_SIZE) {
+                fullChunks.add(chunk);
+                chunk = new int[CHUNK_SIZE];
+                inChunk = 0;
+            }
+            chunk[inChunk++] = parser.getIntValue();
+        }
+
+        int[] ids = new int[fullChunks.size() * CHUNK_SIZE + inChunk];
+        int offset = 0;
+        for (int[] full : fullChunks) {
+            System.arraycopy(full, 0, ids, offset, CHUNK_SIZE);
+            offset += CHUNK_SIZE;
+        }
+        System.arraycopy(chunk, 0, ids, offset, inChunk);
+        return ids;
+    }
+}
@@ -0,0 +1,61 @@
+package com.qa.challenge.utils;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable view of the user IDs returned by the users list endpoint at one point in time.
+ * The backing array is never handed out, so a snapshot can be shared between threads without locking.
+ */
+public final class UserIdSnapshot {
+    private final int[] ids;
+    private final long fetchedAtNanos;
+
+    UserIdSnapshot(int[] ids, long fetchedAtNanos) {
+        this.ids = ids;
+        this.fetchedAtNanos = fetchedAtNanos;
+    }
+
+    public static UserIdSnapshot of(int... ids) {
+        return new UserIdSnapshot(ids.clone(), System.nanoTime());
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public int get(int index) {
+        return ids[index];
+    }
+
+    public boolean contains(int id) {
+        for (int value : ids) {
+            if (value == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(ids);
+    }
+
+    // Returns a copy; callers can modify it freely
+    public int[] toArray() {
+        return ids.clone();
+    }
+
+    long getFetchedAtNanos() {
+        return fetchedAtNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "UserIdSnapshot{size=" + ids.length + "}";
+    }
+}